@@ -2,8 +2,10 @@ package com.example.EdutechAPI;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class EdutechApiApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,102 @@
+package com.example.EdutechAPI.api.analitica.controller;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.EdutechAPI.api.analitica.dto.Dimension;
+import com.example.EdutechAPI.api.analitica.dto.FiltroAnalitica;
+import com.example.EdutechAPI.api.analitica.dto.FrescuraRollup;
+import com.example.EdutechAPI.api.analitica.dto.ResultadoAnalitica;
+import com.example.EdutechAPI.api.analitica.service.CuboInscripciones;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@Tag(name = "Analítica", description = "Inscripciones agregadas por curso, mes, estado y oficina, servidas desde rollups en memoria.")
+@RestController
+@RequestMapping("/api/analytics")
+public class AnaliticaController {
+
+    private final CuboInscripciones cuboInscripciones;
+
+    @Autowired
+    public AnaliticaController(CuboInscripciones cuboInscripciones) {
+        this.cuboInscripciones = cuboInscripciones;
+    }
+
+    @Operation(summary = "Inscripciones agregadas",
+               description = "Cuenta inscripciones agrupando por las dimensiones pedidas (curso, mes, estado, oficina) y aplicando los filtros dados. " +
+                             "Se responde desde el cubo en memoria, sin consultar INSCRIPCIONES; 'frescura' indica cuándo se actualizó por última vez.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Resultado de la agregación",
+                     content = @Content(mediaType = "application/json",
+                     schema = @Schema(implementation = ResultadoAnalitica.class))),
+        @ApiResponse(responseCode = "400", description = "Dimensión o mes no válidos",
+                     content = @Content(mediaType = "application/json",
+                     examples = @ExampleObject(name = "Dimensión inválida", value = "{\"error\": \"Dimensión no válida: 'pais'. Use curso, mes, estado u oficina.\"}")))
+    })
+    @GetMapping("/inscripciones")
+    public ResponseEntity<Object> getInscripcionesAgregadas(
+            @Parameter(description = "Dimensiones separadas por comas: curso, mes, estado, oficina. Vacío devuelve solo el total", example = "curso,mes")
+            @RequestParam(name = "agrupar", required = false) List<String> agrupar,
+            @Parameter(description = "Solo este curso", example = "10")
+            @RequestParam(name = "idCurso", required = false) Long idCurso,
+            @Parameter(description = "Solo este estado", example = "en curso")
+            @RequestParam(name = "estado", required = false) String estado,
+            @Parameter(description = "Solo usuarios de esta oficina", example = "100")
+            @RequestParam(name = "idOficina", required = false) Long idOficina,
+            @Parameter(description = "Primer mes incluido (yyyy-MM)", example = "2025-01")
+            @RequestParam(name = "desde", required = false) String desde,
+            @Parameter(description = "Último mes incluido (yyyy-MM)", example = "2025-12")
+            @RequestParam(name = "hasta", required = false) String hasta) {
+        try {
+            List<Dimension> dimensiones = new ArrayList<>();
+            if (agrupar != null) {
+                for (String nombre : agrupar) {
+                    if (!nombre.isBlank()) {
+                        dimensiones.add(Dimension.desde(nombre));
+                    }
+                }
+            }
+            FiltroAnalitica filtro = new FiltroAnalitica(idCurso, estado, idOficina, mes(desde), mes(hasta));
+            return ResponseEntity.ok(cuboInscripciones.consultar(dimensiones, filtro));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Frescura de los rollups",
+               description = "Última reconstrucción completa, última actualización incremental y cambios pendientes de cada rollup.")
+    @ApiResponse(responseCode = "200", description = "Frescura de cada rollup")
+    @GetMapping("/frescura")
+    public List<FrescuraRollup> getFrescura() {
+        return List.of(cuboInscripciones.frescura());
+    }
+
+    private static YearMonth mes(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(valor.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Mes no válido: '" + valor + "'. Use el formato yyyy-MM.");
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.EdutechAPI.api.analitica.dto;
+
+// Fila del GROUP BY (curso, año, mes, estado, oficina) con que se llena el cubo de inscripciones
+public record CeldaInscripciones(Long idCurso, Integer anio, Integer mes, String estado, Long idOficina, Long cantidad) {
+}
@@ -0,0 +1,19 @@
+package com.example.EdutechAPI.api.analitica.dto;
+
+import java.util.Locale;
+
+// Dimensiones por las que se puede agrupar el cubo de inscripciones (parámetro 'agrupar')
+public enum Dimension {
+    CURSO,
+    MES,
+    ESTADO,
+    OFICINA;
+
+    public static Dimension desde(String nombre) {
+        try {
+            return valueOf(nombre.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Dimensión no válida: '" + nombre + "'. Use curso, mes, estado u oficina.");
+        }
+    }
+}
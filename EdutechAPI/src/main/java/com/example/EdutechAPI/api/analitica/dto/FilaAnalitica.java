@@ -0,0 +1,8 @@
+package com.example.EdutechAPI.api.analitica.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Una fila del resultado: solo vienen informadas las dimensiones por las que se agrupó. 'mes' es yyyy-MM.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record FilaAnalitica(Long idCurso, String mes, String estado, Long idOficina, long inscripciones) {
+}
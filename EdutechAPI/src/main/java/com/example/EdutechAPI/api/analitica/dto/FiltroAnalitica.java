@@ -0,0 +1,11 @@
+package com.example.EdutechAPI.api.analitica.dto;
+
+import java.time.YearMonth;
+
+// Filtros opcionales de una consulta al cubo; null significa "sin filtrar". El rango de meses es inclusivo.
+public record FiltroAnalitica(Long idCurso, String estado, Long idOficina, YearMonth desde, YearMonth hasta) {
+
+    public static FiltroAnalitica ninguno() {
+        return new FiltroAnalitica(null, null, null, null, null);
+    }
+}
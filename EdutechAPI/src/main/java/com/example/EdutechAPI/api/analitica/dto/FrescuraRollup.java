@@ -0,0 +1,13 @@
+package com.example.EdutechAPI.api.analitica.dto;
+
+import java.time.Instant;
+
+// Qué tan al día está un rollup: última reconstrucción completa, última actualización incremental
+// y cuántos cambios esperan todavía a ser aplicados. Sin reconstrucción (null) el rollup no tiene datos.
+public record FrescuraRollup(String rollup,
+                             Instant ultimaReconstruccion,
+                             long duracionReconstruccionMs,
+                             Instant ultimaActualizacion,
+                             int cambiosPendientes,
+                             int celdas) {
+}
@@ -0,0 +1,6 @@
+package com.example.EdutechAPI.api.analitica.dto;
+
+import java.util.List;
+
+public record ResultadoAnalitica(List<Dimension> agrupadoPor, long total, List<FilaAnalitica> filas, FrescuraRollup frescura) {
+}
@@ -0,0 +1,28 @@
+package com.example.EdutechAPI.api.analitica.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import com.example.EdutechAPI.api.analitica.dto.CeldaInscripciones;
+import com.example.EdutechAPI.api.inscripciones.model.Inscripcion;
+
+// Consultas de agregación que alimentan el cubo de inscripciones. No se usan para responder peticiones:
+// la completa corre en la reconstrucción nocturna y la filtrada por curso en las actualizaciones incrementales
+// (apoyada en IX_INSCRIPCIONES_CURSO, ver db/004_indice_inscripciones_curso.sql).
+public interface AnaliticaRepository extends Repository<Inscripcion, Long> {
+
+    String SELECT_CELDAS = "SELECT new com.example.EdutechAPI.api.analitica.dto.CeldaInscripciones(" +
+            "i.curso.idCurso, YEAR(i.fechaInscripcion), MONTH(i.fechaInscripcion), i.estado, u.idOficina, COUNT(i)) " +
+            "FROM Inscripcion i JOIN i.usuario u ";
+    String GROUP_BY_CELDAS = "GROUP BY i.curso.idCurso, YEAR(i.fechaInscripcion), MONTH(i.fechaInscripcion), i.estado, u.idOficina";
+
+    @Query(SELECT_CELDAS + GROUP_BY_CELDAS)
+    List<CeldaInscripciones> contarCeldas();
+
+    @Query(SELECT_CELDAS + "WHERE i.curso.idCurso IN :idsCurso " + GROUP_BY_CELDAS)
+    List<CeldaInscripciones> contarCeldas(@Param("idsCurso") Collection<Long> idsCurso);
+}
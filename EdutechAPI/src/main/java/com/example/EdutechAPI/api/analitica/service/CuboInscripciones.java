@@ -0,0 +1,245 @@
+package com.example.EdutechAPI.api.analitica.service;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.EdutechAPI.api.analitica.dto.CeldaInscripciones;
+import com.example.EdutechAPI.api.analitica.dto.Dimension;
+import com.example.EdutechAPI.api.analitica.dto.FilaAnalitica;
+import com.example.EdutechAPI.api.analitica.dto.FiltroAnalitica;
+import com.example.EdutechAPI.api.analitica.dto.FrescuraRollup;
+import com.example.EdutechAPI.api.analitica.dto.ResultadoAnalitica;
+import com.example.EdutechAPI.api.analitica.repository.AnaliticaRepository;
+import com.example.EdutechAPI.api.inscripciones.event.InscripcionCambiadaEvent;
+import com.example.EdutechAPI.api.inscripciones.repository.InscripcionRepository;
+
+import jakarta.annotation.PostConstruct;
+
+// Cubo en memoria de inscripciones por curso, mes, estado y oficina del usuario (Usuario.idOficina).
+// - Las consultas de /api/analytics recorren las celdas del cubo; nunca llegan a INSCRIPCIONES.
+// - Las celdas se guardan por curso, en listas inmutables: actualizar un curso es reemplazar su lista,
+//   y una consulta ve cada curso entero o antes o después del cambio.
+// - Actualización incremental: cada InscripcionCambiadaEvent marca su curso como pendiente y, cada pocos
+//   segundos, se recuentan solo esos cursos (un GROUP BY sobre el índice por curso).
+// - Reconstrucción completa al arrancar y de madrugada: corrige lo que los eventos no ven (escrituras de
+//   otras instancias, borrados en cascada, cambios de oficina de un usuario).
+// - Los recuentos incrementales corren en una transacción de escritura para que vayan al primario: en una
+//   réplica retrasada el curso se recontaría sin el cambio que lo marcó, y el pendiente ya se habría consumido.
+@Component
+public class CuboInscripciones {
+
+    private static final Logger log = LoggerFactory.getLogger(CuboInscripciones.class);
+
+    public static final String ROLLUP = "inscripciones";
+    static final String SIN_ESTADO = "(sin estado)";
+    // Oracle admite como máximo 1000 elementos en una lista IN
+    private static final int MAX_IDS_POR_CONSULTA = 1000;
+
+    private static final Comparator<ClaveFila> ORDEN_FILAS = Comparator
+            .comparing(ClaveFila::idCurso, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(ClaveFila::mes, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(ClaveFila::estado, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(ClaveFila::idOficina, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final AnaliticaRepository analiticaRepository;
+    private final InscripcionRepository inscripcionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicReference<ConcurrentHashMap<Long, List<Celda>>> porCurso = new AtomicReference<>(new ConcurrentHashMap<>());
+    private final Set<Long> cursosPendientes = ConcurrentHashMap.newKeySet();
+    private final Set<Long> inscripcionesPendientes = ConcurrentHashMap.newKeySet();
+
+    private volatile Instant ultimaReconstruccion;
+    private volatile long duracionReconstruccionMs;
+    private volatile Instant ultimaActualizacion;
+
+    public CuboInscripciones(AnaliticaRepository analiticaRepository, InscripcionRepository inscripcionRepository,
+                             TransactionTemplate transactionTemplate) {
+        this.analiticaRepository = analiticaRepository;
+        this.inscripcionRepository = inscripcionRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    private record Celda(YearMonth mes, String estado, Long idOficina, long cantidad) {
+    }
+
+    private record ClaveFila(Long idCurso, YearMonth mes, String estado, Long idOficina) {
+    }
+
+    @PostConstruct
+    void cargarInicial() {
+        try {
+            reconstruir();
+        } catch (RuntimeException e) {
+            // Sin base de datos al arrancar: el cubo queda vacío hasta la próxima reconstrucción
+            log.warn("No se pudo construir el cubo de inscripciones: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${analytics.inscripciones.reconstruccion-cron:0 0 3 * * *}")
+    public void reconstruccionProgramada() {
+        cargarInicial();
+    }
+
+    // Recalcula el cubo completo y lo publica de una vez
+    public synchronized void reconstruir() {
+        long inicio = System.nanoTime();
+        ConcurrentHashMap<Long, List<Celda>> nuevo = new ConcurrentHashMap<>();
+        agrupar(analiticaRepository.contarCeldas()).forEach(nuevo::put);
+        porCurso.set(nuevo);
+        duracionReconstruccionMs = (System.nanoTime() - inicio) / 1_000_000;
+        ultimaReconstruccion = Instant.now();
+        ultimaActualizacion = ultimaReconstruccion;
+        log.info("Cubo de inscripciones reconstruido: {} cursos en {} ms", nuevo.size(), duracionReconstruccionMs);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInscripcionCambiada(InscripcionCambiadaEvent event) {
+        if (event.idCurso() != null) {
+            cursosPendientes.add(event.idCurso());
+        } else {
+            inscripcionesPendientes.add(event.idInscripcion());
+        }
+    }
+
+    // Recuenta los cursos que cambiaron desde la última pasada
+    @Scheduled(fixedDelayString = "${analytics.inscripciones.actualizacion-ms:5000}")
+    public void actualizarPendientes() {
+        try {
+            while (!inscripcionesPendientes.isEmpty()) {
+                List<Long> bloque = tomar(inscripcionesPendientes);
+                try {
+                    cursosPendientes.addAll(transactionTemplate.execute(estado -> inscripcionRepository.findIdsCursoDeInscripciones(bloque)));
+                } catch (RuntimeException e) {
+                    inscripcionesPendientes.addAll(bloque);
+                    throw e;
+                }
+            }
+            while (!cursosPendientes.isEmpty()) {
+                List<Long> bloque = tomar(cursosPendientes);
+                try {
+                    transactionTemplate.executeWithoutResult(estado -> recontar(bloque));
+                } catch (RuntimeException e) {
+                    cursosPendientes.addAll(bloque);
+                    throw e;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("No se pudo actualizar el cubo de inscripciones: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void recontar(List<Long> idsCurso) {
+        Map<Long, List<Celda>> recontados = agrupar(analiticaRepository.contarCeldas(idsCurso));
+        ConcurrentHashMap<Long, List<Celda>> actual = porCurso.get();
+        for (Long idCurso : idsCurso) {
+            List<Celda> celdas = recontados.get(idCurso);
+            if (celdas == null) {
+                actual.remove(idCurso);
+            } else {
+                actual.put(idCurso, celdas);
+            }
+        }
+        ultimaActualizacion = Instant.now();
+    }
+
+    public ResultadoAnalitica consultar(Collection<Dimension> agrupar, FiltroAnalitica filtro) {
+        Set<Dimension> dimensiones = agrupar.isEmpty() ? EnumSet.noneOf(Dimension.class) : EnumSet.copyOf(agrupar);
+        Map<Long, List<Celda>> cubo = porCurso.get();
+        Map<ClaveFila, Long> acumulado = new HashMap<>();
+        if (filtro.idCurso() != null) {
+            acumularCurso(filtro.idCurso(), cubo.getOrDefault(filtro.idCurso(), List.of()), dimensiones, filtro, acumulado);
+        } else {
+            cubo.forEach((idCurso, celdas) -> acumularCurso(idCurso, celdas, dimensiones, filtro, acumulado));
+        }
+
+        List<ClaveFila> claves = new ArrayList<>(acumulado.keySet());
+        claves.sort(ORDEN_FILAS);
+        List<FilaAnalitica> filas = new ArrayList<>(claves.size());
+        long total = 0;
+        for (ClaveFila clave : claves) {
+            long cantidad = acumulado.get(clave);
+            total += cantidad;
+            filas.add(new FilaAnalitica(clave.idCurso(), clave.mes() == null ? null : clave.mes().toString(),
+                    clave.estado(), clave.idOficina(), cantidad));
+        }
+        return new ResultadoAnalitica(List.copyOf(dimensiones), total, filas, frescura());
+    }
+
+    private static void acumularCurso(Long idCurso, List<Celda> celdas, Set<Dimension> dimensiones,
+                                      FiltroAnalitica filtro, Map<ClaveFila, Long> acumulado) {
+        for (Celda celda : celdas) {
+            if (!cumple(celda, filtro)) {
+                continue;
+            }
+            ClaveFila clave = new ClaveFila(
+                    dimensiones.contains(Dimension.CURSO) ? idCurso : null,
+                    dimensiones.contains(Dimension.MES) ? celda.mes() : null,
+                    dimensiones.contains(Dimension.ESTADO) ? celda.estado() : null,
+                    dimensiones.contains(Dimension.OFICINA) ? celda.idOficina() : null);
+            acumulado.merge(clave, celda.cantidad(), Long::sum);
+        }
+    }
+
+    private static boolean cumple(Celda celda, FiltroAnalitica filtro) {
+        if (filtro.estado() != null && !filtro.estado().equals(celda.estado())) {
+            return false;
+        }
+        if (filtro.idOficina() != null && !filtro.idOficina().equals(celda.idOficina())) {
+            return false;
+        }
+        if (filtro.desde() != null && (celda.mes() == null || celda.mes().isBefore(filtro.desde()))) {
+            return false;
+        }
+        return filtro.hasta() == null || (celda.mes() != null && !celda.mes().isAfter(filtro.hasta()));
+    }
+
+    public FrescuraRollup frescura() {
+        int celdas = 0;
+        for (List<Celda> delCurso : porCurso.get().values()) {
+            celdas += delCurso.size();
+        }
+        return new FrescuraRollup(ROLLUP, ultimaReconstruccion, duracionReconstruccionMs, ultimaActualizacion,
+                cursosPendientes.size() + inscripcionesPendientes.size(), celdas);
+    }
+
+    private static Map<Long, List<Celda>> agrupar(List<CeldaInscripciones> filas) {
+        Map<Long, List<Celda>> porCurso = new HashMap<>();
+        for (CeldaInscripciones fila : filas) {
+            YearMonth mes = fila.anio() == null || fila.mes() == null ? null : YearMonth.of(fila.anio(), fila.mes());
+            String estado = Objects.requireNonNullElse(fila.estado(), SIN_ESTADO);
+            porCurso.computeIfAbsent(fila.idCurso(), id -> new ArrayList<>())
+                    .add(new Celda(mes, estado, fila.idOficina(), fila.cantidad()));
+        }
+        porCurso.replaceAll((idCurso, celdas) -> List.copyOf(celdas));
+        return porCurso;
+    }
+
+    private static List<Long> tomar(Set<Long> pendientes) {
+        List<Long> bloque = new ArrayList<>(MAX_IDS_POR_CONSULTA);
+        Iterator<Long> iterador = pendientes.iterator();
+        while (iterador.hasNext() && bloque.size() < MAX_IDS_POR_CONSULTA) {
+            bloque.add(iterador.next());
+            iterador.remove();
+        }
+        return bloque;
+    }
+}
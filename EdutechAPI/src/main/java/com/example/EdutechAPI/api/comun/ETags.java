@@ -0,0 +1,55 @@
+package com.example.EdutechAPI.api.comun;
+
+// ETags fuertes a partir de la columna @Version (un recurso) o de un VersionColeccion (un listado).
+// Los controladores comparan If-None-Match antes de cargar la entidad y pasan la versión de If-Match
+// al servicio, que rechaza la escritura si la fila ya cambió.
+public final class ETags {
+
+    // Versión que nunca coincide: If-Match con una ETag débil o que no es de este recurso
+    public static final long VERSION_NINGUNA = -1L;
+
+    private ETags() {
+    }
+
+    public static String deVersion(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    public static String deColeccion(VersionColeccion version) {
+        return "\"" + version.cantidad() + "-" + version.maxId() + "-" + version.sumaVersiones() + "\"";
+    }
+
+    // If-None-Match usa comparación débil: "W/" se ignora y "*" coincide con cualquier ETag
+    public static boolean coincide(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidata : ifNoneMatch.split(",")) {
+            String valor = candidata.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Versión que exige If-Match (comparación fuerte), o null si no hay cabecera o es "*".
+    // Solo se admite una ETag: una lista, una ETag débil o un valor ajeno devuelven VERSION_NINGUNA (412).
+    public static Long versionEsperada(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.length() < 3 || !valor.startsWith("\"") || !valor.endsWith("\"")) {
+            return VERSION_NINGUNA;
+        }
+        try {
+            return Long.parseLong(valor.substring(1, valor.length() - 1));
+        } catch (NumberFormatException e) {
+            return VERSION_NINGUNA;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.EdutechAPI.api.comun;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Sort;
+
+// Órdenes permitidos para paginar una entidad. Cada clave de orden se publica en dos sentidos:
+// "fecha" (ascendente) y "-fecha" (descendente). El ID siempre desempata, así el orden es estable.
+// Solo se admiten claves de tipo Long, String o Date, que son las que el cursor sabe serializar.
+public final class OrdenesPagina<E> {
+
+    public static final String ORDEN_ID = "id";
+
+    private final String propiedadId;
+    private final Function<E, Long> id;
+    private final Map<String, Orden<E>> ordenes = new LinkedHashMap<>();
+
+    private OrdenesPagina(String propiedadId, Function<E, Long> id) {
+        this.propiedadId = propiedadId;
+        this.id = id;
+        agregar(ORDEN_ID, null, Long.class, null);
+    }
+
+    public static <E> OrdenesPagina<E> de(String propiedadId, Function<E, Long> id) {
+        return new OrdenesPagina<>(propiedadId, id);
+    }
+
+    public OrdenesPagina<E> con(String nombre, String propiedad, Class<?> tipo, Function<E, ?> valor) {
+        if (tipo != Long.class && tipo != String.class && tipo != Date.class) {
+            throw new IllegalArgumentException("Tipo de clave de orden no soportado: " + tipo.getSimpleName());
+        }
+        agregar(nombre, propiedad, tipo, valor);
+        return this;
+    }
+
+    private void agregar(String nombre, String propiedad, Class<?> tipo, Function<E, ?> valor) {
+        ordenes.put(nombre, new Orden<>(nombre, propiedad, tipo, Sort.Direction.ASC, valor));
+        ordenes.put("-" + nombre, new Orden<>("-" + nombre, propiedad, tipo, Sort.Direction.DESC, valor));
+    }
+
+    public Orden<E> resolver(String nombre) {
+        Orden<E> orden = ordenes.get(nombre == null || nombre.isBlank() ? ORDEN_ID : nombre);
+        if (orden == null) {
+            throw new IllegalArgumentException("Orden '" + nombre + "' no válido. Valores permitidos: " + ordenes.keySet());
+        }
+        return orden;
+    }
+
+    public String getPropiedadId() {
+        return propiedadId;
+    }
+
+    public Long idDe(E entidad) {
+        return id.apply(entidad);
+    }
+
+    // propiedad y valor son null cuando se ordena solo por ID
+    public record Orden<E>(String nombre, String propiedad, Class<?> tipo, Sort.Direction direccion, Function<E, ?> valor) {
+
+        public boolean soloPorId() {
+            return propiedad == null;
+        }
+    }
+}
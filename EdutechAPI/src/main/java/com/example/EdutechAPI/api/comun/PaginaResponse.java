@@ -0,0 +1,19 @@
+package com.example.EdutechAPI.api.comun;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Una página de resultados. siguienteCursor es opaco: se reenvía tal cual en el parámetro 'cursor'
+// para pedir la página siguiente, y es null cuando no hay más resultados.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaResponse<T> {
+    private List<T> contenido;
+    private int tamano;
+    private boolean hayMas;
+    private String siguienteCursor;
+}
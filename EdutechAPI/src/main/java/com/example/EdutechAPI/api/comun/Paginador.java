@@ -0,0 +1,121 @@
+package com.example.EdutechAPI.api.comun;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Component;
+
+// Paginación por keyset (cursor) para los listados.
+// En lugar de OFFSET, cada página continúa desde la clave de orden y el ID de la última fila:
+// WHERE (clave, id) > (:ultimaClave, :ultimoId) ORDER BY clave, id FETCH FIRST n+1 ROWS.
+// Así la página 1000 cuesta lo mismo que la primera y no se saltan ni repiten filas si se inserta entre páginas.
+@Component
+public class Paginador {
+
+    private static final char SEPARADOR = '|';
+
+    private final int tamanoPorDefecto;
+    private final int tamanoMaximo;
+
+    public Paginador(@Value("${paginacion.tamano-por-defecto:20}") int tamanoPorDefecto,
+                     @Value("${paginacion.tamano-maximo:100}") int tamanoMaximo) {
+        this.tamanoMaximo = tamanoMaximo;
+        this.tamanoPorDefecto = Math.min(tamanoPorDefecto, tamanoMaximo);
+    }
+
+    // Lanza IllegalArgumentException si el orden, el tamaño o el cursor no son válidos
+    public <E, T> PaginaResponse<T> paginar(JpaSpecificationExecutor<E> repositorio, Specification<E> filtro,
+                                            OrdenesPagina<E> ordenes, String nombreOrden, String cursor,
+                                            Integer tamano, Function<E, T> mapeo) {
+        // 1. Resolver orden y tamaño de página
+        OrdenesPagina.Orden<E> orden = ordenes.resolver(nombreOrden);
+        int tamanoPagina = resolverTamano(tamano);
+
+        // 2. Orden estable: la clave elegida y luego el ID
+        Sort sort = orden.soloPorId()
+                ? Sort.by(orden.direccion(), ordenes.getPropiedadId())
+                : Sort.by(orden.direccion(), orden.propiedad()).and(Sort.by(orden.direccion(), ordenes.getPropiedadId()));
+
+        // 3. Las filas sin valor en la clave no tienen posición en el keyset: se excluyen al ordenar por ella
+        Specification<E> especificacion = filtro != null ? filtro : Specification.where(null);
+        if (!orden.soloPorId()) {
+            especificacion = especificacion.and((root, query, cb) -> cb.isNotNull(root.get(orden.propiedad())));
+        }
+
+        // 4. Posición de partida
+        ScrollPosition posicion = cursor == null || cursor.isBlank()
+                ? ScrollPosition.keyset()
+                : decodificar(cursor, orden, ordenes.getPropiedadId());
+
+        Window<E> ventana = repositorio.findBy(especificacion,
+                consulta -> consulta.sortBy(sort).limit(tamanoPagina).scroll(posicion));
+
+        // 5. El cursor siguiente se arma con la última fila de la página
+        List<T> contenido = ventana.getContent().stream().map(mapeo).toList();
+        String siguienteCursor = null;
+        if (ventana.hasNext() && !ventana.isEmpty()) {
+            E ultima = ventana.getContent().get(ventana.size() - 1);
+            siguienteCursor = codificar(orden, orden.soloPorId() ? null : orden.valor().apply(ultima), ordenes.idDe(ultima));
+        }
+        return new PaginaResponse<>(contenido, tamanoPagina, siguienteCursor != null, siguienteCursor);
+    }
+
+    private int resolverTamano(Integer tamano) {
+        if (tamano == null) {
+            return tamanoPorDefecto;
+        }
+        if (tamano < 1 || tamano > tamanoMaximo) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + tamanoMaximo + ".");
+        }
+        return tamano;
+    }
+
+    // Formato: orden|id|valor, en Base64 URL. Incluir el orden impide reutilizar un cursor con otro orden.
+    private static String codificar(OrdenesPagina.Orden<?> orden, Object valor, Long id) {
+        StringBuilder texto = new StringBuilder().append(orden.nombre()).append(SEPARADOR).append(id);
+        if (valor != null) {
+            texto.append(SEPARADOR).append(valor instanceof Date fecha ? String.valueOf(fecha.getTime()) : valor.toString());
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static KeysetScrollPosition decodificar(String cursor, OrdenesPagina.Orden<?> orden, String propiedadId) {
+        try {
+            String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = texto.split("\\" + SEPARADOR, 3);
+            if (!partes[0].equals(orden.nombre()) || partes.length != (orden.soloPorId() ? 2 : 3)) {
+                throw new IllegalArgumentException("El cursor no corresponde al orden '" + orden.nombre() + "'.");
+            }
+            Map<String, Object> claves = new LinkedHashMap<>();
+            if (!orden.soloPorId()) {
+                claves.put(orden.propiedad(), convertir(partes[2], orden.tipo()));
+            }
+            claves.put(propiedadId, Long.valueOf(partes[1]));
+            return ScrollPosition.forward(claves);
+        } catch (IllegalArgumentException e) { // Incluye Base64 y números mal formados
+            throw new IllegalArgumentException("Cursor de paginación no válido.", e);
+        }
+    }
+
+    private static Object convertir(String valor, Class<?> tipo) {
+        if (tipo == Long.class) {
+            return Long.valueOf(valor);
+        }
+        if (tipo == Date.class) {
+            return new Date(Long.parseLong(valor));
+        }
+        return valor;
+    }
+}
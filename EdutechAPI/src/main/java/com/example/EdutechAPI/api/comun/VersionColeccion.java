@@ -0,0 +1,7 @@
+package com.example.EdutechAPI.api.comun;
+
+// Agregado barato que cambia con cualquier alta, baja o modificación de una tabla con @Version:
+// la cantidad y el mayor id cambian con las altas y bajas, y la suma de versiones con cada UPDATE
+// (el máximo de versiones no bastaría: modificar una fila que no es la más nueva no lo mueve).
+public record VersionColeccion(Long cantidad, Long maxId, Long sumaVersiones) {
+}
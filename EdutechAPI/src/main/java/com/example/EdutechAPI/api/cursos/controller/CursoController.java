@@ -1,22 +1,32 @@
 // src/main/java/com/example/EdutechAPI/api/cursos/controller/CursoController.java
 package com.example.EdutechAPI.api.cursos.controller;
 
-import java.util.List;
+import java.util.Collections;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.EdutechAPI.api.comun.ETags;
+import com.example.EdutechAPI.api.comun.PaginaResponse;
 import com.example.EdutechAPI.api.cursos.model.Curso;
 import com.example.EdutechAPI.api.cursos.service.CursoService;
+import com.example.EdutechAPI.api.inscripciones.dto.EstadisticasCurso;
+import com.example.EdutechAPI.api.inscripciones.service.ContadoresInscripciones;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -35,21 +45,47 @@ import jakarta.persistence.EntityNotFoundException;
 public class CursoController {
 
     private final CursoService cursoService;
+    private final ContadoresInscripciones contadoresInscripciones;
 
     @Autowired
-    public CursoController(CursoService cursoService) {
+    public CursoController(CursoService cursoService, ContadoresInscripciones contadoresInscripciones) {
         this.cursoService = cursoService;
+        this.contadoresInscripciones = contadoresInscripciones;
     }
 
     @Operation(summary = "Obtener todos los cursos",
-               description = "Recupera una lista de todos los cursos disponibles en el sistema.")
-    @ApiResponse(responseCode = "200", description = "Lista de cursos recuperada exitosamente",
-                 content = @Content(mediaType = "application/json",
-                 schema = @Schema(implementation = Curso.class, type = "array")))
+               description = "Recupera los cursos disponibles en el sistema, página a página. Para la página siguiente se envía el 'siguienteCursor' recibido.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de cursos recuperada exitosamente",
+                     content = @Content(mediaType = "application/json",
+                     schema = @Schema(implementation = PaginaResponse.class))),
+        @ApiResponse(responseCode = "304", description = "El catálogo no cambió desde la ETag enviada en If-None-Match",
+                     content = @Content),
+        @ApiResponse(responseCode = "400", description = "Cursor, tamaño u orden no válidos",
+                     content = @Content(mediaType = "application/json",
+                     examples = @ExampleObject(name = "Invalid Cursor", value = "{\"error\": \"Cursor de paginación no válido.\"}" )))
+    })
     @GetMapping
-    public ResponseEntity<List<Curso>> getAllCursos() {
-        List<Curso> cursos = cursoService.getAllCursos();
-        return ResponseEntity.ok(cursos);
+    public ResponseEntity<Object> getAllCursos(
+            @Parameter(description = "Cursor devuelto en 'siguienteCursor' por la página anterior; vacío para la primera página")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Cantidad de elementos por página (por defecto 20, máximo 100)", example = "20")
+            @RequestParam(name = "tamano", required = false) Integer tamano,
+            @Parameter(description = "Orden: id, nombre, fecha; con '-' delante es descendente", example = "id")
+            @RequestParam(name = "orden", defaultValue = "id") String orden,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            // La ETag sale de un agregado de una sola consulta y se calcula antes de leer la página:
+            // si hay una escritura entre medias, la página es más nueva que la ETag y solo se pierde un 304
+            String etag = ETags.deColeccion(cursoService.getVersionCatalogo());
+            if (ETags.coincide(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            PaginaResponse<Curso> pagina = cursoService.getCursosPaginados(orden, cursor, tamano);
+            return ResponseEntity.ok().eTag(etag).body(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        }
     }
 
     @Operation(summary = "Obtener curso por ID",
@@ -58,18 +94,51 @@ public class CursoController {
         @ApiResponse(responseCode = "200", description = "Curso encontrado exitosamente",
                      content = @Content(mediaType = "application/json",
                      schema = @Schema(implementation = Curso.class))),
+        @ApiResponse(responseCode = "304", description = "El curso no cambió desde la ETag enviada en If-None-Match",
+                     content = @Content),
         @ApiResponse(responseCode = "404", description = "Curso no encontrado",
                      content = @Content)
     })
     @GetMapping("/{id}")
     public ResponseEntity<Curso> getCursoById(
             @Parameter(description = "ID único del curso a buscar", required = true, example = "10")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Con If-None-Match basta la columna VERSION: si coincide no se carga ni se serializa el curso
+        if (ifNoneMatch != null) {
+            Optional<String> etag = cursoService.getVersionCurso(id).map(ETags::deVersion);
+            if (etag.isPresent() && ETags.coincide(ifNoneMatch, etag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+            }
+        }
         return cursoService.getCursoById(id)
-                .map(ResponseEntity::ok)
+                .map(curso -> ResponseEntity.ok().eTag(ETags.deVersion(curso.getVersion())).body(curso))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    @Operation(summary = "Estadísticas de inscripciones de un curso",
+               description = "Cantidad de inscripciones del curso, en total y por estado. Sale de contadores en memoria: " +
+                             "no consulta la base de datos y puede tardar unos segundos en reflejar los últimos cambios. " +
+                             "Un curso sin inscripciones (o inexistente) devuelve total 0.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Estadísticas del curso",
+                     content = @Content(mediaType = "application/json",
+                     schema = @Schema(implementation = EstadisticasCurso.class),
+                     examples = @ExampleObject(name = "Estadísticas", value = """
+                         {
+                             "idCurso": 10,
+                             "total": 42,
+                             "porEstado": { "Completado": 12, "en curso": 30 }
+                         }
+                         """)))
+    })
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<EstadisticasCurso> getEstadisticasCurso(
+            @Parameter(description = "ID del curso", required = true, example = "10")
+            @PathVariable Long id) {
+        return ResponseEntity.ok(contadoresInscripciones.estadisticas(id));
+    }
+
     @Operation(summary = "Crear un nuevo curso",
                description = "Registra un nuevo curso en el sistema. Se recomienda proporcionar un 'idCurso' único si no es autogenerado por la BD.")
     @ApiResponses(value = {
@@ -107,31 +176,27 @@ public class CursoController {
     @PostMapping
     public ResponseEntity<Curso> createCurso(@RequestBody Curso curso) {
         Curso newCurso = cursoService.createCurso(curso);
-        return ResponseEntity.status(HttpStatus.CREATED).body(newCurso);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.deVersion(newCurso.getVersion())).body(newCurso);
     }
 
     @Operation(summary = "Actualizar un curso existente",
-               description = "Actualiza los detalles de un curso (nombre, descripción, duración, precio) por su ID.")
+               description = "Actualiza los detalles de un curso (nombre, descripción, estado) por su ID. "
+                           + "Solo cambian los campos enviados: un campo null o ausente conserva su valor, "
+                           + "así que este PUT no puede vaciar un campo. Es un único UPDATE: no devuelve el curso.")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Curso actualizado exitosamente",
-                     content = @Content(mediaType = "application/json",
-                     schema = @Schema(implementation = Curso.class),
-                     examples = @ExampleObject(name = "Curso Actualizado", value = """
-                         {
-                             "idCurso": 1,
-                             "nombre": "Magia Avanzada",
-                             "descripcion": "Profundiza en hechizos complejos.",
-                             "duracionHoras": 60,
-                             "precio": 149.99
-                         }
-                         """))),
+        @ApiResponse(responseCode = "204", description = "Curso actualizado exitosamente (No Content). "
+                     + "Si se envió If-Match, la cabecera ETag trae la nueva versión; si no, se obtiene con GET /api/cursos/{id}"),
         @ApiResponse(responseCode = "404", description = "Curso no encontrado",
                      content = @Content),
+        @ApiResponse(responseCode = "409", description = "Otra petición modificó el curso al mismo tiempo",
+                     content = @Content),
+        @ApiResponse(responseCode = "412", description = "La ETag de If-Match ya no es la del curso",
+                     content = @Content),
         @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos",
                      content = @Content)
     })
     @io.swagger.v3.oas.annotations.parameters.RequestBody(
-        description = "Datos del curso a actualizar.",
+        description = "Datos del curso a actualizar. Los campos null o ausentes no se modifican.",
         required = true,
         content = @Content(
             mediaType = "application/json",
@@ -147,15 +212,20 @@ public class CursoController {
         )
     )
     @PutMapping("/{id}")
-    public ResponseEntity<Curso> updateCurso(
+    public ResponseEntity<Void> updateCurso(
             @Parameter(description = "ID del curso a actualizar", required = true, example = "1")
             @PathVariable Long id,
+            @Parameter(description = "ETag del curso leído; si ya cambió, responde 412 en lugar de pisar el cambio")
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody Curso cursoDetails) {
         try {
-            Curso updatedCurso = cursoService.updateCurso(id, cursoDetails);
-            return ResponseEntity.ok(updatedCurso);
+            Long nuevaVersion = cursoService.updateCurso(id, cursoDetails, ETags.versionEsperada(ifMatch));
+            return nuevaVersion == null ? ResponseEntity.noContent().build()
+                    : ResponseEntity.noContent().eTag(ETags.deVersion(nuevaVersion)).build();
         } catch (EntityNotFoundException e) {
             return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
         }
     }
 
@@ -164,17 +234,23 @@ public class CursoController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "204", description = "Curso eliminado exitosamente (No Content)"),
         @ApiResponse(responseCode = "404", description = "Curso no encontrado",
+                     content = @Content),
+        @ApiResponse(responseCode = "412", description = "La ETag de If-Match ya no es la del curso",
                      content = @Content)
     })
     @DeleteMapping("/{id}")
+    @PreAuthorize("@permisos.tiene(authentication, 'CURSOS_ELIMINAR')")
     public ResponseEntity<Void> deleteCurso(
             @Parameter(description = "ID del curso a eliminar", required = true, example = "1")
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            cursoService.deleteCurso(id);
+            cursoService.deleteCurso(id, ETags.versionEsperada(ifMatch));
             return ResponseEntity.noContent().build();
         } catch (EntityNotFoundException e) {
             return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
         }
     }
 }
\ No newline at end of file
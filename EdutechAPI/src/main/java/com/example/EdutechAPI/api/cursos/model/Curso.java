@@ -5,7 +5,12 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import com.fasterxml.jackson.annotation.JsonIgnore; // ¡Importa esta línea!
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.example.EdutechAPI.api.inscripciones.model.Inscripcion; // ¡Importa esta línea si aún no la tienes!
+import com.example.EdutechAPI.config.CacheSegundoNivel;
+import com.example.EdutechAPI.config.IdGeneracion;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Date;
 import java.util.HashSet;
@@ -13,6 +18,8 @@ import java.util.Set;
 
 @Entity
 @Table(name = "CURSOS")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivel.REGION_CURSOS)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,7 +27,7 @@ public class Curso {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "curso_seq_generator")
-    @SequenceGenerator(name = "curso_seq_generator", sequenceName = "cursos_id_curso_seq", allocationSize = 1)
+    @SequenceGenerator(name = "curso_seq_generator", sequenceName = "cursos_id_curso_seq", allocationSize = IdGeneracion.TAMANO_BLOQUE)
     @Column(name = "ID_CURSO")
     private Long idCurso;
 
@@ -44,4 +51,14 @@ public class Curso {
     @JsonIgnore
     @OneToMany(mappedBy = "curso", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Inscripcion> inscripciones;
+
+    // Control de concurrencia optimista y base de la ETag (ver CursoController). La asigna Hibernate.
+    @Version
+    @Column(name = "VERSION")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    public Curso(Long idCurso, String nombreCurso, String descripcion, Date fechaCreacion, String estado, Set<Inscripcion> inscripciones) {
+        this(idCurso, nombreCurso, descripcion, fechaCreacion, estado, inscripciones, null);
+    }
 }
\ No newline at end of file
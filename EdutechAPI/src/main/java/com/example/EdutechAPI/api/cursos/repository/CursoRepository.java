@@ -1,9 +1,40 @@
 package com.example.EdutechAPI.api.cursos.repository;
 
+import com.example.EdutechAPI.api.comun.VersionColeccion;
 import com.example.EdutechAPI.api.cursos.model.Curso;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface CursoRepository extends JpaRepository<Curso, Long> {
+public interface CursoRepository extends JpaRepository<Curso, Long>, JpaSpecificationExecutor<Curso> {
+
+    // Cuáles de los ids existen (máximo 1000 ids por llamada en Oracle)
+    @Query("SELECT c.idCurso FROM Curso c WHERE c.idCurso IN :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    // Solo la versión, para responder 304 sin cargar la fila completa
+    @Query("SELECT c.version FROM Curso c WHERE c.idCurso = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT new com.example.EdutechAPI.api.comun.VersionColeccion(COUNT(c), MAX(c.idCurso), SUM(c.version)) FROM Curso c")
+    VersionColeccion findVersionColeccion();
+
+    // Actualización parcial en un solo UPDATE: un parámetro null deja la columna como está.
+    // Sube la versión y, con :version, solo actualiza si la fila sigue en esa versión (compare-and-set).
+    // Devuelve 0 si el curso no existe o su versión cambió.
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Curso c SET c.nombreCurso = COALESCE(:nombre, c.nombreCurso), " +
+           "c.descripcion = COALESCE(:descripcion, c.descripcion), c.estado = COALESCE(:estado, c.estado), " +
+           "c.version = c.version + 1 " +
+           "WHERE c.idCurso = :id AND (:version IS NULL OR c.version = :version)")
+    int actualizarParcial(@Param("id") Long id, @Param("nombre") String nombre, @Param("descripcion") String descripcion,
+                          @Param("estado") String estado, @Param("version") Long version);
 }
\ No newline at end of file
@@ -1,9 +1,14 @@
 package com.example.EdutechAPI.api.cursos.service;
 
+import com.example.EdutechAPI.api.comun.OrdenesPagina;
+import com.example.EdutechAPI.api.comun.PaginaResponse;
+import com.example.EdutechAPI.api.comun.Paginador;
+import com.example.EdutechAPI.api.comun.VersionColeccion;
 import com.example.EdutechAPI.api.cursos.model.Curso;
 import com.example.EdutechAPI.api.cursos.repository.CursoRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,21 +19,42 @@ import java.util.Optional;
 @Service
 public class CursoService {
 
+    // Órdenes admitidos en el listado paginado: id, nombre, fecha (y sus inversos con '-')
+    private static final OrdenesPagina<Curso> ORDENES = OrdenesPagina.de("idCurso", Curso::getIdCurso)
+            .con("nombre", "nombreCurso", String.class, Curso::getNombreCurso)
+            .con("fecha", "fechaCreacion", Date.class, Curso::getFechaCreacion);
+
     private final CursoRepository cursoRepository;
+    private final Paginador paginador;
 
     @Autowired
-    public CursoService(CursoRepository cursoRepository) {
+    public CursoService(CursoRepository cursoRepository, Paginador paginador) {
         this.cursoRepository = cursoRepository;
+        this.paginador = paginador;
     }
 
     public List<Curso> getAllCursos() {
         return cursoRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public PaginaResponse<Curso> getCursosPaginados(String orden, String cursor, Integer tamano) {
+        return paginador.paginar(cursoRepository, null, ORDENES, orden, cursor, tamano, curso -> curso);
+    }
+
     public Optional<Curso> getCursoById(Long id) {
         return cursoRepository.findById(id);
     }
 
+    // Para las ETags: la versión de un curso y el agregado del catálogo, sin cargar entidades
+    public Optional<Long> getVersionCurso(Long id) {
+        return cursoRepository.findVersionById(id);
+    }
+
+    public VersionColeccion getVersionCatalogo() {
+        return cursoRepository.findVersionColeccion();
+    }
+
     @Transactional
     public Curso createCurso(Curso curso) {
         if (curso.getFechaCreacion() == null) {
@@ -41,15 +67,26 @@ public class CursoService {
     }
 
     @Transactional
-    public Curso updateCurso(Long id, Curso cursoDetails) {
-        Curso curso = cursoRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Curso no encontrado con ID: " + id));
-
-        curso.setNombreCurso(cursoDetails.getNombreCurso());
-        curso.setDescripcion(cursoDetails.getDescripcion());
-        curso.setEstado(cursoDetails.getEstado());
+    public void updateCurso(Long id, Curso cursoDetails) {
+        updateCurso(id, cursoDetails, null);
+    }
 
-        return cursoRepository.save(curso);
+    // Solo cambian los campos enviados: un campo null conserva su valor (no se puede vaciar con PUT).
+    // Es un único UPDATE que además compara la versión de If-Match (null = sin condición).
+    // Devuelve la nueva versión (la esperada + 1) para la ETag, o null sin If-Match: saberla costaría otra consulta.
+    // La caché de segundo nivel de cursos se invalida al hacer commit.
+    @Transactional
+    public Long updateCurso(Long id, Curso cursoDetails, Long versionEsperada) {
+        int filas = cursoRepository.actualizarParcial(id, cursoDetails.getNombreCurso(), cursoDetails.getDescripcion(),
+                cursoDetails.getEstado(), versionEsperada);
+        if (filas == 0) {
+            // Solo en el caso de error se consulta por qué: no existe (404) o cambió de versión (412)
+            if (cursoRepository.findVersionById(id).isEmpty()) {
+                throw new EntityNotFoundException("Curso no encontrado con ID: " + id);
+            }
+            throw new ObjectOptimisticLockingFailureException(Curso.class, id);
+        }
+        return versionEsperada == null ? null : versionEsperada + 1;
     }
 
     @Transactional
@@ -59,4 +96,23 @@ public class CursoService {
         }
         cursoRepository.deleteById(id);
     }
+
+    @Transactional
+    public void deleteCurso(Long id, Long versionEsperada) {
+        if (versionEsperada == null) {
+            deleteCurso(id);
+            return;
+        }
+        // Se borra la entidad cargada para que el DELETE lleve la versión comprobada
+        Curso curso = cursoRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Curso no encontrado con ID: " + id));
+        comprobarVersion(curso, versionEsperada);
+        cursoRepository.delete(curso);
+    }
+
+    private void comprobarVersion(Curso curso, Long versionEsperada) {
+        if (versionEsperada != null && !versionEsperada.equals(curso.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Curso.class, curso.getIdCurso());
+        }
+    }
 }
\ No newline at end of file
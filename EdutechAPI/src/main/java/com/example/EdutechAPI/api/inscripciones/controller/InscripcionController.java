@@ -1,10 +1,13 @@
 // src/main/java/com/example/EdutechAPI/api/inscripciones/controller/InscripcionController.java
 package com.example.EdutechAPI.api.inscripciones.controller;
 
+import java.util.Collections;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,7 +18,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.EdutechAPI.api.comun.PaginaResponse;
+import com.example.EdutechAPI.api.inscripciones.dto.InscripcionBatchResponse;
 import com.example.EdutechAPI.api.inscripciones.dto.InscripcionRequest;
 import com.example.EdutechAPI.api.inscripciones.dto.InscripcionResponse;
 import com.example.EdutechAPI.api.inscripciones.model.Inscripcion;
@@ -45,14 +51,46 @@ public class InscripcionController {
     }
 
     @Operation(summary = "Obtener todas las inscripciones",
-               description = "Recupera una lista de todas las inscripciones registradas en el sistema.")
-    @ApiResponse(responseCode = "200", description = "Lista de inscripciones recuperada exitosamente",
-                 content = @Content(mediaType = "application/json",
-                 schema = @Schema(implementation = InscripcionResponse.class)))
+               description = "Recupera las inscripciones registradas en el sistema, página a página. Para la página siguiente se envía el 'siguienteCursor' recibido.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de inscripciones recuperada exitosamente",
+                     content = @Content(mediaType = "application/json",
+                     schema = @Schema(implementation = PaginaResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Cursor, tamaño u orden no válidos",
+                     content = @Content(mediaType = "application/json",
+                     examples = @ExampleObject(name = "Invalid Cursor", value = "{\"error\": \"Cursor de paginación no válido.\"}" )))
+    })
     @GetMapping
-    public ResponseEntity<List<InscripcionResponse>> getAllInscripciones() {
-        List<InscripcionResponse> inscripciones = inscripcionService.getAllInscripciones();
-        return ResponseEntity.ok(inscripciones);
+    public ResponseEntity<Object> getAllInscripciones(
+            @Parameter(description = "Cursor devuelto en 'siguienteCursor' por la página anterior; vacío para la primera página")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Cantidad de elementos por página (por defecto 20, máximo 100)", example = "20")
+            @RequestParam(name = "tamano", required = false) Integer tamano,
+            @Parameter(description = "Orden: id, fecha; con '-' delante es descendente", example = "id")
+            @RequestParam(name = "orden", defaultValue = "id") String orden) {
+        try {
+            PaginaResponse<InscripcionResponse> pagina = inscripcionService.getInscripcionesPaginadas(orden, cursor, tamano);
+            return ResponseEntity.ok(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Exportar todas las inscripciones",
+               description = "Descarga todas las inscripciones en formato NDJSON (un objeto JSON por línea). " +
+                             "La respuesta se genera en streaming, sin cargar la tabla en memoria. " +
+                             "Requiere el permiso INSCRIPCIONES_EXPORTAR (solo administradores).")
+    @ApiResponse(responseCode = "200", description = "Exportación en curso",
+                 content = @Content(mediaType = "application/x-ndjson",
+                 schema = @Schema(implementation = InscripcionResponse.class)))
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportarInscripciones() {
+        // Se ejecuta en un hilo del executor de MVC; la transacción la abre el servicio
+        StreamingResponseBody cuerpo = salida -> inscripcionService.exportarInscripciones(salida);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"inscripciones.ndjson\"")
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(cuerpo);
     }
 
     @Operation(summary = "Obtener inscripción por ID",
@@ -81,14 +119,16 @@ public class InscripcionController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Inscripción creada exitosamente",
                      content = @Content(mediaType = "application/json",
-                     schema = @Schema(implementation = Inscripcion.class), // Aquí se devuelve el modelo completo, no el DTO
+                     schema = @Schema(implementation = InscripcionResponse.class), // Los nombres no se leen al crear: llegan null
                      examples = @ExampleObject(name = "Inscripcion Exitosa", value = """
                          {
                              "idInscripcion": 101,
-                             "usuario": { "idUsuario": 1, "nombre": "Jon Snow", ... },
-                             "curso": { "idCurso": 10, "nombre": "Historia de Westeros", ... },
+                             "idUsuario": 1,
+                             "idCurso": 10,
+                             "nombreUsuario": null,
+                             "nombreCurso": null,
                              "fechaInscripcion": "2025-07-06T18:00:00Z",
-                             "estado": "Pendiente"
+                             "estado": "en curso"
                          }
                          """))),
         @ApiResponse(responseCode = "404", description = "Usuario o curso no encontrado",
@@ -113,9 +153,9 @@ public class InscripcionController {
         )
     )
     @PostMapping
-    public ResponseEntity<Inscripcion> createInscripcion(@RequestBody InscripcionRequest request) {
+    public ResponseEntity<InscripcionResponse> createInscripcion(@RequestBody InscripcionRequest request) {
         try {
-            Inscripcion newInscripcion = inscripcionService.createInscripcion(request);
+            InscripcionResponse newInscripcion = inscripcionService.createInscripcion(request);
             return ResponseEntity.status(HttpStatus.CREATED).body(newInscripcion);
         } catch (EntityNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
@@ -124,24 +164,53 @@ public class InscripcionController {
         }
     }
 
-    @Operation(summary = "Actualizar el estado de una inscripción",
-               description = "Modifica el estado de una inscripción existente (ej. 'Activo', 'Completado', 'Cancelado').")
+    @Operation(summary = "Inscribir un lote de usuarios a cursos",
+               description = "Crea muchas inscripciones en una sola llamada (máximo 10.000). Cada par (idUsuario, idCurso) recibe su propio resultado: CREADA, DUPLICADA, USUARIO_NO_ENCONTRADO o CURSO_NO_ENCONTRADO. Un error en un elemento no hace fallar al resto.")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Estado de inscripción actualizado exitosamente",
+        @ApiResponse(responseCode = "200", description = "Lote procesado (ver el resultado de cada elemento)",
                      content = @Content(mediaType = "application/json",
-                     schema = @Schema(implementation = Inscripcion.class))),
+                     schema = @Schema(implementation = InscripcionBatchResponse.class))),
+        @ApiResponse(responseCode = "400", description = "El lote supera el tamaño máximo",
+                     content = @Content)
+    })
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(
+        description = "Lista de pares idUsuario / idCurso a inscribir.",
+        required = true,
+        content = @Content(
+            mediaType = "application/json",
+            examples = @ExampleObject(name = "Inscripcion Masiva", value = """
+                [
+                    { "idUsuario": 1, "idCurso": 10 },
+                    { "idUsuario": 2, "idCurso": 10 }
+                ]
+                """)
+        )
+    )
+    @PostMapping("/batch")
+    public ResponseEntity<InscripcionBatchResponse> createInscripcionesBatch(@RequestBody List<InscripcionRequest> solicitudes) {
+        try {
+            return ResponseEntity.ok(inscripcionService.createInscripcionesBatch(solicitudes));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Actualizar el estado de una inscripción",
+               description = "Modifica el estado de una inscripción existente (ej. 'Activo', 'Completado', 'Cancelado'). Es un único UPDATE: no devuelve la inscripción.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Estado de inscripción actualizado exitosamente (No Content)"),
         @ApiResponse(responseCode = "404", description = "Inscripción no encontrada",
                      content = @Content)
     })
     @PutMapping("/{id}/estado")
-    public ResponseEntity<Inscripcion> updateInscripcionEstado(
+    public ResponseEntity<Void> updateInscripcionEstado(
             @Parameter(description = "ID de la inscripción a actualizar", required = true, example = "1")
             @PathVariable Long id,
             @Parameter(description = "Nuevo estado de la inscripción", required = true, example = "Completado")
             @RequestParam String nuevoEstado) {
         try {
-            Inscripcion updatedInscripcion = inscripcionService.updateInscripcionEstado(id, nuevoEstado);
-            return ResponseEntity.ok(updatedInscripcion);
+            inscripcionService.updateInscripcionEstado(id, nuevoEstado);
+            return ResponseEntity.noContent().build();
         } catch (EntityNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
@@ -207,44 +276,66 @@ public class InscripcionController {
     }
 
     @Operation(summary = "Obtener inscripciones por ID de usuario",
-               description = "Recupera una lista de todas las inscripciones asociadas a un ID de usuario específico.")
+               description = "Recupera, página a página, las inscripciones asociadas a un ID de usuario específico.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Inscripciones encontradas exitosamente",
                      content = @Content(mediaType = "application/json",
-                     schema = @Schema(implementation = InscripcionResponse.class))),
-        @ApiResponse(responseCode = "404", description = "Usuario no encontrado o sin inscripciones",
+                     schema = @Schema(implementation = PaginaResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Cursor, tamaño u orden no válidos",
+                     content = @Content(mediaType = "application/json",
+                     examples = @ExampleObject(name = "Invalid Cursor", value = "{\"error\": \"Cursor de paginación no válido.\"}" ))),
+        @ApiResponse(responseCode = "404", description = "Usuario no encontrado",
                      content = @Content)
     })
     @GetMapping("/usuario/{idUsuario}")
-    public ResponseEntity<List<InscripcionResponse>> getInscripcionesByUsuario(
+    public ResponseEntity<Object> getInscripcionesByUsuario(
             @Parameter(description = "ID del usuario para buscar sus inscripciones", required = true, example = "1")
-            @PathVariable Long idUsuario) {
+            @PathVariable Long idUsuario,
+            @Parameter(description = "Cursor devuelto en 'siguienteCursor' por la página anterior; vacío para la primera página")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Cantidad de elementos por página (por defecto 20, máximo 100)", example = "20")
+            @RequestParam(name = "tamano", required = false) Integer tamano,
+            @Parameter(description = "Orden: id, fecha; con '-' delante es descendente", example = "id")
+            @RequestParam(name = "orden", defaultValue = "id") String orden) {
         try {
-            List<InscripcionResponse> inscripciones = inscripcionService.getInscripcionesByUsuario(idUsuario);
-            return ResponseEntity.ok(inscripciones);
+            PaginaResponse<InscripcionResponse> pagina = inscripcionService.getInscripcionesByUsuarioPaginadas(idUsuario, orden, cursor, tamano);
+            return ResponseEntity.ok(pagina);
         } catch (EntityNotFoundException e) {
             return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
         }
     }
 
     @Operation(summary = "Obtener inscripciones por ID de curso",
-               description = "Recupera una lista de todas las inscripciones asociadas a un ID de curso específico.")
+               description = "Recupera, página a página, las inscripciones asociadas a un ID de curso específico.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Inscripciones encontradas exitosamente",
                      content = @Content(mediaType = "application/json",
-                     schema = @Schema(implementation = InscripcionResponse.class))),
-        @ApiResponse(responseCode = "404", description = "Curso no encontrado o sin inscripciones",
+                     schema = @Schema(implementation = PaginaResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Cursor, tamaño u orden no válidos",
+                     content = @Content(mediaType = "application/json",
+                     examples = @ExampleObject(name = "Invalid Cursor", value = "{\"error\": \"Cursor de paginación no válido.\"}" ))),
+        @ApiResponse(responseCode = "404", description = "Curso no encontrado",
                      content = @Content)
     })
     @GetMapping("/curso/{idCurso}")
-    public ResponseEntity<List<InscripcionResponse>> getInscripcionesByCurso(
+    public ResponseEntity<Object> getInscripcionesByCurso(
             @Parameter(description = "ID del curso para buscar sus inscripciones", required = true, example = "10")
-            @PathVariable Long idCurso) {
+            @PathVariable Long idCurso,
+            @Parameter(description = "Cursor devuelto en 'siguienteCursor' por la página anterior; vacío para la primera página")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Cantidad de elementos por página (por defecto 20, máximo 100)", example = "20")
+            @RequestParam(name = "tamano", required = false) Integer tamano,
+            @Parameter(description = "Orden: id, fecha; con '-' delante es descendente", example = "id")
+            @RequestParam(name = "orden", defaultValue = "id") String orden) {
         try {
-            List<InscripcionResponse> inscripciones = inscripcionService.getInscripcionesByCurso(idCurso);
-            return ResponseEntity.ok(inscripciones);
+            PaginaResponse<InscripcionResponse> pagina = inscripcionService.getInscripcionesByCursoPaginadas(idCurso, orden, cursor, tamano);
+            return ResponseEntity.ok(pagina);
         } catch (EntityNotFoundException e) {
             return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Collections.singletonMap("error", e.getMessage()));
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,5 @@
+package com.example.EdutechAPI.api.inscripciones.dto;
+
+// Fila del GROUP BY (curso, estado) con que se siembran y reconcilian los contadores de inscripciones
+public record ConteoEstado(Long idCurso, String estado, Long cantidad) {
+}
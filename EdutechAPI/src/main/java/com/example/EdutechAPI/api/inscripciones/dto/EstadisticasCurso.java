@@ -0,0 +1,7 @@
+package com.example.EdutechAPI.api.inscripciones.dto;
+
+import java.util.Map;
+
+// Respuesta de GET /api/cursos/{id}/stats: inscripciones del curso en total y por estado
+public record EstadisticasCurso(Long idCurso, long total, Map<String, Long> porEstado) {
+}
@@ -0,0 +1,17 @@
+package com.example.EdutechAPI.api.inscripciones.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Resultado de una solicitud dentro de una inscripción masiva
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InscripcionBatchItem {
+
+    private Long idUsuario;
+    private Long idCurso;
+    private ResultadoInscripcionBatch resultado;
+    private Long idInscripcion; // Solo para las inscripciones creadas
+}
@@ -0,0 +1,18 @@
+package com.example.EdutechAPI.api.inscripciones.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InscripcionBatchResponse {
+
+    private int creadas;
+    private int duplicadas;
+    private int noEncontradas;
+    private List<InscripcionBatchItem> resultados; // En el mismo orden que la solicitud
+}
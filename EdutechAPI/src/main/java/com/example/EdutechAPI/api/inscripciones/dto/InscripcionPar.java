@@ -0,0 +1,5 @@
+package com.example.EdutechAPI.api.inscripciones.dto;
+
+// Par (usuario, curso) de una inscripción existente; se usa para detectar duplicados en memoria
+public record InscripcionPar(Long idUsuario, Long idCurso) {
+}
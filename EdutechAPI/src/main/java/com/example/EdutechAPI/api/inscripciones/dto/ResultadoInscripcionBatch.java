@@ -0,0 +1,8 @@
+package com.example.EdutechAPI.api.inscripciones.dto;
+
+public enum ResultadoInscripcionBatch {
+    CREADA,
+    DUPLICADA,
+    USUARIO_NO_ENCONTRADO,
+    CURSO_NO_ENCONTRADO
+}
@@ -0,0 +1,21 @@
+package com.example.EdutechAPI.api.inscripciones.event;
+
+// Se publica cuando se crea, se elimina o cambia de estado una inscripción.
+// Lo escuchan los contadores en memoria por curso y estado (ContadoresInscripciones).
+// - Alta: estadoAnterior es null. Baja: estadoNuevo es null.
+// - Si quien publica no leyó la inscripción (cambio de estado con un solo UPDATE) no conoce ni el curso
+//   ni el estado anterior: idCurso es null y el curso se recuenta aparte.
+public record InscripcionCambiadaEvent(Long idInscripcion, Long idCurso, String estadoAnterior, String estadoNuevo) {
+
+    public static InscripcionCambiadaEvent alta(Long idInscripcion, Long idCurso, String estado) {
+        return new InscripcionCambiadaEvent(idInscripcion, idCurso, null, estado);
+    }
+
+    public static InscripcionCambiadaEvent baja(Long idInscripcion, Long idCurso, String estado) {
+        return new InscripcionCambiadaEvent(idInscripcion, idCurso, estado, null);
+    }
+
+    public static InscripcionCambiadaEvent cambioDeEstado(Long idInscripcion, String estadoNuevo) {
+        return new InscripcionCambiadaEvent(idInscripcion, null, null, estadoNuevo);
+    }
+}
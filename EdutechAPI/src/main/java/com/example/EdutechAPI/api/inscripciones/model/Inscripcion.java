@@ -2,6 +2,7 @@ package com.example.EdutechAPI.api.inscripciones.model;
 
 import com.example.EdutechAPI.api.cursos.model.Curso;
 import com.example.EdutechAPI.api.usuarios.model.Usuario;
+import com.example.EdutechAPI.config.IdGeneracion;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,16 +14,20 @@ import lombok.AllArgsConstructor;
 import java.util.Date;
 
 @Entity
-@Table(name = "INSCRIPCIONES")
+@Table(name = "INSCRIPCIONES", uniqueConstraints = @UniqueConstraint(name = Inscripcion.UK_USUARIO_CURSO,
+        columnNames = {"USUARIOS_ID_USUARIO", "CURSOS_ID_CURSO"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 // Quita si tenías @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Inscripcion {
 
+    // Un usuario solo puede inscribirse una vez en cada curso (ver db/002_inscripcion_unica.sql)
+    public static final String UK_USUARIO_CURSO = "UK_INSCRIPCION_USUARIO_CURSO";
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inscripcion_seq_generator")
-    @SequenceGenerator(name = "inscripcion_seq_generator", sequenceName = "inscripciones_id_inscripcion_seq", allocationSize = 1)
+    @SequenceGenerator(name = "inscripcion_seq_generator", sequenceName = "inscripciones_id_inscripcion_seq", allocationSize = IdGeneracion.TAMANO_BLOQUE)
     @Column(name = "ID_INSCRIPCION")
     private Long idInscripcion;
 
@@ -1,21 +1,68 @@
 package com.example.EdutechAPI.api.inscripciones.repository;
 
+import com.example.EdutechAPI.api.inscripciones.dto.ConteoEstado;
+import com.example.EdutechAPI.api.inscripciones.dto.InscripcionPar;
+import com.example.EdutechAPI.api.inscripciones.dto.InscripcionResponse;
 import com.example.EdutechAPI.api.inscripciones.model.Inscripcion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query; // ¡Importar Query!
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param; // ¡Importar Param!
 import org.springframework.stereotype.Repository;
+import org.hibernate.jpa.HibernateHints;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface InscripcionRepository extends JpaRepository<Inscripcion, Long> {
+public interface InscripcionRepository extends JpaRepository<Inscripcion, Long>, JpaSpecificationExecutor<Inscripcion> {
+
+    // Proyección a InscripcionResponse: una sola sentencia con JOIN a USUARIOS y CURSOS,
+    // sin cargar entidades (ni los proxies LAZY ni los roles EAGER del usuario)
+    String SELECT_RESPONSE = "SELECT new com.example.EdutechAPI.api.inscripciones.dto.InscripcionResponse(" +
+            "i.idInscripcion, u.idUsuario, CONCAT(u.nombre, ' ', u.apellido), c.idCurso, c.nombreCurso, i.fechaInscripcion, i.estado) " +
+            "FROM Inscripcion i JOIN i.usuario u JOIN i.curso c ";
 
     // --- ¡CAMBIO CRÍTICO AQUÍ! Usamos una consulta JPQL explícita ---
     @Query("SELECT i FROM Inscripcion i WHERE i.usuario.idUsuario = :idUsuario AND i.curso.idCurso = :idCurso")
     Optional<Inscripcion> findByUsuarioIdUsuarioAndCursoIdCurso(@Param("idUsuario") Long idUsuario, @Param("idCurso") Long idCurso);
 
-    // Los otros métodos no necesitan @Query si siguen las convenciones de Spring Data JPA
-    List<Inscripcion> findByUsuario_IdUsuario(Long idUsuario);
-    List<Inscripcion> findByCurso_IdCurso(Long idCurso);
+    @Query(SELECT_RESPONSE + "WHERE i.idInscripcion = :id")
+    Optional<InscripcionResponse> findResponseById(@Param("id") Long id);
+
+    // Pares (usuario, curso) ya inscritos entre los ids dados; solo lee las FKs, sin JOIN
+    @Query("SELECT new com.example.EdutechAPI.api.inscripciones.dto.InscripcionPar(i.usuario.idUsuario, i.curso.idCurso) " +
+           "FROM Inscripcion i WHERE i.usuario.idUsuario IN :idsUsuario AND i.curso.idCurso IN :idsCurso")
+    List<InscripcionPar> findPares(@Param("idsUsuario") Collection<Long> idsUsuario, @Param("idsCurso") Collection<Long> idsCurso);
+
+    // Exportación completa: la misma proyección (ninguna entidad entra al contexto de persistencia)
+    // leída con un cursor JDBC de 500 filas por viaje. Debe consumirse dentro de una transacción y cerrarse.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_RESPONSE + "ORDER BY i.idInscripcion")
+    Stream<InscripcionResponse> streamParaExportacion();
+
+    // Cambio de estado en un solo UPDATE; devuelve 0 si la inscripción no existe
+    @Modifying
+    @Query("UPDATE Inscripcion i SET i.estado = :estado WHERE i.idInscripcion = :id")
+    int actualizarEstado(@Param("id") Long id, @Param("estado") String estado);
+
+    // Conteos por curso y estado para los contadores en memoria (ContadoresInscripciones)
+    String SELECT_CONTEO = "SELECT new com.example.EdutechAPI.api.inscripciones.dto.ConteoEstado(i.curso.idCurso, i.estado, COUNT(i)) " +
+            "FROM Inscripcion i ";
+
+    @Query(SELECT_CONTEO + "GROUP BY i.curso.idCurso, i.estado")
+    List<ConteoEstado> contarPorCursoYEstado();
+
+    @Query(SELECT_CONTEO + "WHERE i.curso.idCurso IN :idsCurso GROUP BY i.curso.idCurso, i.estado")
+    List<ConteoEstado> contarPorCursoYEstado(@Param("idsCurso") Collection<Long> idsCurso);
+
+    @Query("SELECT DISTINCT i.curso.idCurso FROM Inscripcion i WHERE i.idInscripcion IN :ids")
+    List<Long> findIdsCursoDeInscripciones(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
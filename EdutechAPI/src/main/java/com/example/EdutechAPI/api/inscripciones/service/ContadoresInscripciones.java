@@ -0,0 +1,220 @@
+package com.example.EdutechAPI.api.inscripciones.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.EdutechAPI.api.inscripciones.dto.ConteoEstado;
+import com.example.EdutechAPI.api.inscripciones.dto.EstadisticasCurso;
+import com.example.EdutechAPI.api.inscripciones.event.InscripcionCambiadaEvent;
+import com.example.EdutechAPI.api.inscripciones.repository.InscripcionRepository;
+
+import jakarta.annotation.PostConstruct;
+
+// Contadores en memoria de inscripciones por curso y estado, para GET /api/cursos/{id}/stats.
+// - Las lecturas no consultan la base de datos: suman unos pocos LongAdder (uno por estado del curso).
+// - InscripcionService publica un InscripcionCambiadaEvent por cada alta, baja o cambio, y el contador
+//   se mueve al hacer commit (un rollback no lo altera).
+// - Un cambio de estado sin curso conocido deja la inscripción pendiente: cada pocos segundos se averigua
+//   su curso y se recuentan esos cursos con un GROUP BY.
+// - Al arrancar y periódicamente se reconstruye todo con un GROUP BY (curso, estado). Eso corrige lo que
+//   los eventos no ven: escrituras de otras instancias, borrados en cascada de cursos y usuarios, etc.
+// - El recuento de pendientes corre en una transacción de escritura para que vaya al primario: las consultas
+//   de Spring Data son readOnly y, con réplica, leerían un curso recién cambiado sin el cambio (y el pendiente
+//   ya se consumió). La reconciliación completa sí puede ir a la réplica: la siguiente la corrige.
+// - Mientras corre un recuento, los eventos que llegan se anotan en un diario y se vuelven a aplicar sobre los
+//   contadores recontados al publicarlos, así que un cambio hecho durante la consulta no se pierde.
+//   Un cambio confirmado justo antes de la consulta cuyo evento llega ya abierto el diario se cuenta dos veces
+//   (lo lee la consulta y se repite desde el diario): el contador queda alto hasta la siguiente reconciliación.
+@Component
+public class ContadoresInscripciones {
+
+    private static final Logger log = LoggerFactory.getLogger(ContadoresInscripciones.class);
+
+    // Las claves de un ConcurrentHashMap no pueden ser null
+    static final String SIN_ESTADO = "(sin estado)";
+    // Oracle admite como máximo 1000 elementos en una lista IN
+    private static final int MAX_IDS_POR_CONSULTA = 1000;
+
+    private final InscripcionRepository inscripcionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicReference<ConcurrentHashMap<Long, ConcurrentHashMap<String, LongAdder>>> porCurso =
+            new AtomicReference<>(new ConcurrentHashMap<>());
+    private final Set<Long> inscripcionesPendientes = ConcurrentHashMap.newKeySet();
+    // Los eventos toman la lectura; publicar un recuento toma la escritura, así ningún evento cae en un mapa ya reemplazado
+    private final ReentrantReadWriteLock publicacion = new ReentrantReadWriteLock();
+    // Eventos llegados desde que empezó el recuento en curso (null si no hay ninguno)
+    private volatile Queue<InscripcionCambiadaEvent> diario;
+
+    public ContadoresInscripciones(InscripcionRepository inscripcionRepository, TransactionTemplate transactionTemplate) {
+        this.inscripcionRepository = inscripcionRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    void sembrar() {
+        try {
+            reconciliar();
+        } catch (RuntimeException e) {
+            // Sin base de datos al arrancar: los contadores se llenan en la próxima reconciliación
+            log.warn("No se pudieron cargar los contadores de inscripciones: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inscripciones.contadores.reconciliacion-ms:600000}",
+               initialDelayString = "${inscripciones.contadores.reconciliacion-ms:600000}")
+    public void reconciliacionPeriodica() {
+        sembrar();
+    }
+
+    // Recuenta todas las inscripciones y publica los contadores nuevos de una vez
+    public synchronized void reconciliar() {
+        diario = new ConcurrentLinkedQueue<>();
+        ConcurrentHashMap<Long, ConcurrentHashMap<String, LongAdder>> nuevo = new ConcurrentHashMap<>();
+        try {
+            for (ConteoEstado conteo : inscripcionRepository.contarPorCursoYEstado()) {
+                contador(nuevo, conteo.idCurso(), conteo.estado()).add(conteo.cantidad());
+            }
+        } catch (RuntimeException e) {
+            diario = null;
+            throw e;
+        }
+        publicacion.writeLock().lock();
+        try {
+            porCurso.set(nuevo);
+            reaplicarDiario(nuevo, null);
+        } finally {
+            publicacion.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInscripcionCambiada(InscripcionCambiadaEvent event) {
+        if (event.idCurso() == null) {
+            inscripcionesPendientes.add(event.idInscripcion());
+            return;
+        }
+        publicacion.readLock().lock();
+        try {
+            aplicar(porCurso.get(), event);
+            Queue<InscripcionCambiadaEvent> enCurso = diario;
+            if (enCurso != null) {
+                enCurso.add(event);
+            }
+        } finally {
+            publicacion.readLock().unlock();
+        }
+    }
+
+    private static void aplicar(ConcurrentHashMap<Long, ConcurrentHashMap<String, LongAdder>> mapa, InscripcionCambiadaEvent event) {
+        if (event.estadoAnterior() != null) {
+            contador(mapa, event.idCurso(), event.estadoAnterior()).decrement();
+        }
+        if (event.estadoNuevo() != null) {
+            contador(mapa, event.idCurso(), event.estadoNuevo()).increment();
+        }
+    }
+
+    // Se llama con la escritura tomada: repite sobre lo recontado los eventos de los cursos recontados (null = todos)
+    private void reaplicarDiario(ConcurrentHashMap<Long, ConcurrentHashMap<String, LongAdder>> mapa, Set<Long> idsCurso) {
+        Queue<InscripcionCambiadaEvent> eventos = diario;
+        diario = null;
+        for (InscripcionCambiadaEvent event : eventos) {
+            if (idsCurso == null || idsCurso.contains(event.idCurso())) {
+                aplicar(mapa, event);
+            }
+        }
+    }
+
+    // Recuenta los cursos de las inscripciones que cambiaron de estado desde la última pasada
+    @Scheduled(fixedDelayString = "${inscripciones.contadores.pendientes-ms:2000}")
+    public void procesarPendientes() {
+        while (!inscripcionesPendientes.isEmpty()) {
+            List<Long> bloque = tomarPendientes();
+            try {
+                transactionTemplate.executeWithoutResult(estado ->
+                        recontar(new HashSet<>(inscripcionRepository.findIdsCursoDeInscripciones(bloque))));
+            } catch (RuntimeException e) {
+                inscripcionesPendientes.addAll(bloque);
+                log.warn("No se pudieron recontar las inscripciones de los cursos modificados: {}", e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private List<Long> tomarPendientes() {
+        List<Long> bloque = new ArrayList<>(MAX_IDS_POR_CONSULTA);
+        Iterator<Long> pendientes = inscripcionesPendientes.iterator();
+        while (pendientes.hasNext() && bloque.size() < MAX_IDS_POR_CONSULTA) {
+            bloque.add(pendientes.next());
+            pendientes.remove();
+        }
+        return bloque;
+    }
+
+    private synchronized void recontar(Set<Long> idsCurso) {
+        if (idsCurso.isEmpty()) {
+            return;
+        }
+        diario = new ConcurrentLinkedQueue<>();
+        ConcurrentHashMap<Long, ConcurrentHashMap<String, LongAdder>> recontados = new ConcurrentHashMap<>();
+        try {
+            for (ConteoEstado conteo : inscripcionRepository.contarPorCursoYEstado(idsCurso)) {
+                contador(recontados, conteo.idCurso(), conteo.estado()).add(conteo.cantidad());
+            }
+        } catch (RuntimeException e) {
+            diario = null;
+            throw e;
+        }
+        publicacion.writeLock().lock();
+        try {
+            ConcurrentHashMap<Long, ConcurrentHashMap<String, LongAdder>> actual = porCurso.get();
+            for (Long idCurso : idsCurso) {
+                actual.put(idCurso, recontados.getOrDefault(idCurso, new ConcurrentHashMap<>()));
+            }
+            reaplicarDiario(actual, idsCurso);
+        } finally {
+            publicacion.writeLock().unlock();
+        }
+    }
+
+    // Un curso sin inscripciones (o inexistente) devuelve total 0
+    public EstadisticasCurso estadisticas(Long idCurso) {
+        Map<String, Long> porEstado = new TreeMap<>();
+        long total = 0;
+        Map<String, LongAdder> estados = porCurso.get().get(idCurso);
+        if (estados != null) {
+            for (Map.Entry<String, LongAdder> estado : estados.entrySet()) {
+                long cantidad = estado.getValue().sum();
+                if (cantidad > 0) {
+                    porEstado.put(estado.getKey(), cantidad);
+                    total += cantidad;
+                }
+            }
+        }
+        return new EstadisticasCurso(idCurso, total, porEstado);
+    }
+
+    private static LongAdder contador(ConcurrentHashMap<Long, ConcurrentHashMap<String, LongAdder>> mapa,
+                                      Long idCurso, String estado) {
+        return mapa.computeIfAbsent(idCurso, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(estado == null ? SIN_ESTADO : estado, e -> new LongAdder());
+    }
+}
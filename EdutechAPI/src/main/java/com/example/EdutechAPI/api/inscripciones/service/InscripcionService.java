@@ -1,24 +1,50 @@
 // src/main/java/com/example/EdutechAPI/api/inscripciones/service/InscripcionService.java
 package com.example.EdutechAPI.api.inscripciones.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors; // <-- Añadir este import
+import java.util.Set;
+import java.util.stream.Stream;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.hibernate.Hibernate; // Este import ya no será estrictamente necesario para los DTOs, pero lo dejo
+import org.springframework.transaction.support.TransactionTemplate;
+import org.hibernate.Hibernate;
+import org.hibernate.exception.ConstraintViolationException;
 
+import com.example.EdutechAPI.api.comun.OrdenesPagina;
+import com.example.EdutechAPI.api.comun.PaginaResponse;
+import com.example.EdutechAPI.api.comun.Paginador;
 import com.example.EdutechAPI.api.cursos.model.Curso;
 import com.example.EdutechAPI.api.cursos.repository.CursoRepository;
+import com.example.EdutechAPI.api.inscripciones.dto.InscripcionBatchItem;
+import com.example.EdutechAPI.api.inscripciones.dto.InscripcionBatchResponse;
+import com.example.EdutechAPI.api.inscripciones.dto.InscripcionPar;
 import com.example.EdutechAPI.api.inscripciones.dto.InscripcionRequest;
 import com.example.EdutechAPI.api.inscripciones.dto.InscripcionResponse; // <-- ¡IMPORTANTE! Añadir este import
+import com.example.EdutechAPI.api.inscripciones.dto.ResultadoInscripcionBatch;
+import com.example.EdutechAPI.api.inscripciones.event.InscripcionCambiadaEvent;
 import com.example.EdutechAPI.api.inscripciones.model.Inscripcion;
 import com.example.EdutechAPI.api.inscripciones.repository.InscripcionRepository;
 import com.example.EdutechAPI.api.usuarios.model.Usuario;
 import com.example.EdutechAPI.api.usuarios.repository.UsuarioRepository;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 
@@ -29,6 +55,22 @@ public class InscripcionService {
     private final InscripcionRepository inscripcionRepository;
     private final UsuarioRepository usuarioRepository;
     private final CursoRepository cursoRepository;
+    private final Paginador paginador;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    // Oracle admite como máximo 1000 elementos en una lista IN
+    private static final int MAX_IDS_POR_CONSULTA = 1000;
+    // Igual que hibernate.jdbc.batch_size: cada flush envía un lote JDBC completo
+    private static final int TAMANO_LOTE_INSERT = 50;
+    public static final int MAX_SOLICITUDES_BATCH = 10_000;
+    // Cada cuántas filas se envía lo acumulado al cliente durante la exportación
+    private static final int FILAS_POR_FLUSH = 500;
+
+    // Órdenes admitidos en los listados paginados: id, fecha (y sus inversos con '-')
+    private static final OrdenesPagina<Inscripcion> ORDENES = OrdenesPagina.de("idInscripcion", Inscripcion::getIdInscripcion)
+            .con("fecha", "fechaInscripcion", Date.class, Inscripcion::getFechaInscripcion);
 
     // --- Método auxiliar para mapear de Entidad a DTO ---
     private InscripcionResponse mapToInscripcionResponse(Inscripcion inscripcion) {
@@ -37,18 +79,23 @@ public class InscripcionService {
         // Ojo: Si la relación permite null (nullable = true en @JoinColumn), un getUsuario() puede ser null.
         // Asumo que tus FKs son NOT NULL (nullable = false).
         
+        // Una referencia sin cargar (getReferenceById al crear) da su id pero no su nombre: leerlo costaría un SELECT
         Long idUsuario = null;
         String nombreUsuario = null;
         if (inscripcion.getUsuario() != null) {
             idUsuario = inscripcion.getUsuario().getIdUsuario();
-            nombreUsuario = inscripcion.getUsuario().getNombre() + " " + inscripcion.getUsuario().getApellido();
+            if (Hibernate.isInitialized(inscripcion.getUsuario())) {
+                nombreUsuario = inscripcion.getUsuario().getNombre() + " " + inscripcion.getUsuario().getApellido();
+            }
         }
 
         Long idCurso = null;
         String nombreCurso = null;
         if (inscripcion.getCurso() != null) {
             idCurso = inscripcion.getCurso().getIdCurso();
-            nombreCurso = inscripcion.getCurso().getNombreCurso();
+            if (Hibernate.isInitialized(inscripcion.getCurso())) {
+                nombreCurso = inscripcion.getCurso().getNombreCurso();
+            }
         }
 
         return new InscripcionResponse(
@@ -62,61 +109,268 @@ public class InscripcionService {
         );
     }
 
+    // Exporta todas las inscripciones como NDJSON (un objeto JSON por línea) directamente sobre 'salida'.
+    // La memoria no depende del tamaño de la tabla: las filas llegan del cursor JDBC, se escriben y se descartan.
+    // Escribir en la salida del servlet bloquea si el cliente lee más lento, lo que frena también la lectura del cursor.
     @Transactional(readOnly = true)
-    public List<InscripcionResponse> getAllInscripciones() { // Cambiado para devolver DTO
-        List<Inscripcion> inscripciones = inscripcionRepository.findAll();
-        return inscripciones.stream()
-                .map(this::mapToInscripcionResponse)
-                .collect(Collectors.toList());
+    public long exportarInscripciones(OutputStream salida) throws IOException {
+        ObjectWriter escritor = objectMapper.writerFor(InscripcionResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long escritas = 0;
+        try (Stream<InscripcionResponse> filas = inscripcionRepository.streamParaExportacion();
+             JsonGenerator generador = objectMapper.getFactory().createGenerator(salida)) {
+            generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generador.setRootValueSeparator(null); // El separador es el salto de línea
+            for (InscripcionResponse fila : (Iterable<InscripcionResponse>) filas::iterator) {
+                escritor.writeValue(generador, fila);
+                generador.writeRaw('\n');
+                if (++escritas % FILAS_POR_FLUSH == 0) {
+                    generador.flush();
+                }
+            }
+        }
+        return escritas;
     }
 
     @Transactional(readOnly = true)
-    public InscripcionResponse getInscripcionById(Long id) { // Cambiado para devolver DTO
-        Inscripcion inscripcion = inscripcionRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Inscripción no encontrada con ID: " + id));
-        return mapToInscripcionResponse(inscripcion);
+    public PaginaResponse<InscripcionResponse> getInscripcionesPaginadas(String orden, String cursor, Integer tamano) {
+        return paginador.paginar(inscripcionRepository, conUsuarioYCurso(), ORDENES, orden, cursor, tamano, this::mapToInscripcionResponse);
     }
 
-    // --- Métodos de escritura (POST, PUT, DELETE) que manejan la entidad Inscripcion ---
-    // Estos métodos devuelven la entidad Inscripcion directamente. Si quieres que también devuelvan DTOs,
-    // tendrías que cambiar su tipo de retorno a InscripcionResponse y mapear el resultado antes de devolverlo.
-    // Pero para que los GETs funcionen con IDs, lo principal es cambiar los GETs.
+    @Transactional(readOnly = true)
+    public PaginaResponse<InscripcionResponse> getInscripcionesByUsuarioPaginadas(Long idUsuario, String orden, String cursor, Integer tamano) {
+        Specification<Inscripcion> delUsuario = (root, query, cb) -> cb.equal(root.get("usuario").get("idUsuario"), idUsuario);
+        PaginaResponse<InscripcionResponse> pagina = paginador.paginar(inscripcionRepository, conUsuarioYCurso().and(delUsuario),
+                ORDENES, orden, cursor, tamano, this::mapToInscripcionResponse);
+        // Solo una página vacía obliga a distinguir "sin inscripciones" de "usuario inexistente"
+        if (pagina.getContenido().isEmpty() && !usuarioRepository.existsById(idUsuario)) {
+            throw new EntityNotFoundException("Usuario no encontrado con ID: " + idUsuario);
+        }
+        return pagina;
+    }
 
-    @Transactional
-    public Inscripcion createInscripcion(InscripcionRequest request) {
-        Usuario usuario = usuarioRepository.findById(request.getIdUsuario())
-                .orElseThrow(() -> new EntityNotFoundException("Usuario no encontrado con ID: " + request.getIdUsuario()));
+    @Transactional(readOnly = true)
+    public PaginaResponse<InscripcionResponse> getInscripcionesByCursoPaginadas(Long idCurso, String orden, String cursor, Integer tamano) {
+        Specification<Inscripcion> delCurso = (root, query, cb) -> cb.equal(root.get("curso").get("idCurso"), idCurso);
+        PaginaResponse<InscripcionResponse> pagina = paginador.paginar(inscripcionRepository, conUsuarioYCurso().and(delCurso),
+                ORDENES, orden, cursor, tamano, this::mapToInscripcionResponse);
+        if (pagina.getContenido().isEmpty() && !cursoRepository.existsById(idCurso)) {
+            throw new EntityNotFoundException("Curso no encontrado con ID: " + idCurso);
+        }
+        return pagina;
+    }
 
-        Curso curso = cursoRepository.findById(request.getIdCurso())
-                .orElseThrow(() -> new EntityNotFoundException("Curso no encontrado con ID: " + request.getIdCurso()));
+    // Trae usuario y curso en la misma consulta de la página (el DTO usa sus nombres)
+    private static Specification<Inscripcion> conUsuarioYCurso() {
+        return (root, query, cb) -> {
+            if (query.getResultType() != Long.class) {
+                root.fetch("usuario");
+                root.fetch("curso");
+            }
+            return null;
+        };
+    }
 
-        if (inscripcionRepository.findByUsuarioIdUsuarioAndCursoIdCurso(request.getIdUsuario(), request.getIdCurso()).isPresent()) {
-            throw new IllegalArgumentException("El usuario con ID " + request.getIdUsuario() + " ya está inscrito en el curso con ID " + request.getIdCurso());
-        }
+    @Transactional(readOnly = true)
+    public InscripcionResponse getInscripcionById(Long id) {
+        return inscripcionRepository.findResponseById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Inscripción no encontrada con ID: " + id));
+    }
+
+    // --- Métodos de escritura (POST, PUT, DELETE) ---
+    // Las altas devuelven DTOs (InscripcionResponse / InscripcionBatchResponse), el cambio de estado y el
+    // borrado no devuelven nada y solo la actualización completa devuelve todavía la entidad Inscripcion.
 
+    // Un solo INSERT: usuario y curso se referencian sin leerlos y la base de datos valida el resto.
+    // La FK responde por la existencia (404) y UK_INSCRIPCION_USUARIO_CURSO por los duplicados (409),
+    // también cuando dos peticiones iguales llegan a la vez.
+    @Transactional
+    public InscripcionResponse createInscripcion(InscripcionRequest request) {
         Inscripcion inscripcion = new Inscripcion();
-        inscripcion.setUsuario(usuario);
-        inscripcion.setCurso(curso);
+        inscripcion.setUsuario(usuarioRepository.getReferenceById(request.getIdUsuario()));
+        inscripcion.setCurso(cursoRepository.getReferenceById(request.getIdCurso()));
         inscripcion.setFechaInscripcion(new Date());
         inscripcion.setEstado("en curso");
 
-        return inscripcionRepository.save(inscripcion);
+        try {
+            // El flush adelanta el INSERT para traducir aquí la violación y no al hacer commit
+            Inscripcion creada = inscripcionRepository.saveAndFlush(inscripcion);
+            eventPublisher.publishEvent(InscripcionCambiadaEvent.alta(creada.getIdInscripcion(), request.getIdCurso(), creada.getEstado()));
+            return mapToInscripcionResponse(creada);
+        } catch (DataIntegrityViolationException e) {
+            throw traducirViolacion(e, request);
+        }
     }
 
-    @Transactional
-    public Inscripcion updateInscripcionEstado(Long id, String nuevoEstado) {
-        Inscripcion inscripcion = inscripcionRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Inscripción no encontrada con ID: " + id));
+    private RuntimeException traducirViolacion(DataIntegrityViolationException e, InscripcionRequest request) {
+        if (!(e.getCause() instanceof ConstraintViolationException)) {
+            return e;
+        }
+        if (esDuplicada(e)) {
+            return new IllegalArgumentException("El usuario con ID " + request.getIdUsuario() + " ya está inscrito en el curso con ID " + request.getIdCurso());
+        }
+        // Con usuario y curso siempre informados, la única otra restricción del INSERT son sus FKs
+        return new EntityNotFoundException("Usuario con ID " + request.getIdUsuario() + " o curso con ID " + request.getIdCurso() + " no encontrado");
+    }
 
-        inscripcion.setEstado(nuevoEstado);
+    // La violación viene de UK_INSCRIPCION_USUARIO_CURSO (el par usuario-curso ya está inscrito)
+    private static boolean esDuplicada(DataIntegrityViolationException e) {
+        if (!(e.getCause() instanceof ConstraintViolationException violacion)) {
+            return false;
+        }
+        String restriccion = violacion.getConstraintName() == null ? "" : violacion.getConstraintName().toUpperCase();
+        return violacion.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE
+                || restriccion.contains(Inscripcion.UK_USUARIO_CURSO);
+    }
 
-        return inscripcionRepository.save(inscripcion);
+    // Inscripción masiva: valida todo el lote con unas pocas consultas IN y luego inserta en lotes JDBC.
+    // Cada solicitud recibe su propio resultado; un usuario o curso inexistente no hace fallar al resto.
+    // Sin transacción propia: la validación y cada lote JDBC se confirman en la suya. Si otra petición inscribe
+    // un par entre la validación y el INSERT, la restricción única deshace solo ese lote, que se reintenta fila a
+    // fila para marcar como DUPLICADA la que choca (una sesión de Hibernate no sigue tras un flush fallido).
+    public InscripcionBatchResponse createInscripcionesBatch(List<InscripcionRequest> solicitudes) {
+        if (solicitudes.size() > MAX_SOLICITUDES_BATCH) {
+            throw new IllegalArgumentException("El lote supera el máximo de " + MAX_SOLICITUDES_BATCH + " inscripciones.");
+        }
+
+        List<InscripcionBatchItem> resultados = transactionTemplate.execute(estado -> clasificar(solicitudes));
+        List<InscripcionBatchItem> aCrear = resultados.stream()
+                .filter(item -> item.getResultado() == ResultadoInscripcionBatch.CREADA)
+                .toList();
+
+        // 4. Insertar en lotes JDBC, cada uno en su transacción
+        Date ahora = new Date();
+        for (int desde = 0; desde < aCrear.size(); desde += TAMANO_LOTE_INSERT) {
+            List<InscripcionBatchItem> lote = aCrear.subList(desde, Math.min(desde + TAMANO_LOTE_INSERT, aCrear.size()));
+            try {
+                transactionTemplate.executeWithoutResult(estado -> insertar(lote, ahora));
+            } catch (DataIntegrityViolationException e) {
+                if (!esDuplicada(e)) {
+                    throw e;
+                }
+                reintentarFilaAFila(lote, ahora);
+            }
+        }
+
+        int creadas = 0;
+        int duplicadas = 0;
+        int noEncontradas = 0;
+        for (InscripcionBatchItem item : resultados) {
+            switch (item.getResultado()) {
+                case CREADA -> creadas++;
+                case DUPLICADA -> duplicadas++;
+                default -> noEncontradas++;
+            }
+        }
+        return new InscripcionBatchResponse(creadas, duplicadas, noEncontradas, resultados);
+    }
+
+    private List<InscripcionBatchItem> clasificar(List<InscripcionRequest> solicitudes) {
+        // 1. Ids distintos de usuarios y cursos del lote
+        Set<Long> idsUsuario = new LinkedHashSet<>();
+        Set<Long> idsCurso = new LinkedHashSet<>();
+        for (InscripcionRequest solicitud : solicitudes) {
+            if (solicitud.getIdUsuario() != null) idsUsuario.add(solicitud.getIdUsuario());
+            if (solicitud.getIdCurso() != null) idsCurso.add(solicitud.getIdCurso());
+        }
+
+        // 2. Resolver qué usuarios y cursos existen, y qué pares ya están inscritos
+        Set<Long> usuariosExistentes = new HashSet<>();
+        for (List<Long> bloque : particionar(idsUsuario)) {
+            usuariosExistentes.addAll(usuarioRepository.findIdsExistentes(bloque));
+        }
+        Set<Long> cursosExistentes = new HashSet<>();
+        for (List<Long> bloque : particionar(idsCurso)) {
+            cursosExistentes.addAll(cursoRepository.findIdsExistentes(bloque));
+        }
+        Set<InscripcionPar> inscritos = new HashSet<>();
+        for (List<Long> bloqueCursos : particionar(cursosExistentes)) {
+            for (List<Long> bloqueUsuarios : particionar(usuariosExistentes)) {
+                inscritos.addAll(inscripcionRepository.findPares(bloqueUsuarios, bloqueCursos));
+            }
+        }
+
+        // 3. Clasificar cada solicitud (los duplicados dentro del propio lote también cuentan)
+        List<InscripcionBatchItem> resultados = new ArrayList<>(solicitudes.size());
+        for (InscripcionRequest solicitud : solicitudes) {
+            Long idUsuario = solicitud.getIdUsuario();
+            Long idCurso = solicitud.getIdCurso();
+            InscripcionBatchItem item = new InscripcionBatchItem(idUsuario, idCurso, null, null);
+            if (!usuariosExistentes.contains(idUsuario)) {
+                item.setResultado(ResultadoInscripcionBatch.USUARIO_NO_ENCONTRADO);
+            } else if (!cursosExistentes.contains(idCurso)) {
+                item.setResultado(ResultadoInscripcionBatch.CURSO_NO_ENCONTRADO);
+            } else if (!inscritos.add(new InscripcionPar(idUsuario, idCurso))) {
+                item.setResultado(ResultadoInscripcionBatch.DUPLICADA);
+            } else {
+                item.setResultado(ResultadoInscripcionBatch.CREADA);
+            }
+            resultados.add(item);
+        }
+        return resultados;
+    }
+
+    // Un lote JDBC: getReferenceById no consulta la base de datos (ya validamos que existen).
+    // Las entidades se crean dentro de la transacción para que un reintento no arrastre las de un lote deshecho.
+    private void insertar(List<InscripcionBatchItem> lote, Date ahora) {
+        List<Inscripcion> nuevas = new ArrayList<>(lote.size());
+        for (InscripcionBatchItem item : lote) {
+            Inscripcion inscripcion = new Inscripcion();
+            inscripcion.setUsuario(usuarioRepository.getReferenceById(item.getIdUsuario()));
+            inscripcion.setCurso(cursoRepository.getReferenceById(item.getIdCurso()));
+            inscripcion.setFechaInscripcion(ahora);
+            inscripcion.setEstado("en curso");
+            nuevas.add(inscripcion);
+        }
+        inscripcionRepository.saveAllAndFlush(nuevas);
+        for (int i = 0; i < lote.size(); i++) {
+            Inscripcion inscripcion = nuevas.get(i);
+            lote.get(i).setIdInscripcion(inscripcion.getIdInscripcion());
+            // Si la transacción del lote se deshace, sus eventos no llegan a publicarse a los oyentes
+            eventPublisher.publishEvent(InscripcionCambiadaEvent.alta(inscripcion.getIdInscripcion(), lote.get(i).getIdCurso(), inscripcion.getEstado()));
+        }
+    }
+
+    private void reintentarFilaAFila(List<InscripcionBatchItem> lote, Date ahora) {
+        for (InscripcionBatchItem item : lote) {
+            item.setIdInscripcion(null);
+            try {
+                transactionTemplate.executeWithoutResult(estado -> insertar(List.of(item), ahora));
+            } catch (DataIntegrityViolationException e) {
+                if (!esDuplicada(e)) {
+                    throw e;
+                }
+                item.setResultado(ResultadoInscripcionBatch.DUPLICADA);
+            }
+        }
+    }
+
+    private static List<List<Long>> particionar(Collection<Long> ids) {
+        List<Long> lista = new ArrayList<>(ids);
+        List<List<Long>> bloques = new ArrayList<>();
+        for (int desde = 0; desde < lista.size(); desde += MAX_IDS_POR_CONSULTA) {
+            bloques.add(lista.subList(desde, Math.min(desde + MAX_IDS_POR_CONSULTA, lista.size())));
+        }
+        return bloques;
+    }
+
+    // La escritura más frecuente: un solo UPDATE, sin leer la inscripción antes ni después.
+    // Sin el estado anterior, los contadores recuentan el curso de la inscripción por su cuenta.
+    @Transactional
+    public void updateInscripcionEstado(Long id, String nuevoEstado) {
+        if (inscripcionRepository.actualizarEstado(id, nuevoEstado) == 0) {
+            throw new EntityNotFoundException("Inscripción no encontrada con ID: " + id);
+        }
+        eventPublisher.publishEvent(InscripcionCambiadaEvent.cambioDeEstado(id, nuevoEstado));
     }
 
     @Transactional
     public Inscripcion updateInscripcionCompleta(Long id, InscripcionRequest request) {
         Inscripcion inscripcion = inscripcionRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Inscripción no encontrada con ID: " + id));
+        // El id del curso sale de la FK del proxy, sin cargar el curso
+        Long idCursoAnterior = inscripcion.getCurso().getIdCurso();
+        String estadoAnterior = inscripcion.getEstado();
 
         if (request.getIdUsuario() != null && !request.getIdUsuario().equals(inscripcion.getUsuario().getIdUsuario())) {
             Usuario newUsuario = usuarioRepository.findById(request.getIdUsuario())
@@ -145,38 +399,28 @@ public class InscripcionService {
             inscripcion.setEstado(request.getEstado());
         }
 
-        return inscripcionRepository.save(inscripcion);
+        Inscripcion actualizada;
+        try {
+            // La comprobación anterior no cubre una escritura concurrente: la restricción única se traduce aquí, no al hacer commit
+            actualizada = inscripcionRepository.saveAndFlush(inscripcion);
+        } catch (DataIntegrityViolationException e) {
+            throw traducirViolacion(e, new InscripcionRequest(inscripcion.getUsuario().getIdUsuario(),
+                    inscripcion.getCurso().getIdCurso(), null, null));
+        }
+        Long idCursoNuevo = actualizada.getCurso().getIdCurso();
+        if (!idCursoNuevo.equals(idCursoAnterior) || !Objects.equals(estadoAnterior, actualizada.getEstado())) {
+            eventPublisher.publishEvent(InscripcionCambiadaEvent.baja(id, idCursoAnterior, estadoAnterior));
+            eventPublisher.publishEvent(InscripcionCambiadaEvent.alta(id, idCursoNuevo, actualizada.getEstado()));
+        }
+        return actualizada;
     }
 
+    // deleteById también cargaba la inscripción antes de borrarla; cargarla aquí da el curso y el estado para los contadores
     @Transactional
     public void deleteInscripcion(Long id) {
-        if (!inscripcionRepository.existsById(id)) {
-            throw new EntityNotFoundException("Inscripción no encontrada con ID: " + id);
-        }
-        inscripcionRepository.deleteById(id);
-    }
-
-    @Transactional(readOnly = true)
-    public List<InscripcionResponse> getInscripcionesByUsuario(Long idUsuario) { // Cambiado para devolver DTO
-        usuarioRepository.findById(idUsuario)
-                .orElseThrow(() -> new EntityNotFoundException("Usuario no encontrado con ID: " + idUsuario));
-        
-        List<Inscripcion> inscripciones = inscripcionRepository.findByUsuario_IdUsuario(idUsuario);
-        
-        return inscripciones.stream()
-                .map(this::mapToInscripcionResponse)
-                .collect(Collectors.toList());
-    }
-
-    @Transactional(readOnly = true)
-    public List<InscripcionResponse> getInscripcionesByCurso(Long idCurso) { // Cambiado para devolver DTO
-        cursoRepository.findById(idCurso)
-                .orElseThrow(() -> new EntityNotFoundException("Curso no encontrado con ID: " + idCurso));
-        
-        List<Inscripcion> inscripciones = inscripcionRepository.findByCurso_IdCurso(idCurso);
-
-        return inscripciones.stream()
-                .map(this::mapToInscripcionResponse)
-                .collect(Collectors.toList());
+        Inscripcion inscripcion = inscripcionRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Inscripción no encontrada con ID: " + id));
+        inscripcionRepository.delete(inscripcion);
+        eventPublisher.publishEvent(InscripcionCambiadaEvent.baja(id, inscripcion.getCurso().getIdCurso(), inscripcion.getEstado()));
     }
 }
\ No newline at end of file
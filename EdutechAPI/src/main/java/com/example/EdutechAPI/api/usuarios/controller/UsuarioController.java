@@ -1,24 +1,37 @@
 package com.example.EdutechAPI.api.usuarios.controller;
 
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.EdutechAPI.api.comun.ETags;
+import com.example.EdutechAPI.api.comun.PaginaResponse;
+import com.example.EdutechAPI.api.usuarios.dto.FormatoImportacion;
+import com.example.EdutechAPI.api.usuarios.dto.ImportacionProgreso;
 import com.example.EdutechAPI.api.usuarios.model.Rol;
 import com.example.EdutechAPI.api.usuarios.model.Usuario;
+import com.example.EdutechAPI.api.usuarios.service.UsuarioImportService;
 import com.example.EdutechAPI.api.usuarios.service.UsuarioService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -36,23 +49,50 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 public class UsuarioController {
 
     private final UsuarioService usuarioService;
+    private final UsuarioImportService usuarioImportService;
 
     @Autowired
-    public UsuarioController(UsuarioService usuarioService) {
+    public UsuarioController(UsuarioService usuarioService, UsuarioImportService usuarioImportService) {
         this.usuarioService = usuarioService;
+        this.usuarioImportService = usuarioImportService;
     }
 
     // --- Endpoints para CRUD de Usuarios ---
 
     @Operation(summary = "Obtener todos los usuarios",
-               description = "Recupera una lista de todos los usuarios registrados en el sistema.")
-    @ApiResponse(responseCode = "200", description = "Lista de usuarios recuperada exitosamente",
-                 content = @Content(mediaType = "application/json",
-                 schema = @Schema(implementation = Usuario.class)))
+               description = "Recupera los usuarios registrados en el sistema, página a página. Para la página siguiente se envía el 'siguienteCursor' recibido.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página de usuarios recuperada exitosamente",
+                     content = @Content(mediaType = "application/json",
+                     schema = @Schema(implementation = PaginaResponse.class))),
+        @ApiResponse(responseCode = "304", description = "Los usuarios no cambiaron desde la ETag enviada en If-None-Match",
+                     content = @Content),
+        @ApiResponse(responseCode = "400", description = "Cursor, tamaño u orden no válidos",
+                     content = @Content(mediaType = "application/json",
+                     examples = @ExampleObject(name = "Invalid Cursor", value = "{\"error\": \"Cursor de paginación no válido.\"}" )))
+    })
     @GetMapping
-    public ResponseEntity<List<Usuario>> getAllUsuarios() {
-        List<Usuario> usuarios = usuarioService.obtenerTodosLosUsuarios();
-        return new ResponseEntity<>(usuarios, HttpStatus.OK);
+    public ResponseEntity<Object> getAllUsuarios(
+            @Parameter(description = "Cursor devuelto en 'siguienteCursor' por la página anterior; vacío para la primera página")
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @Parameter(description = "Cantidad de elementos por página (por defecto 20, máximo 100)", example = "20")
+            @RequestParam(name = "tamano", required = false) Integer tamano,
+            @Parameter(description = "Orden: id, email, apellido; con '-' delante es descendente", example = "id")
+            @RequestParam(name = "orden", defaultValue = "id") String orden,
+            @Parameter(description = "Si es false, no se cargan los roles (se devuelven como null) y la página cuesta una sola consulta", example = "true")
+            @RequestParam(name = "incluirRoles", defaultValue = "true") boolean incluirRoles,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            // ETag de la tabla completa (una consulta), calculada antes de leer la página: ver CursoController
+            String etag = ETags.deColeccion(usuarioService.obtenerVersionUsuarios());
+            if (ETags.coincide(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            PaginaResponse<Usuario> pagina = usuarioService.obtenerUsuariosPaginados(orden, cursor, tamano, incluirRoles);
+            return ResponseEntity.ok().eTag(etag).body(pagina);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(Collections.singletonMap("error", e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
     }
 
     @Operation(summary = "Obtener usuario por ID",
@@ -61,15 +101,25 @@ public class UsuarioController {
         @ApiResponse(responseCode = "200", description = "Usuario encontrado exitosamente",
                      content = @Content(mediaType = "application/json",
                      schema = @Schema(implementation = Usuario.class))),
+        @ApiResponse(responseCode = "304", description = "El usuario no cambió desde la ETag enviada en If-None-Match",
+                     content = @Content),
         @ApiResponse(responseCode = "404", description = "Usuario no encontrado",
                      content = @Content)
     })
     @GetMapping("/{id}")
     public ResponseEntity<Usuario> getUsuarioById(
             @Parameter(description = "ID único del usuario a buscar", required = true, example = "1")
-            @PathVariable("id") Long id) {
+            @PathVariable("id") Long id,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Con If-None-Match basta la columna VERSION: si coincide no se cargan el usuario ni sus roles
+        if (ifNoneMatch != null) {
+            Optional<String> etag = usuarioService.obtenerVersionUsuario(id).map(ETags::deVersion);
+            if (etag.isPresent() && ETags.coincide(ifNoneMatch, etag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+            }
+        }
         return usuarioService.obtenerUsuarioPorId(id)
-                .map(usuario -> new ResponseEntity<>(usuario, HttpStatus.OK))
+                .map(usuario -> ResponseEntity.ok().eTag(ETags.deVersion(usuario.getVersion())).body(usuario))
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
@@ -86,8 +136,9 @@ public class UsuarioController {
     public ResponseEntity<Usuario> getUsuarioByEmail(
             @Parameter(description = "Dirección de correo electrónico del usuario a buscar", required = true, example = "jon.snow@example.com")
             @PathVariable("email") String email) {
+        // Spring responde 304 por sí solo si la ETag coincide con If-None-Match (sin serializar el usuario)
         return usuarioService.obtenerUsuarioPorEmail(email)
-                .map(usuario -> new ResponseEntity<>(usuario, HttpStatus.OK))
+                .map(usuario -> ResponseEntity.ok().eTag(ETags.deVersion(usuario.getVersion())).body(usuario))
                 .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
@@ -127,7 +178,7 @@ public class UsuarioController {
     public ResponseEntity<Object> createUsuario(@RequestBody Usuario usuario) {
         try {
             Usuario nuevoUsuario = usuarioService.crearUsuario(usuario);
-            return new ResponseEntity<>(nuevoUsuario, HttpStatus.CREATED);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.deVersion(nuevoUsuario.getVersion())).body(nuevoUsuario);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(Collections.singletonMap("error", e.getMessage()), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
@@ -136,19 +187,24 @@ public class UsuarioController {
     }
 
     @Operation(summary = "Actualizar un usuario existente",
-               description = "Actualiza el nombre, apellido, email, estado e ID de oficina de un usuario por su ID. La contraseña no se puede modificar por este endpoint.")
+               description = "Actualiza el nombre, apellido, email, estado e ID de oficina de un usuario por su ID. La contraseña no se puede modificar por este endpoint. "
+                           + "Solo cambian los campos enviados: un campo null o ausente conserva su valor, "
+                           + "así que este PUT no puede vaciar un campo. Es un único UPDATE: no devuelve el usuario.")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Usuario actualizado exitosamente",
-                     content = @Content(mediaType = "application/json",
-                     schema = @Schema(implementation = Usuario.class))),
+        @ApiResponse(responseCode = "204", description = "Usuario actualizado exitosamente (No Content). "
+                     + "Si se envió If-Match, la cabecera ETag trae la nueva versión; si no, se obtiene con GET /api/usuarios/{id}"),
         @ApiResponse(responseCode = "404", description = "Usuario no encontrado",
                      content = @Content),
+        @ApiResponse(responseCode = "409", description = "Otra petición modificó el usuario al mismo tiempo",
+                     content = @Content),
+        @ApiResponse(responseCode = "412", description = "La ETag de If-Match ya no es la del usuario",
+                     content = @Content),
         @ApiResponse(responseCode = "400", description = "Email ya existe para otro usuario o datos inválidos",
                      content = @Content(mediaType = "application/json",
                      examples = @ExampleObject(name = "Duplicate Email", value = "{\"error\": \"El email 'aegon.targaryen@example.com' ya está registrado para otro usuario.\"}" )))
     })
     @io.swagger.v3.oas.annotations.parameters.RequestBody(
-        description = "Datos del usuario a actualizar. Solo se pueden modificar nombre, apellido, email, estado e idOficina.",
+        description = "Datos del usuario a actualizar. Solo se pueden modificar nombre, apellido, email, estado e idOficina; los campos null o ausentes no se modifican.",
         required = true,
         content = @Content(
             mediaType = "application/json",
@@ -164,10 +220,16 @@ public class UsuarioController {
         )
     )
     @PutMapping("/{id}")
-    public ResponseEntity<Usuario> updateUsuario(@PathVariable("id") Long id, @RequestBody Usuario usuarioDetalles) {
+    public ResponseEntity<Void> updateUsuario(@PathVariable("id") Long id,
+            @Parameter(description = "ETag del usuario leído; si ya cambió, responde 412 en lugar de pisar el cambio")
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody Usuario usuarioDetalles) {
         try {
-            Usuario usuarioActualizado = usuarioService.actualizarUsuario(id, usuarioDetalles);
-            return new ResponseEntity<>(usuarioActualizado, HttpStatus.OK);
+            Long nuevaVersion = usuarioService.actualizarUsuario(id, usuarioDetalles, ETags.versionEsperada(ifMatch));
+            return nuevaVersion == null ? ResponseEntity.noContent().build()
+                    : ResponseEntity.noContent().eTag(ETags.deVersion(nuevaVersion)).build();
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         } catch (Exception e) {
@@ -180,15 +242,19 @@ public class UsuarioController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "204", description = "Usuario eliminado exitosamente (No Content)"),
         @ApiResponse(responseCode = "404", description = "Usuario no encontrado"),
+        @ApiResponse(responseCode = "412", description = "La ETag de If-Match ya no es la del usuario"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
     @DeleteMapping("/{id}")
     public ResponseEntity<HttpStatus> deleteUsuario(
             @Parameter(description = "ID del usuario a eliminar", required = true, example = "2")
-            @PathVariable("id") Long id) {
+            @PathVariable("id") Long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            usuarioService.eliminarUsuario(id);
+            usuarioService.eliminarUsuario(id, ETags.versionEsperada(ifMatch));
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         } catch (Exception e) {
@@ -251,6 +317,7 @@ public class UsuarioController {
         )
     )
     @PostMapping("/{id}/roles")
+    @PreAuthorize("@permisos.tiene(authentication, 'ROLES_ASIGNAR')")
     public ResponseEntity<Object> asignarRolAUsuario(@PathVariable("id") Long id, @RequestBody Map<String, String> requestBody) {
         String nombreRol = requestBody.get("nombreRol");
         if (nombreRol == null || nombreRol.isEmpty()) {
@@ -299,6 +366,7 @@ public class UsuarioController {
         )
     )
     @DeleteMapping("/{id}/roles")
+    @PreAuthorize("@permisos.tiene(authentication, 'ROLES_ASIGNAR')")
     public ResponseEntity<Object> desasignarRolAUsuario(@PathVariable("id") Long id, @RequestBody Map<String, String> requestBody) {
         String nombreRol = requestBody.get("nombreRol");
         if (nombreRol == null || nombreRol.isEmpty()) {
@@ -313,4 +381,55 @@ public class UsuarioController {
             return new ResponseEntity<>(Collections.singletonMap("error", "Error interno del servidor al desasignar rol: " + e.getMessage()), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    // --- Endpoints para importación masiva ---
+
+    @Operation(summary = "Importar usuarios en bloque",
+               description = "Importa usuarios desde un archivo CSV (con encabezado; roles separados por '|') o NDJSON (un usuario JSON por línea). " +
+                             "El archivo se procesa en streaming y en lotes. Si la importación se interrumpe, se puede reanudar reenviando " +
+                             "el mismo archivo con el mismo 'idImportacion' y 'omitirFilas' igual a la última fila confirmada.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Importación completada; el resumen incluye creados, duplicados y filas con error",
+                     content = @Content(mediaType = "application/json",
+                     schema = @Schema(implementation = ImportacionProgreso.class))),
+        @ApiResponse(responseCode = "409", description = "Ya hay una importación en curso con ese ID",
+                     content = @Content),
+        @ApiResponse(responseCode = "500", description = "Importación interrumpida; 'filaConfirmada' indica desde dónde reanudar",
+                     content = @Content(mediaType = "application/json",
+                     schema = @Schema(implementation = ImportacionProgreso.class)))
+    })
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<Object> importarUsuarios(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @Parameter(description = "ID de la importación (se genera uno si no se indica)", example = "carga-2024-03")
+            @RequestParam(name = "idImportacion", required = false) String idImportacion,
+            @Parameter(description = "Cantidad de filas de datos ya confirmadas que se deben saltar", example = "0")
+            @RequestParam(name = "omitirFilas", defaultValue = "0") long omitirFilas,
+            InputStream archivo) {
+        FormatoImportacion formato = contentType.isCompatibleWith(MediaType.valueOf("text/csv"))
+                ? FormatoImportacion.CSV : FormatoImportacion.NDJSON;
+        try {
+            ImportacionProgreso progreso = usuarioImportService.importar(idImportacion, archivo, formato, omitirFilas);
+            HttpStatus estado = progreso.getEstado() == ImportacionProgreso.Estado.COMPLETADA
+                    ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR;
+            return new ResponseEntity<>(progreso, estado);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(Collections.singletonMap("error", e.getMessage()), HttpStatus.CONFLICT);
+        }
+    }
+
+    @Operation(summary = "Consultar el progreso de una importación",
+               description = "Devuelve el estado, las filas procesadas y la última fila confirmada de una importación reciente.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Progreso de la importación",
+                     content = @Content(mediaType = "application/json",
+                     schema = @Schema(implementation = ImportacionProgreso.class))),
+        @ApiResponse(responseCode = "404", description = "Importación no encontrada",
+                     content = @Content)
+    })
+    @GetMapping("/import/{idImportacion}")
+    public ResponseEntity<ImportacionProgreso> getProgresoImportacion(@PathVariable("idImportacion") String idImportacion) {
+        ImportacionProgreso progreso = usuarioImportService.getProgreso(idImportacion);
+        return progreso != null ? new ResponseEntity<>(progreso, HttpStatus.OK) : new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
 }
\ No newline at end of file
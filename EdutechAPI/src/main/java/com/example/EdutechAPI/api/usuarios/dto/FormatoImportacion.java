@@ -0,0 +1,6 @@
+package com.example.EdutechAPI.api.usuarios.dto;
+
+public enum FormatoImportacion {
+    CSV,
+    NDJSON
+}
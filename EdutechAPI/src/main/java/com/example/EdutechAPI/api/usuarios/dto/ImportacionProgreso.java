@@ -0,0 +1,63 @@
+package com.example.EdutechAPI.api.usuarios.dto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import lombok.Getter;
+
+// Progreso de una importación. Lo actualiza solo el hilo que importa y lo leen las consultas
+// GET /api/usuarios/import/{id}, por eso los campos son volatile.
+// filaConfirmada es la última fila ya guardada: para reanudar, se reenvía el archivo con omitirFilas = filaConfirmada.
+@Getter
+public class ImportacionProgreso {
+
+    public enum Estado { EN_CURSO, COMPLETADA, FALLIDA }
+
+    private static final int MAX_ERRORES_DETALLADOS = 100;
+
+    private final String idImportacion;
+    private volatile Estado estado = Estado.EN_CURSO;
+    private volatile long filasLeidas;
+    private volatile long filaConfirmada;
+    private volatile long creados;
+    private volatile long duplicados;
+    private volatile long conErrores;
+    private volatile String mensaje;
+    private final List<String> errores = Collections.synchronizedList(new ArrayList<>());
+
+    public ImportacionProgreso(String idImportacion, long omitirFilas) {
+        this.idImportacion = idImportacion;
+        this.filasLeidas = omitirFilas;
+        this.filaConfirmada = omitirFilas;
+    }
+
+    public void filaLeida(long numeroFila) {
+        this.filasLeidas = numeroFila;
+    }
+
+    public void duplicado() {
+        duplicados++;
+    }
+
+    public void error(long numeroFila, String motivo) {
+        conErrores++;
+        if (errores.size() < MAX_ERRORES_DETALLADOS) {
+            errores.add("Fila " + numeroFila + ": " + motivo);
+        }
+    }
+
+    public void loteConfirmado(long ultimaFila, int creadosEnLote) {
+        this.creados += creadosEnLote;
+        this.filaConfirmada = ultimaFila;
+    }
+
+    public void completar() {
+        this.estado = Estado.COMPLETADA;
+    }
+
+    public void fallar(String mensaje) {
+        this.mensaje = mensaje;
+        this.estado = Estado.FALLIDA;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.EdutechAPI.api.usuarios.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Una fila del archivo de importación (CSV o NDJSON). La contraseña llega en texto plano y se hashea al importar.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsuarioImportFila {
+
+    private String nombre;
+    private String apellido;
+    private String email;
+    private String contrasena;
+    private String estado;
+    private Long idOficina;
+    private List<String> roles = new ArrayList<>();
+}
@@ -0,0 +1,6 @@
+package com.example.EdutechAPI.api.usuarios.event;
+
+// Se publica cuando cambian los datos, los roles o la existencia de un usuario.
+// Lo escuchan los componentes de seguridad que guardan información derivada del usuario.
+public record UsuarioModificadoEvent(Long idUsuario) {
+}
@@ -4,9 +4,15 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import com.example.EdutechAPI.config.CacheSegundoNivel;
+import com.example.EdutechAPI.config.IdGeneracion;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "ROLES")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivel.REGION_ROLES)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -14,7 +20,7 @@ public class Rol {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rol_seq_generator")
-    @SequenceGenerator(name = "rol_seq_generator", sequenceName = "ROLES_ID_ROL_SEQ", allocationSize = 1)
+    @SequenceGenerator(name = "rol_seq_generator", sequenceName = "ROLES_ID_ROL_SEQ", allocationSize = IdGeneracion.TAMANO_BLOQUE)
     @Column(name = "ID_ROL")
     private Long idRol;
 
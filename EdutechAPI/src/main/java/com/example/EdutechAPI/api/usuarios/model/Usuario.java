@@ -5,7 +5,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import com.fasterxml.jackson.annotation.JsonIgnore; // ¡Importa esta línea!
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.example.EdutechAPI.api.inscripciones.model.Inscripcion; // ¡Importa esta línea si aún no la tienes!
+import com.example.EdutechAPI.config.IdGeneracion;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.Date;
 import java.util.HashSet;
@@ -13,12 +16,18 @@ import java.util.Set;
 
 @Entity
 @Table(name = "USUARIOS")
+@NamedEntityGraph(name = Usuario.GRAFO_ROLES, attributeNodes = @NamedAttributeNode("roles"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Usuario {
 
+    // Plan de carga para las consultas que sí necesitan los roles (ver UsuarioRepository)
+    public static final String GRAFO_ROLES = "Usuario.roles";
+
     @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuario_seq_generator")
+    @SequenceGenerator(name = "usuario_seq_generator", sequenceName = "USUARIOS_ID_USUARIO_SEQ", allocationSize = IdGeneracion.TAMANO_BLOQUE)
     @Column(name = "ID_USUARIO")
     private Long idUsuario;
 
@@ -44,7 +53,10 @@ public class Usuario {
     @Column(name = "ID_OFICINA")
     private Long idOficina;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    // LAZY: los roles solo se leen cuando se necesitan. Al inicializar los roles de un usuario,
+    // Hibernate trae en la misma consulta los de hasta 100 usuarios cargados (una página completa).
+    @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @JoinTable(
         name = "USUARIO_ROL",
         joinColumns = @JoinColumn(name = "USUARIOS_ID_USUARIO"),
@@ -59,4 +71,16 @@ public class Usuario {
     @JsonIgnore
     @OneToMany(mappedBy = "usuario", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Inscripcion> inscripciones;
+
+    // Control de concurrencia optimista y base de la ETag (ver UsuarioController). La asigna Hibernate;
+    // también sube al asignar o quitar roles, porque Usuario es el dueño de USUARIO_ROL.
+    @Version
+    @Column(name = "VERSION")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    public Usuario(Long idUsuario, String nombre, String apellido, String email, String contrasena, Date fechaRegistro,
+                   String estado, Long idOficina, Set<Rol> roles, Set<Inscripcion> inscripciones) {
+        this(idUsuario, nombre, apellido, email, contrasena, fechaRegistro, estado, idOficina, roles, inscripciones, null);
+    }
 }
\ No newline at end of file
@@ -1,12 +1,60 @@
 package com.example.EdutechAPI.api.usuarios.repository;
 
+import com.example.EdutechAPI.api.comun.VersionColeccion;
 import com.example.EdutechAPI.api.usuarios.model.Usuario;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+public interface UsuarioRepository extends JpaRepository<Usuario, Long>, JpaSpecificationExecutor<Usuario> {
     Optional<Usuario> findByEmail(String email);
+
+    // Usuario y roles en una sola consulta (grafo Usuario.roles)
+    @EntityGraph(Usuario.GRAFO_ROLES)
+    Optional<Usuario> findConRolesByIdUsuario(Long idUsuario);
+
+    // Usuario + roles en una sola consulta (la usa el login)
+    @Query("SELECT u FROM Usuario u LEFT JOIN FETCH u.roles WHERE u.email = :email")
+    Optional<Usuario> findConRolesByEmail(@Param("email") String email);
+
+    // Cuáles de los ids existen (máximo 1000 ids por llamada en Oracle)
+    @Query("SELECT u.idUsuario FROM Usuario u WHERE u.idUsuario IN :ids")
+    List<Long> findIdsExistentes(@Param("ids") Collection<Long> ids);
+
+    // Cuáles de los emails ya están registrados (máximo 1000 por llamada en Oracle)
+    @Query("SELECT u.email FROM Usuario u WHERE u.email IN :emails")
+    List<String> findEmailsExistentes(@Param("emails") Collection<String> emails);
+
+    // Solo la versión, para responder 304 sin cargar el usuario ni sus roles
+    @Query("SELECT u.version FROM Usuario u WHERE u.idUsuario = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT new com.example.EdutechAPI.api.comun.VersionColeccion(COUNT(u), MAX(u.idUsuario), SUM(u.version)) FROM Usuario u")
+    VersionColeccion findVersionColeccion();
+
+    // Actualización parcial en un solo UPDATE (null = sin cambios), con la versión como en CursoRepository.actualizarParcial
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Usuario u SET u.nombre = COALESCE(:nombre, u.nombre), u.apellido = COALESCE(:apellido, u.apellido), " +
+           "u.email = COALESCE(:email, u.email), u.estado = COALESCE(:estado, u.estado), " +
+           "u.idOficina = COALESCE(:idOficina, u.idOficina), u.version = u.version + 1 " +
+           "WHERE u.idUsuario = :id AND (:version IS NULL OR u.version = :version)")
+    int actualizarParcial(@Param("id") Long id, @Param("nombre") String nombre, @Param("apellido") String apellido,
+                          @Param("email") String email, @Param("estado") String estado, @Param("idOficina") Long idOficina,
+                          @Param("version") Long version);
+
+    // Compare-and-set del hash: no pisa una contraseña que haya cambiado mientras tanto
+    @Transactional
+    @Modifying
+    @Query("UPDATE Usuario u SET u.contrasena = :nuevo WHERE u.idUsuario = :idUsuario AND u.contrasena = :anterior")
+    int actualizarContrasena(@Param("idUsuario") Long idUsuario, @Param("anterior") String anterior, @Param("nuevo") String nuevo);
 }
\ No newline at end of file
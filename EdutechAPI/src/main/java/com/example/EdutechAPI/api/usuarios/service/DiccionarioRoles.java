@@ -0,0 +1,97 @@
+package com.example.EdutechAPI.api.usuarios.service;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.EdutechAPI.api.usuarios.model.Rol;
+import com.example.EdutechAPI.api.usuarios.repository.RolRepository;
+
+import jakarta.annotation.PostConstruct;
+
+// Diccionario en memoria de la tabla ROLES (pocas filas, casi nunca cambia).
+// - Las lecturas no bloquean ni consultan la base de datos: leen una instantánea inmutable.
+// - Cada recarga construye un mapa nuevo y lo publica de una vez (copy-on-write), así nunca se ve a medias.
+// - Se recarga periódicamente y, con un mínimo de tiempo entre recargas, cuando se pide un rol desconocido
+//   (por si se agregó uno a la tabla desde la última carga).
+@Component
+public class DiccionarioRoles {
+
+    private static final Logger log = LoggerFactory.getLogger(DiccionarioRoles.class);
+
+    private final RolRepository rolRepository;
+    private final long recargaMinimaNanos;
+    private final AtomicReference<Map<String, Rol>> rolesPorNombre = new AtomicReference<>(Map.of());
+    private volatile long ultimaRecargaNanos;
+    private volatile boolean cargado;
+
+    public DiccionarioRoles(RolRepository rolRepository,
+                            @Value("${roles.diccionario.recarga-minima-ms:5000}") long recargaMinimaMs) {
+        this.rolRepository = rolRepository;
+        this.recargaMinimaNanos = TimeUnit.MILLISECONDS.toNanos(recargaMinimaMs);
+    }
+
+    @PostConstruct
+    void cargarInicial() {
+        try {
+            refrescar();
+        } catch (RuntimeException e) {
+            // Sin base de datos al arrancar: se carga la primera vez que se pida un rol
+            log.warn("No se pudo cargar el diccionario de roles: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${roles.diccionario.refresco-ms:300000}",
+               initialDelayString = "${roles.diccionario.refresco-ms:300000}")
+    public void refrescoPeriodico() {
+        cargarInicial();
+    }
+
+    // Vuelve a leer la tabla ROLES y publica la nueva instantánea. Llamarlo tras modificar roles.
+    public synchronized void refrescar() {
+        Map<String, Rol> nuevo = new HashMap<>();
+        for (Rol rol : rolRepository.findAll()) {
+            nuevo.put(normalizar(rol.getNombreRol()), new Rol(rol.getIdRol(), rol.getNombreRol()));
+        }
+        rolesPorNombre.set(Map.copyOf(nuevo));
+        ultimaRecargaNanos = System.nanoTime();
+        cargado = true;
+    }
+
+    // Busca un rol por nombre, sin distinguir mayúsculas. Devuelve una copia desacoplada de la sesión
+    // (id y nombre): alcanza para asociarla a un usuario, ya que Hibernate solo necesita su ID para
+    // escribir USUARIO_ROL, y es igual (equals) a la instancia administrada del mismo rol.
+    public Optional<Rol> buscar(String nombreRol) {
+        if (nombreRol == null) {
+            return Optional.empty();
+        }
+        String clave = normalizar(nombreRol);
+        Rol rol = rolesPorNombre.get().get(clave);
+        if (rol == null && puedeRecargar()) {
+            refrescar();
+            rol = rolesPorNombre.get().get(clave);
+        }
+        return rol == null ? Optional.empty() : Optional.of(new Rol(rol.getIdRol(), rol.getNombreRol()));
+    }
+
+    public int size() {
+        return rolesPorNombre.get().size();
+    }
+
+    private boolean puedeRecargar() {
+        return !cargado || System.nanoTime() - ultimaRecargaNanos >= recargaMinimaNanos;
+    }
+
+    private static String normalizar(String nombreRol) {
+        return nombreRol.toUpperCase(Locale.ROOT);
+    }
+}
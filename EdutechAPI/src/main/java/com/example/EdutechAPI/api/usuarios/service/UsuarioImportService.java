@@ -0,0 +1,295 @@
+package com.example.EdutechAPI.api.usuarios.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.EdutechAPI.api.usuarios.dto.FormatoImportacion;
+import com.example.EdutechAPI.api.usuarios.dto.ImportacionProgreso;
+import com.example.EdutechAPI.api.usuarios.dto.UsuarioImportFila;
+import com.example.EdutechAPI.api.usuarios.model.Rol;
+import com.example.EdutechAPI.api.usuarios.model.Usuario;
+import com.example.EdutechAPI.api.usuarios.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+
+// Importación masiva de usuarios desde CSV o NDJSON.
+// - Lee el archivo línea a línea: en memoria solo está el lote actual.
+// - Los roles se resuelven con DiccionarioRoles (sin consultar ROLES) y los emails se validan por lote con una consulta IN.
+// - Las contraseñas se hashean en paralelo en un pool acotado (BCrypt es lo más caro de cada fila).
+// - Cada lote se confirma en su propia transacción; si algo falla, la importación se reanuda
+//   reenviando el archivo con omitirFilas = filaConfirmada.
+@Service
+public class UsuarioImportService {
+
+    // Oracle admite como máximo 1000 elementos en una lista IN
+    private static final int MAX_IDS_POR_CONSULTA = 1000;
+    // Igual que hibernate.jdbc.batch_size
+    private static final int TAMANO_LOTE_INSERT = 50;
+
+    private final UsuarioRepository usuarioRepository;
+    private final DiccionarioRoles diccionarioRoles;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final int tamanoLote;
+    private final ExecutorService hashExecutor;
+
+    // Progreso de las importaciones recientes (acotado para no crecer sin límite)
+    private final Cache<String, ImportacionProgreso> progresos = Caffeine.newBuilder()
+            .maximumSize(100)
+            .expireAfterWrite(Duration.ofDays(1))
+            .build();
+
+    public UsuarioImportService(UsuarioRepository usuarioRepository, DiccionarioRoles diccionarioRoles,
+                                PasswordEncoder passwordEncoder, TransactionTemplate transactionTemplate,
+                                EntityManager entityManager, ObjectMapper objectMapper,
+                                @Value("${usuarios.import.tamano-lote:500}") int tamanoLote,
+                                @Value("${usuarios.import.hilos-hash:4}") int hilosHash) {
+        this.usuarioRepository = usuarioRepository;
+        this.diccionarioRoles = diccionarioRoles;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.tamanoLote = Math.max(1, Math.min(tamanoLote, MAX_IDS_POR_CONSULTA));
+        AtomicInteger contador = new AtomicInteger();
+        this.hashExecutor = Executors.newFixedThreadPool(hilosHash, runnable -> {
+            Thread thread = new Thread(runnable, "import-hash-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public ImportacionProgreso getProgreso(String idImportacion) {
+        return progresos.getIfPresent(idImportacion);
+    }
+
+    public ImportacionProgreso importar(String idImportacion, InputStream entrada, FormatoImportacion formato, long omitirFilas) {
+        String id = idImportacion != null && !idImportacion.isBlank() ? idImportacion : UUID.randomUUID().toString();
+        ImportacionProgreso progreso = new ImportacionProgreso(id, omitirFilas);
+        ImportacionProgreso anterior = progresos.asMap().putIfAbsent(id, progreso);
+        if (anterior != null) {
+            if (anterior.getEstado() == ImportacionProgreso.Estado.EN_CURSO) {
+                throw new IllegalStateException("La importación '" + id + "' ya está en curso.");
+            }
+            progresos.put(id, progreso); // Reanudación de una importación terminada o fallida
+        }
+
+        try (BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8))) {
+            // 1. Encabezado CSV (define el orden de las columnas)
+            Map<String, Integer> columnas = formato == FormatoImportacion.CSV ? leerEncabezado(lector) : Map.of();
+
+            // 2. Leer y procesar lote a lote
+            List<FilaNumerada> lote = new ArrayList<>(tamanoLote);
+            long numeroFila = 0;
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                if (linea.isBlank()) {
+                    continue;
+                }
+                numeroFila++;
+                if (numeroFila <= omitirFilas) {
+                    continue; // Ya importada en una ejecución anterior
+                }
+                progreso.filaLeida(numeroFila);
+                try {
+                    UsuarioImportFila fila = formato == FormatoImportacion.CSV
+                            ? parsearCsv(linea, columnas)
+                            : objectMapper.readValue(linea, UsuarioImportFila.class);
+                    lote.add(new FilaNumerada(numeroFila, fila));
+                } catch (IOException | RuntimeException e) {
+                    progreso.error(numeroFila, "formato inválido");
+                }
+                if (lote.size() == tamanoLote) {
+                    procesarLote(lote, progreso);
+                    lote.clear();
+                }
+            }
+            if (!lote.isEmpty()) {
+                procesarLote(lote, progreso);
+            }
+            progreso.completar();
+        } catch (IOException | RuntimeException e) {
+            progreso.fallar("Importación interrumpida después de la fila " + progreso.getFilaConfirmada() + ": " + e.getMessage());
+        }
+        return progreso;
+    }
+
+    private void procesarLote(List<FilaNumerada> lote, ImportacionProgreso progreso) {
+        // 1. Validar campos obligatorios y roles
+        List<FilaNumerada> validas = new ArrayList<>(lote.size());
+        for (FilaNumerada fn : lote) {
+            String motivo = validar(fn.fila());
+            if (motivo != null) {
+                progreso.error(fn.numero(), motivo);
+            } else {
+                validas.add(fn);
+            }
+        }
+
+        // 2. Emails ya registrados (una consulta por lote) o repetidos dentro del lote
+        Set<String> emailsExistentes = new HashSet<>(usuarioRepository.findEmailsExistentes(
+                validas.stream().map(fn -> fn.fila().getEmail()).distinct().toList()));
+        List<FilaNumerada> nuevas = new ArrayList<>(validas.size());
+        for (FilaNumerada fn : validas) {
+            if (!emailsExistentes.add(fn.fila().getEmail())) {
+                progreso.duplicado();
+            } else {
+                nuevas.add(fn);
+            }
+        }
+
+        // 3. Hashear las contraseñas en paralelo
+        List<CompletableFuture<String>> hashes = nuevas.stream()
+                .map(fn -> CompletableFuture.supplyAsync(() -> passwordEncoder.encode(fn.fila().getContrasena()), hashExecutor))
+                .toList();
+
+        // 4. Guardar el lote en una transacción, con inserciones en lotes JDBC
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < nuevas.size(); i++) {
+                UsuarioImportFila fila = nuevas.get(i).fila();
+                Usuario usuario = new Usuario();
+                usuario.setNombre(fila.getNombre());
+                usuario.setApellido(fila.getApellido());
+                usuario.setEmail(fila.getEmail());
+                usuario.setContrasena(hashes.get(i).join());
+                usuario.setFechaRegistro(new java.util.Date());
+                usuario.setEstado(fila.getEstado() == null || fila.getEstado().isBlank() ? "activo" : fila.getEstado());
+                usuario.setIdOficina(fila.getIdOficina());
+                Set<Rol> roles = new HashSet<>();
+                for (String nombreRol : rolesDe(fila)) {
+                    roles.add(diccionarioRoles.buscar(nombreRol).orElseThrow());
+                }
+                usuario.setRoles(roles);
+                entityManager.persist(usuario);
+                if ((i + 1) % TAMANO_LOTE_INSERT == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+        progreso.loteConfirmado(lote.get(lote.size() - 1).numero(), nuevas.size());
+    }
+
+    private String validar(UsuarioImportFila fila) {
+        if (fila.getEmail() == null || fila.getEmail().isBlank()) {
+            return "email requerido";
+        }
+        if (fila.getContrasena() == null || fila.getContrasena().isEmpty()) {
+            return "contraseña requerida";
+        }
+        for (String nombreRol : rolesDe(fila)) {
+            if (diccionarioRoles.buscar(nombreRol).isEmpty()) {
+                return "rol '" + nombreRol + "' no encontrado";
+            }
+        }
+        return null;
+    }
+
+    private static Collection<String> rolesDe(UsuarioImportFila fila) {
+        return fila.getRoles() != null ? fila.getRoles() : List.of();
+    }
+
+    // Columnas: nombre, apellido, email, contrasena, estado, idOficina, roles (separados por '|'), en cualquier orden
+    private static Map<String, Integer> leerEncabezado(BufferedReader lector) throws IOException {
+        String encabezado = lector.readLine();
+        if (encabezado == null) {
+            return Map.of();
+        }
+        List<String> nombres = separarCsv(encabezado);
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < nombres.size(); i++) {
+            columnas.put(nombres.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columnas.containsKey("email") || !columnas.containsKey("contrasena")) {
+            throw new IllegalArgumentException("El encabezado CSV debe incluir las columnas 'email' y 'contrasena'.");
+        }
+        return columnas;
+    }
+
+    private static UsuarioImportFila parsearCsv(String linea, Map<String, Integer> columnas) {
+        List<String> valores = separarCsv(linea);
+        UsuarioImportFila fila = new UsuarioImportFila();
+        fila.setNombre(valor(valores, columnas, "nombre"));
+        fila.setApellido(valor(valores, columnas, "apellido"));
+        fila.setEmail(valor(valores, columnas, "email"));
+        fila.setContrasena(valor(valores, columnas, "contrasena"));
+        fila.setEstado(valor(valores, columnas, "estado"));
+        String idOficina = valor(valores, columnas, "idoficina");
+        fila.setIdOficina(idOficina == null || idOficina.isBlank() ? null : Long.valueOf(idOficina.trim()));
+        String roles = valor(valores, columnas, "roles");
+        fila.setRoles(roles == null || roles.isBlank() ? List.of()
+                : Arrays.stream(roles.split("\\|")).map(String::trim).filter(r -> !r.isEmpty()).toList());
+        return fila;
+    }
+
+    private static String valor(List<String> valores, Map<String, Integer> columnas, String columna) {
+        Integer indice = columnas.get(columna);
+        return indice != null && indice < valores.size() ? valores.get(indice) : null;
+    }
+
+    // Separa una línea CSV respetando comillas dobles ("" dentro de un campo entre comillas es una comilla)
+    private static List<String> separarCsv(String linea) {
+        List<String> valores = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                valores.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        valores.add(actual.toString());
+        return valores;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdown();
+    }
+
+    private record FilaNumerada(long numero, UsuarioImportFila fila) {
+    }
+}
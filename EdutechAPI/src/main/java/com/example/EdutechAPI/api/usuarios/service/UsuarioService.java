@@ -1,10 +1,17 @@
 package com.example.EdutechAPI.api.usuarios.service;
 
+import com.example.EdutechAPI.api.comun.OrdenesPagina;
+import com.example.EdutechAPI.api.comun.PaginaResponse;
+import com.example.EdutechAPI.api.comun.Paginador;
+import com.example.EdutechAPI.api.comun.VersionColeccion;
 import com.example.EdutechAPI.api.usuarios.model.Usuario;
 import com.example.EdutechAPI.api.usuarios.model.Rol;
 import com.example.EdutechAPI.api.usuarios.repository.UsuarioRepository;
-import com.example.EdutechAPI.api.usuarios.repository.RolRepository;
+import com.example.EdutechAPI.api.usuarios.event.UsuarioModificadoEvent;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,13 +25,23 @@ import java.util.Set;
 @Service
 public class UsuarioService {
 
+    // Órdenes admitidos en el listado paginado: id, email, apellido (y sus inversos con '-')
+    private static final OrdenesPagina<Usuario> ORDENES = OrdenesPagina.de("idUsuario", Usuario::getIdUsuario)
+            .con("email", "email", String.class, Usuario::getEmail)
+            .con("apellido", "apellido", String.class, Usuario::getApellido);
+
     private final UsuarioRepository usuarioRepository;
-    private final RolRepository rolRepository;
+    private final DiccionarioRoles diccionarioRoles;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Paginador paginador;
 
     @Autowired
-    public UsuarioService(UsuarioRepository usuarioRepository, RolRepository rolRepository) {
+    public UsuarioService(UsuarioRepository usuarioRepository, DiccionarioRoles diccionarioRoles,
+                          ApplicationEventPublisher eventPublisher, Paginador paginador) {
         this.usuarioRepository = usuarioRepository;
-        this.rolRepository = rolRepository;
+        this.diccionarioRoles = diccionarioRoles;
+        this.eventPublisher = eventPublisher;
+        this.paginador = paginador;
     }
 
     @Transactional
@@ -34,14 +51,8 @@ public class UsuarioService {
             throw new IllegalArgumentException("Ya existe un usuario con este email: " + usuario.getEmail());
         }
 
-        // --- VALIDACIÓN CRÍTICA PARA EL ID ---
-        // Validación 2: Si el cliente proporciona un ID, verificar que no exista.
-        if (usuario.getIdUsuario() != null) {
-            if (usuarioRepository.existsById(usuario.getIdUsuario())) {
-                throw new IllegalArgumentException("El ID de usuario " + usuario.getIdUsuario() + " ya existe. No se puede crear un usuario con un ID duplicado.");
-            }
-        }
-        // --- FIN VALIDACIÓN CRÍTICA ---
+        // El ID lo genera la base de datos (secuencia por bloques): se ignora el que envíe el cliente
+        usuario.setIdUsuario(null);
 
         // Asignar fecha de registro si no viene (o asegurar que sea la actual)
         if (usuario.getFechaRegistro() == null) {
@@ -59,7 +70,7 @@ public class UsuarioService {
                 if (rolRecibido.getNombreRol() == null || rolRecibido.getNombreRol().isEmpty()) {
                      throw new IllegalArgumentException("El nombre del rol no puede ser nulo o vacío al asignar roles durante la creación.");
                 }
-                Rol rolExistente = rolRepository.findByNombreRol(rolRecibido.getNombreRol())
+                Rol rolExistente = diccionarioRoles.buscar(rolRecibido.getNombreRol())
                     .orElseThrow(() -> new IllegalArgumentException("Rol '" + rolRecibido.getNombreRol() + "' no encontrado."));
                 rolesAsignar.add(rolExistente);
             }
@@ -77,26 +88,56 @@ public class UsuarioService {
         return usuarioRepository.findAll();
     }
 
+    // Con incluirRoles = false la página cuesta una consulta y los roles se serializan como null;
+    // con true, una más: los roles de toda la página se cargan juntos (@BatchSize en Usuario.roles)
+    @Transactional(readOnly = true)
+    public PaginaResponse<Usuario> obtenerUsuariosPaginados(String orden, String cursor, Integer tamano, boolean incluirRoles) {
+        PaginaResponse<Usuario> pagina = paginador.paginar(usuarioRepository, null, ORDENES, orden, cursor, tamano, usuario -> usuario);
+        if (incluirRoles) {
+            pagina.getContenido().forEach(usuario -> Hibernate.initialize(usuario.getRoles()));
+        }
+        return pagina;
+    }
+
     public Optional<Usuario> obtenerUsuarioPorId(Long id) {
-        return usuarioRepository.findById(id);
+        return usuarioRepository.findConRolesByIdUsuario(id);
     }
 
     public Optional<Usuario> obtenerUsuarioPorEmail(String email) {
-        return usuarioRepository.findByEmail(email);
+        return usuarioRepository.findConRolesByEmail(email);
+    }
+
+    // Para las ETags: la versión de un usuario y el agregado de la tabla, sin cargar entidades
+    public Optional<Long> obtenerVersionUsuario(Long id) {
+        return usuarioRepository.findVersionById(id);
+    }
+
+    public VersionColeccion obtenerVersionUsuarios() {
+        return usuarioRepository.findVersionColeccion();
     }
 
     @Transactional
-    public Usuario actualizarUsuario(Long id, Usuario usuarioDetalles) {
-        return usuarioRepository.findById(id).map(usuarioExistente -> {
-            
+    public void actualizarUsuario(Long id, Usuario usuarioDetalles) {
+        actualizarUsuario(id, usuarioDetalles, null);
+    }
 
-            usuarioExistente.setNombre(usuarioDetalles.getNombre());
-            usuarioExistente.setApellido(usuarioDetalles.getApellido());
-            usuarioExistente.setEmail(usuarioDetalles.getEmail()); // Considerar validación de email único aquí también si se permite cambiar
-            usuarioExistente.setEstado(usuarioDetalles.getEstado());
-            usuarioExistente.setIdOficina(usuarioDetalles.getIdOficina());
-            return usuarioRepository.save(usuarioExistente);
-        }).orElseThrow(() -> new RuntimeException("Usuario no encontrado con ID: " + id));
+    // Solo cambian los campos enviados: un campo null conserva su valor (no se puede vaciar con PUT).
+    // Es un único UPDATE que además compara la versión de If-Match (null = sin condición).
+    // Devuelve la nueva versión (la esperada + 1) para la ETag, o null sin If-Match: saberla costaría otra consulta.
+    @Transactional
+    public Long actualizarUsuario(Long id, Usuario usuarioDetalles, Long versionEsperada) {
+        int filas = usuarioRepository.actualizarParcial(id, usuarioDetalles.getNombre(), usuarioDetalles.getApellido(),
+                usuarioDetalles.getEmail(), // Considerar validación de email único aquí también si se permite cambiar
+                usuarioDetalles.getEstado(), usuarioDetalles.getIdOficina(), versionEsperada);
+        if (filas == 0) {
+            // Solo en el caso de error se consulta por qué: no existe (404) o cambió de versión (412)
+            if (usuarioRepository.findVersionById(id).isEmpty()) {
+                throw new RuntimeException("Usuario no encontrado con ID: " + id);
+            }
+            throw new ObjectOptimisticLockingFailureException(Usuario.class, id);
+        }
+        eventPublisher.publishEvent(new UsuarioModificadoEvent(id));
+        return versionEsperada == null ? null : versionEsperada + 1;
     }
 
     @Transactional
@@ -105,22 +146,46 @@ public class UsuarioService {
             throw new RuntimeException("Usuario no encontrado con ID: " + id);
         }
         usuarioRepository.deleteById(id);
+        eventPublisher.publishEvent(new UsuarioModificadoEvent(id));
+    }
+
+    @Transactional
+    public void eliminarUsuario(Long id, Long versionEsperada) {
+        if (versionEsperada == null) {
+            eliminarUsuario(id);
+            return;
+        }
+        // Se borra la entidad cargada para que el DELETE lleve la versión comprobada
+        Usuario usuario = usuarioRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Usuario no encontrado con ID: " + id));
+        comprobarVersion(usuario, versionEsperada);
+        usuarioRepository.delete(usuario);
+        eventPublisher.publishEvent(new UsuarioModificadoEvent(id));
+    }
+
+    private void comprobarVersion(Usuario usuario, Long versionEsperada) {
+        if (versionEsperada != null && !versionEsperada.equals(usuario.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Usuario.class, usuario.getIdUsuario());
+        }
     }
 
     @Transactional
     public Usuario asignarRolAUsuario(Long usuarioId, String nombreRol) {
-        Usuario usuario = usuarioRepository.findById(usuarioId)
+        Usuario usuario = usuarioRepository.findConRolesByIdUsuario(usuarioId)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado con ID: " + usuarioId));
 
-        Rol rol = rolRepository.findByNombreRol(nombreRol)
+        Rol rol = diccionarioRoles.buscar(nombreRol)
                 .orElseThrow(() -> new RuntimeException("Rol '" + nombreRol + "' no encontrado."));
 
         if (usuario.getRoles() == null) {
             usuario.setRoles(new HashSet<>());
         }
 
+        // El usuario está administrado: USUARIO_ROL se actualiza al confirmar la transacción.
+        // No se llama a save(): haría un merge que vuelve a leer el rol de la tabla ROLES.
         if (usuario.getRoles().add(rol)) {
-            return usuarioRepository.save(usuario);
+            eventPublisher.publishEvent(new UsuarioModificadoEvent(usuarioId));
+            return usuario;
         } else {
             return usuario;
         }
@@ -128,21 +193,22 @@ public class UsuarioService {
 
     @Transactional
     public Usuario desasignarRolAUsuario(Long usuarioId, String nombreRol) {
-        Usuario usuario = usuarioRepository.findById(usuarioId)
+        Usuario usuario = usuarioRepository.findConRolesByIdUsuario(usuarioId)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado con ID: " + usuarioId));
 
-        Rol rol = rolRepository.findByNombreRol(nombreRol)
+        Rol rol = diccionarioRoles.buscar(nombreRol)
                 .orElseThrow(() -> new RuntimeException("Rol '" + nombreRol + "' no encontrado."));
 
         if (usuario.getRoles() != null && usuario.getRoles().remove(rol)) {
-            return usuarioRepository.save(usuario);
+            eventPublisher.publishEvent(new UsuarioModificadoEvent(usuarioId));
+            return usuario;
         } else {
             return usuario;
         }
     }
 
     public Set<Rol> obtenerRolesDeUsuario(Long usuarioId) {
-        return usuarioRepository.findById(usuarioId)
+        return usuarioRepository.findConRolesByIdUsuario(usuarioId)
                 .map(Usuario::getRoles)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado con ID: " + usuarioId));
     }
@@ -1,20 +1,33 @@
 // src/main/java/com/example/EdutechAPI/config/AESUtil.java
 package com.example.EdutechAPI.config;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Function;
 
 import javax.crypto.SecretKey;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import com.example.EdutechAPI.security.EventosSeguridad;
+import com.example.EdutechAPI.security.JwtPrincipal;
+import com.example.EdutechAPI.security.TipoEventoSeguridad;
+import com.example.EdutechAPI.security.VerifiedTokenCache;
+
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException; // ¡Importante!
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -25,11 +38,38 @@ import io.jsonwebtoken.security.Keys;
 @Component
 public class AESUtil {
 
+    // Claims adicionales usados por el modo de autenticación sin estado
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+    public static final String CLAIM_TOKEN_TYPE = "typ";
+    // Familia y generación del refresh token (ver RefreshTokenFamilies)
+    public static final String CLAIM_REFRESH_FAMILY = "fam";
+    public static final String CLAIM_REFRESH_GENERATION = "gen";
+    public static final String TIPO_REFRESH = "refresh";
+
     @Value("${jwt.secret}")
     private String secretString;
 
+    // Vida corta del access token: la revocación y los cambios de roles se aplican como mucho en este plazo
+    @Value("${jwt.access.expiration-ms:900000}")
+    private long accessExpirationMillis = 900000;
+
+    @Value("${jwt.refresh.expiration-ms:604800000}")
+    private long refreshExpirationMillis = 604800000;
+
     private SecretKey key;
 
+    private JwtParser parser;
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final EventosSeguridad eventosSeguridad;
+
+    public AESUtil(VerifiedTokenCache verifiedTokenCache, EventosSeguridad eventosSeguridad) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.eventosSeguridad = eventosSeguridad;
+    }
+
     public SecretKey getSigningKey() {
         if (this.key == null) {
             byte[] keyBytes = secretString.getBytes(StandardCharsets.UTF_8);
@@ -41,6 +81,7 @@ public class AESUtil {
     public String generateToken(String subject, Map<String, Object> claims, long expirationMillis) {
         return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString()) // jti: permite revocar el token
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expirationMillis))
@@ -50,8 +91,37 @@ public class AESUtil {
 
     public String generateToken(String username) {
         Map<String, Object> claims = new HashMap<>();
-        long expirationTime = 1000 * 60 * 60 * 10; // 10 horas de validez (ajusta según necesites)
-        return generateToken(username, claims, expirationTime);
+        return generateToken(username, claims, accessExpirationMillis);
+    }
+
+    // Access token de vida corta que además lleva el id, los roles y la versión de token del usuario
+    // (Usuario.version; sin versión el token no sirve para el modo sin estado)
+    public String generateToken(String username, Long idUsuario, Collection<String> roles, Long tokenVersion) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, idUsuario);
+        claims.put(CLAIM_ROLES, List.copyOf(roles));
+        if (tokenVersion != null) {
+            claims.put(CLAIM_TOKEN_VERSION, tokenVersion);
+        }
+        return generateToken(username, claims, accessExpirationMillis);
+    }
+
+    // Refresh token: identifica al usuario y su posición en la familia; los roles se vuelven a leer al renovar
+    public String generateRefreshToken(String username, Long idUsuario, String familia, int generacion) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, idUsuario);
+        claims.put(CLAIM_TOKEN_TYPE, TIPO_REFRESH);
+        claims.put(CLAIM_REFRESH_FAMILY, familia);
+        claims.put(CLAIM_REFRESH_GENERATION, generacion);
+        return generateToken(username, claims, refreshExpirationMillis);
+    }
+
+    public long getAccessExpirationMillis() {
+        return accessExpirationMillis;
+    }
+
+    public long getRefreshExpirationMillis() {
+        return refreshExpirationMillis;
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -59,41 +129,90 @@ public class AESUtil {
         return claimsResolver.apply(claims);
     }
 
+    // El parser es inmutable y thread-safe, así que lo construimos una sola vez
+    private JwtParser getParser() {
+        if (this.parser == null) {
+            this.parser = Jwts.parserBuilder()
+                    .setSigningKey(getSigningKey())
+                    .build();
+        }
+        return this.parser;
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        return getParser()
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
+    // Valida el token una sola vez (firma + expiración) y devuelve el principal inmutable.
+    // Los tokens ya verificados se sirven desde la caché sin volver a comprobar la firma.
+    public Optional<JwtPrincipal> verifyToken(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
+        ByteBuffer cacheKey = verifiedTokenCache.keyFor(token);
+        JwtPrincipal cached = verifiedTokenCache.get(cacheKey);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
 
-    public Boolean validateToken(String token, UserDetails userDetails) {
         try {
-            final String username = extractUsername(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+            Claims claims = extractAllClaims(token);
+            if (claims.getSubject() == null || claims.getExpiration() == null) {
+                return Optional.empty();
+            }
+            JwtPrincipal principal = new JwtPrincipal(
+                    claims.getSubject(),
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L,
+                    claims.getExpiration().getTime(),
+                    claims.get(CLAIM_USER_ID, Long.class),
+                    extractAuthorities(claims),
+                    claims.get(CLAIM_TOKEN_VERSION, Long.class),
+                    claims.getId(),
+                    claims.get(CLAIM_TOKEN_TYPE, String.class),
+                    claims.get(CLAIM_REFRESH_FAMILY, String.class),
+                    claims.get(CLAIM_REFRESH_GENERATION, Integer.class));
+            verifiedTokenCache.put(cacheKey, principal);
+            return Optional.of(principal);
         } catch (SignatureException e) {
-            System.out.println("Invalid JWT signature: " + e.getMessage());
+            eventosSeguridad.registrar(TipoEventoSeguridad.FIRMA_INVALIDA, e.getMessage());
         } catch (MalformedJwtException e) {
-            System.out.println("Invalid JWT token: " + e.getMessage());
+            eventosSeguridad.registrar(TipoEventoSeguridad.TOKEN_MALFORMADO, e.getMessage());
         } catch (ExpiredJwtException e) {
-            System.out.println("JWT token is expired: " + e.getMessage());
+            // El mensaje incluye fechas que cambian en cada token: sin detalle para poder agruparlos
+            eventosSeguridad.registrar(TipoEventoSeguridad.TOKEN_EXPIRADO, null);
         } catch (UnsupportedJwtException e) {
-            System.out.println("JWT token is unsupported: " + e.getMessage());
+            eventosSeguridad.registrar(TipoEventoSeguridad.TOKEN_NO_SOPORTADO, e.getMessage());
         } catch (IllegalArgumentException e) {
-            System.out.println("JWT claims string is empty: " + e.getMessage());
+            eventosSeguridad.registrar(TipoEventoSeguridad.TOKEN_VACIO, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    // Las autoridades se construyen una vez por token y quedan guardadas en la caché junto al principal
+    private List<GrantedAuthority> extractAuthorities(Claims claims) {
+        Object roles = claims.get(CLAIM_ROLES);
+        if (!(roles instanceof Collection<?> lista)) {
+            return null;
         }
-        return false;
+        return lista.stream()
+                .map(rol -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(rol)))
+                .toList();
+    }
+
+    public String extractUsername(String token) {
+        return extractClaim(token, Claims::getSubject);
+    }
+
+    public Date extractExpiration(String token) {
+        return extractClaim(token, Claims::getExpiration);
+    }
+
+    public Boolean validateToken(String token, UserDetails userDetails) {
+        return verifyToken(token)
+                .map(principal -> principal.username().equals(userDetails.getUsername()))
+                .orElse(false);
     }
 }
\ No newline at end of file
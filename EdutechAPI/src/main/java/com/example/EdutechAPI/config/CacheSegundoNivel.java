@@ -0,0 +1,77 @@
+package com.example.EdutechAPI.config;
+
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Caché de segundo nivel de Hibernate para las entidades que casi no cambian (Curso, Rol).
+// Sin caché de consultas: los listados van paginados por cursor y cada página sería una entrada distinta,
+// mientras que cada escritura en cualquier tabla tendría que actualizar sus marcas de tiempo.
+// Es local a cada instancia (JCache sobre Caffeine): los cambios hechos en esta instancia la actualizan
+// al hacer commit; los de otras instancias se ven al expirar el TTL.
+// Cada región publica sus estadísticas como "cache.*{cache=<región>}" y su tasa de aciertos como "cache.hit.ratio".
+@Configuration
+public class CacheSegundoNivel {
+
+    public static final String REGION_CURSOS = "cursos";
+    public static final String REGION_ROLES = "roles";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager cacheManagerSegundoNivel(CacheSegundoNivelProperties properties, MeterRegistry meterRegistry) {
+        // Un CacheManager propio por contexto de Spring (las pruebas levantan varios en la misma JVM)
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("edutech-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        crearRegion(cacheManager, REGION_CURSOS, properties.getCursos(), meterRegistry);
+        crearRegion(cacheManager, REGION_ROLES, properties.getRoles(), meterRegistry);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelCustomizer(CacheManager cacheManagerSegundoNivel) {
+        return propiedades -> {
+            propiedades.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            propiedades.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            propiedades.put(ConfigSettings.CACHE_MANAGER, cacheManagerSegundoNivel);
+            // Una región sin configurar (sin límite ni TTL) es un error, no un aviso en el log
+            propiedades.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private void crearRegion(CacheManager cacheManager, String nombre, CacheSegundoNivelProperties.Region region,
+                             MeterRegistry meterRegistry) {
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        configuracion.setNativeStatisticsEnabled(true);
+        if (region != null) {
+            configuracion.setMaximumSize(OptionalLong.of(region.getMaxEntradas()));
+            if (region.getTtl() != null) {
+                configuracion.setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()));
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        Cache<Object, Object> nativa = cacheManager.createCache(nombre, configuracion).unwrap(Cache.class);
+        CaffeineCacheMetrics.monitor(meterRegistry, nativa, nombre);
+        Gauge.builder("cache.hit.ratio", nativa, cache -> cache.stats().hitRate())
+                .description("Tasa de aciertos de la región de la caché de segundo nivel")
+                .tag("cache", nombre)
+                .register(meterRegistry);
+    }
+}
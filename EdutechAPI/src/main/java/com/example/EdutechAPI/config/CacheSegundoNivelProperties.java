@@ -0,0 +1,29 @@
+package com.example.EdutechAPI.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Tamaño máximo y TTL de cada región de la caché de segundo nivel (ver CacheSegundoNivel)
+@Data
+@Component
+@ConfigurationProperties(prefix = "cache.segundo-nivel")
+public class CacheSegundoNivelProperties {
+
+    private Region cursos = new Region(5000, Duration.ofMinutes(10));
+    private Region roles = new Region(100, Duration.ofHours(1));
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Region {
+        private long maxEntradas;
+        // El TTL acota cuánto tarda en verse un cambio hecho por otra instancia de la API
+        private Duration ttl;
+    }
+}
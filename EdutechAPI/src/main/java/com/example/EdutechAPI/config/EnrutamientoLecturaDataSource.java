@@ -0,0 +1,146 @@
+package com.example.EdutechAPI.config;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// Envía las transacciones @Transactional(readOnly = true) a la réplica y todo lo demás al primario.
+// - Debe usarse detrás de un LazyConnectionDataSourceProxy: así la conexión se pide en la primera sentencia,
+//   cuando la transacción ya se marcó como de solo lectura.
+// - Lectura propia: el usuario que confirmó una escritura lee del primario durante la ventana configurada.
+//   La ventana es local a cada instancia de la API.
+// - Si la réplica no responde o va demasiado retrasada (comprobarReplica), las lecturas vuelven al primario.
+//   Un fallo al pedirle una conexión también la marca como no disponible hasta la siguiente comprobación.
+public class EnrutamientoLecturaDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrutamientoLecturaDataSource.class);
+
+    public enum Destino {
+        PRIMARIA,
+        REPLICA
+    }
+
+    private final DataSource primaria;
+    private final DataSource replica;
+    private final ReplicaLecturaProperties properties;
+    private final Cache<String, Boolean> escriturasRecientes;
+    private volatile boolean replicaDisponible = true;
+
+    public EnrutamientoLecturaDataSource(DataSource primaria, DataSource replica, ReplicaLecturaProperties properties) {
+        this.primaria = primaria;
+        this.replica = replica;
+        this.properties = properties;
+        this.escriturasRecientes = properties.getVentanaLecturaPropia().isZero() ? null
+                : Caffeine.newBuilder().expireAfterWrite(properties.getVentanaLecturaPropia()).maximumSize(100_000).build();
+        setTargetDataSources(Map.of(Destino.PRIMARIA, primaria, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primaria);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            registrarEscrituraAlConfirmar();
+            return Destino.PRIMARIA;
+        }
+        if (!replicaDisponible) {
+            return Destino.PRIMARIA;
+        }
+        String usuario = usuarioActual();
+        if (usuario != null && escriturasRecientes != null && escriturasRecientes.getIfPresent(usuario) != null) {
+            return Destino.PRIMARIA;
+        }
+        return Destino.REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() == Destino.REPLICA) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                marcarReplica(false, e.getMessage());
+            }
+        }
+        return primaria.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primaria.getConnection(username, password);
+    }
+
+    // Conexión válida y, si hay consulta de retraso configurada, retraso dentro del máximo
+    @Scheduled(fixedDelayString = "${datasource.replica.comprobacion-ms:5000}")
+    public void comprobarReplica() {
+        try (Connection conexion = replica.getConnection()) {
+            if (!conexion.isValid((int) properties.getTimeoutValidacion().toSeconds())) {
+                marcarReplica(false, "la conexión no es válida");
+                return;
+            }
+            String consulta = properties.getConsultaRetraso();
+            if (consulta != null && !consulta.isBlank()) {
+                try (Statement sentencia = conexion.createStatement(); ResultSet fila = sentencia.executeQuery(consulta)) {
+                    double retrasoSegundos = fila.next() ? fila.getDouble(1) : Double.MAX_VALUE;
+                    if (retrasoSegundos > properties.getRetrasoMaximo().toSeconds()) {
+                        marcarReplica(false, "retraso de " + retrasoSegundos + " s");
+                        return;
+                    }
+                }
+            }
+            marcarReplica(true, null);
+        } catch (SQLException e) {
+            marcarReplica(false, e.getMessage());
+        }
+    }
+
+    public boolean isReplicaDisponible() {
+        return replicaDisponible;
+    }
+
+    private void marcarReplica(boolean disponible, String motivo) {
+        if (replicaDisponible == disponible) {
+            return;
+        }
+        replicaDisponible = disponible;
+        if (disponible) {
+            log.info("Réplica de lectura disponible de nuevo");
+        } else {
+            log.warn("Réplica de lectura no disponible ({}); las lecturas van al primario", motivo);
+        }
+    }
+
+    private void registrarEscrituraAlConfirmar() {
+        String usuario = usuarioActual();
+        if (escriturasRecientes == null || usuario == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                escriturasRecientes.put(usuario, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static String usuarioActual() {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacion == null || !autenticacion.isAuthenticated() ? null : autenticacion.getName();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.EdutechAPI.config;
+
+// Generación de IDs por bloques (optimizador "pooled-lo" de Hibernate).
+// Cada NEXTVAL reserva TAMANO_BLOQUE ids para esta instancia, que se reparten desde memoria.
+// Como la reserva la hace la secuencia de Oracle, varias instancias de la API nunca reciben el mismo bloque.
+// IMPORTANTE: el INCREMENT BY de cada secuencia debe ser igual a TAMANO_BLOQUE (ver db/001_secuencias_por_bloques.sql).
+public final class IdGeneracion {
+
+    public static final int TAMANO_BLOQUE = 50;
+
+    private IdGeneracion() {
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.EdutechAPI.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// Con datasource.replica.habilitada=true reemplaza el datasource de Spring Boot por dos pools (primario y réplica)
+// detrás de EnrutamientoLecturaDataSource. JPA recibe el proxy perezoso (@Primary), que es el que decide a qué
+// pool va cada transacción. Los pools no se conectan hasta la primera petición: una réplica caída no impide arrancar.
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.replica", name = "habilitada", havingValue = "true")
+public class ReplicaLectura {
+
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSourcePrimaria(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primaria");
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource dataSourceReplica(ReplicaLecturaProperties properties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .driverClassName(properties.getDriverClassName())
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public EnrutamientoLecturaDataSource enrutamientoLecturaDataSource(HikariDataSource dataSourcePrimaria,
+                                                                       HikariDataSource dataSourceReplica,
+                                                                       ReplicaLecturaProperties properties) {
+        return new EnrutamientoLecturaDataSource(dataSourcePrimaria, dataSourceReplica, properties);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(EnrutamientoLecturaDataSource enrutamientoLecturaDataSource) {
+        return new LazyConnectionDataSourceProxy(enrutamientoLecturaDataSource);
+    }
+}
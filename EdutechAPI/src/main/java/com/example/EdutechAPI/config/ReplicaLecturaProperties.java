@@ -0,0 +1,33 @@
+package com.example.EdutechAPI.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+// Réplica de solo lectura para las transacciones readOnly (ver ReplicaLectura y EnrutamientoLecturaDataSource).
+// El pool de la réplica se ajusta en datasource.replica.hikari.* igual que el primario en spring.datasource.hikari.*
+@Data
+@Component
+@ConfigurationProperties(prefix = "datasource.replica")
+public class ReplicaLecturaProperties {
+
+    // Sin habilitar, la API usa solo el datasource de spring.datasource, como siempre
+    private boolean habilitada = false;
+    private String url;
+    private String username;
+    private String password;
+    private String driverClassName;
+
+    // Tras una escritura confirmada, las lecturas del mismo usuario van al primario durante este tiempo,
+    // para que vea lo que acaba de escribir aunque la réplica aún no lo haya aplicado. Cero lo desactiva.
+    private Duration ventanaLecturaPropia = Duration.ofSeconds(5);
+
+    // Consulta opcional que devuelve el retraso de la réplica en segundos; sin ella solo se comprueba la conexión
+    private String consultaRetraso;
+    // Con más retraso que esto (o sin conexión) la réplica se deja de usar hasta la siguiente comprobación buena
+    private Duration retrasoMaximo = Duration.ofSeconds(10);
+    private Duration timeoutValidacion = Duration.ofSeconds(2);
+}
@@ -1,75 +1,204 @@
 package com.example.EdutechAPI.security;
 
-import com.example.EdutechAPI.api.usuarios.model.Rol;
-import com.example.EdutechAPI.api.usuarios.model.Usuario;
-import com.example.EdutechAPI.api.usuarios.repository.UsuarioRepository;
 import com.example.EdutechAPI.config.AESUtil; 
 import com.example.EdutechAPI.security.dto.JwtResponse;
 import com.example.EdutechAPI.security.dto.LoginRequest;
+import com.example.EdutechAPI.security.dto.RefreshRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder; // Necesario si vas a registrar usuarios
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.transaction.TransactionException;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/auth") 
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     private final AuthenticationManager authenticationManager;
     private final AESUtil aesUtil; 
     private final UserDetailsServiceImpl userDetailsService; // Nuestro servicio de detalles de usuario
-    private final UsuarioRepository usuarioRepository; // Para obtener datos del usuario
     private final PasswordEncoder passwordEncoder; // Solo para usuarios nuevos
+    private final LoginExecutor loginExecutor; // Pool acotado para BCrypt
+    private final PasswordRehashService passwordRehashService;
+    private final TokenRevocationList tokenRevocationList;
+    private final RefreshTokenFamilies refreshTokenFamilies;
+    private final EventosSeguridad eventosSeguridad;
+
+    @Value("${auth.login.timeout-ms:10000}")
+    private long loginTimeoutMillis;
+
+    @Value("${auth.login.retry-after-seconds:2}")
+    private long retryAfterSeconds;
 
     public AuthController(AuthenticationManager authenticationManager, AESUtil aesUtil,
-                          UserDetailsServiceImpl userDetailsService, UsuarioRepository usuarioRepository,
-                          PasswordEncoder passwordEncoder) {
+                          UserDetailsServiceImpl userDetailsService, PasswordEncoder passwordEncoder,
+                          LoginExecutor loginExecutor,
+                          PasswordRehashService passwordRehashService, TokenRevocationList tokenRevocationList,
+                          RefreshTokenFamilies refreshTokenFamilies, EventosSeguridad eventosSeguridad) {
         this.authenticationManager = authenticationManager;
         this.aesUtil = aesUtil;
         this.userDetailsService = userDetailsService;
-        this.usuarioRepository = usuarioRepository;
         this.passwordEncoder = passwordEncoder;
+        this.loginExecutor = loginExecutor;
+        this.passwordRehashService = passwordRehashService;
+        this.tokenRevocationList = tokenRevocationList;
+        this.refreshTokenFamilies = refreshTokenFamilies;
+        this.eventosSeguridad = eventosSeguridad;
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<Object>> authenticateUser(@RequestBody LoginRequest loginRequest) {
+        // La verificación (BCrypt) corre en el pool de login; el hilo de Tomcat queda libre mientras tanto
         try {
-            // 1. Autenticar las credenciales del usuario usando Spring Security
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
+            return loginExecutor.submit(() -> login(loginRequest), loginTimeoutMillis)
+                    .exceptionally(this::handleLoginError);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(serviceUnavailable());
+        }
+    }
+
+    private ResponseEntity<Object> login(LoginRequest loginRequest) {
+        // 1. Autenticar las credenciales del usuario usando Spring Security
+        Authentication authentication = authenticationManager.authenticate(
+            new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
+
+        // 2. El principal autenticado ya trae id y roles: no hace falta otra consulta a la DB
+        // (no se guarda en el SecurityContextHolder: este hilo es del pool y la API es sin estado)
+        UsuarioPrincipal principal = (UsuarioPrincipal) authentication.getPrincipal();
+
+        // 3. Generar el access token (vida corta) y el refresh token, que abre una familia nueva
+        JwtResponse respuesta = emitirTokens(principal, refreshTokenFamilies.abrir(expiracionRefresh()), 0);
+
+        // 4. Si el hash guardado usa parámetros antiguos, se recalcula en segundo plano
+        passwordRehashService.programarSiNecesario(principal.getUsername(), loginRequest.getPassword());
+
+        // 5. Devolver la respuesta JWT
+        return ResponseEntity.ok().body(respuesta);
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<Object> refresh(@RequestBody RefreshRequest refreshRequest) {
+        // 1. Verificar el refresh token (firma, expiración, tipo y familia)
+        JwtPrincipal refresh = aesUtil.verifyToken(refreshRequest.getRefreshToken())
+                .filter(JwtPrincipal::isRefresh)
+                .filter(principal -> principal.refreshFamily() != null && principal.refreshGeneration() != null)
+                .orElse(null);
+        if (refresh == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Refresh token inválido o expirado.");
+        }
+
+        // 2. Rotación: cada generación de la familia se usa una sola vez. Reutilizar una ya rotada
+        // (robo del token o dos renovaciones simultáneas) revoca la familia entera.
+        if (tokenRevocationList.isRevoked(refresh.refreshFamily())) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Refresh token revocado.");
+        }
+        long expiracion = expiracionRefresh();
+        int generacion = refreshTokenFamilies.rotar(refresh.refreshFamily(), refresh.refreshGeneration(), expiracion);
+        if (generacion == RefreshTokenFamilies.REVOCADA) {
+            tokenRevocationList.revocar(refresh.refreshFamily(), expiracion); // Que sobreviva a un reinicio
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Refresh token revocado.");
+        }
 
-            // Si la autenticación fue exitosa, establecerla en el contexto de seguridad
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        // 3. Recargar el usuario (sale de la caché) para emitir el token con los roles actuales
+        try {
+            UsuarioPrincipal principal = userDetailsService.loadUserByUsername(refresh.username());
+            return ResponseEntity.ok().body(emitirTokens(principal, refresh.refreshFamily(), generacion));
+        } catch (UsernameNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("El usuario ya no existe.");
+        }
+    }
 
-            // 2. Obtener los detalles del usuario autenticado
-            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader,
+                                       @RequestBody(required = false) RefreshRequest refreshRequest) {
+        // Revoca el access token del encabezado y, si se envía, también el refresh token
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            revocarToken(authHeader.substring(7));
+        }
+        if (refreshRequest != null && refreshRequest.getRefreshToken() != null) {
+            revocarToken(refreshRequest.getRefreshToken());
+        }
+        return ResponseEntity.noContent().build();
+    }
 
-            // 3. Generar el token JWT
-            String jwt = aesUtil.generateToken(userDetails.getUsername());
+    // Un refresh token cierra su familia entera; un access token se revoca por su jti
+    private void revocarToken(String token) {
+        aesUtil.verifyToken(token).ifPresent(principal -> {
+            if (principal.isRefresh() && principal.refreshFamily() != null) {
+                long expiracion = expiracionRefresh();
+                refreshTokenFamilies.revocar(principal.refreshFamily(), expiracion);
+                tokenRevocationList.revocar(principal.refreshFamily(), expiracion);
+            } else {
+                tokenRevocationList.revocar(principal.tokenId(), principal.expirationMillis());
+            }
+        });
+    }
 
-            // 4. Obtener el Usuario de tu base de datos para los detalles extra (id, roles)
-            Usuario usuario = usuarioRepository.findByEmail(userDetails.getUsername())
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado en la DB después de autenticación exitosa."));
+    // Hasta cuándo puede seguir viva una familia: la expiración del refresh token que se emite ahora
+    private long expiracionRefresh() {
+        return System.currentTimeMillis() + aesUtil.getRefreshExpirationMillis();
+    }
 
-            List<String> roles = userDetails.getAuthorities().stream()
-                    .map(item -> item.getAuthority())
-                    .collect(Collectors.toList());
+    private JwtResponse emitirTokens(UsuarioPrincipal principal, String familia, int generacion) {
+        List<String> roles = principal.getRoles();
+        // El access token lleva id, roles y versión del usuario para el modo sin estado
+        String accessToken = aesUtil.generateToken(principal.getUsername(), principal.getIdUsuario(), roles,
+                principal.getVersion());
+        String refreshToken = aesUtil.generateRefreshToken(principal.getUsername(), principal.getIdUsuario(), familia, generacion);
+        return new JwtResponse(accessToken, refreshToken, aesUtil.getAccessExpirationMillis() / 1000,
+                principal.getIdUsuario(), principal.getUsername(), roles.toArray(new String[0]));
+    }
 
-            // 5. Devolver la respuesta JWT
-            return ResponseEntity.ok(new JwtResponse(jwt, usuario.getIdUsuario(), userDetails.getUsername(), roles.toArray(new String[0])));
+    private ResponseEntity<Object> handleLoginError(Throwable error) {
+        Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (causa instanceof TimeoutException) {
+            return serviceUnavailable();
+        }
+        // Solo las credenciales rechazadas cuentan como login fallido; InternalAuthenticationServiceException
+        // es un fallo al cargar el usuario (p. ej. base de datos caída), no un intento con datos incorrectos
+        if (causa instanceof AuthenticationException && !(causa instanceof InternalAuthenticationServiceException)) {
+            eventosSeguridad.registrar(TipoEventoSeguridad.LOGIN_FALLIDO, causa.getClass().getSimpleName());
+            return ResponseEntity.badRequest().body("Error de autenticación: " + causa.getMessage());
+        }
+        if (esFalloDeDatos(causa)) {
+            log.warn("Login no disponible por un fallo de acceso a datos: {}", causa.getMessage());
+            return serviceUnavailable();
+        }
+        log.error("Error inesperado durante el login", causa);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error interno al iniciar sesión.");
+    }
 
-        } catch (Exception e) {
-            // Manejar errores de autenticación (ej. credenciales inválidas)
-            return ResponseEntity.badRequest().body("Error de autenticación: " + e.getMessage());
+    private static boolean esFalloDeDatos(Throwable error) {
+        for (Throwable actual = error; actual != null; actual = actual.getCause()) {
+            if (actual instanceof DataAccessException || actual instanceof TransactionException) {
+                return true;
+            }
         }
+        return false;
     }
 
-    
-}
\ No newline at end of file
+    private ResponseEntity<Object> serviceUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body("Servicio de login saturado, intente nuevamente en unos segundos.");
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.EdutechAPI.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Eventos de seguridad (tokens inválidos, logins fallidos...) sin E/S en el hilo de la solicitud:
+// 1. registrar() solo incrementa un contador (LongAdder) y, para una muestra, encola el evento
+//    en una cola sin bloqueos y acotada (si está llena, el evento se descarta y se cuenta).
+// 2. drenar() corre en segundo plano, agrupa los eventos idénticos y escribe como mucho
+//    `max-lineas-por-tipo` líneas por tipo y por intervalo.
+// Los contadores completos se exponen como métricas "seguridad.eventos{tipo=...}".
+@Component
+public class EventosSeguridad {
+
+    private static final Logger log = LoggerFactory.getLogger(EventosSeguridad.class);
+
+    private static final int LARGO_MAXIMO_DETALLE = 120;
+
+    private record Evento(TipoEventoSeguridad tipo, String detalle) {
+    }
+
+    private final TipoEventoSeguridad[] tipos = TipoEventoSeguridad.values();
+    private final LongAdder[] contadores = new LongAdder[tipos.length];
+    private final LongAdder descartados = new LongAdder();
+    private final ConcurrentLinkedQueue<Evento> cola = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger tamanoCola = new AtomicInteger();
+
+    private long descartadosInformados; // Solo lo usa drenar(), que nunca corre en paralelo consigo mismo
+
+    private final int capacidadCola;
+    private final int muestreo;
+    private final int maxLineasPorTipo;
+
+    public EventosSeguridad(@Value("${seguridad.eventos.cola-max:10000}") int capacidadCola,
+                            @Value("${seguridad.eventos.muestreo:10}") int muestreo,
+                            @Value("${seguridad.eventos.max-lineas-por-tipo:5}") int maxLineasPorTipo,
+                            MeterRegistry meterRegistry) {
+        this.capacidadCola = capacidadCola;
+        this.muestreo = Math.max(1, muestreo);
+        this.maxLineasPorTipo = maxLineasPorTipo;
+        for (TipoEventoSeguridad tipo : tipos) {
+            LongAdder contador = new LongAdder();
+            contadores[tipo.ordinal()] = contador;
+            FunctionCounter.builder("seguridad.eventos", contador, LongAdder::sum)
+                    .description("Eventos de seguridad por tipo")
+                    .tag("tipo", tipo.name())
+                    .register(meterRegistry);
+        }
+        FunctionCounter.builder("seguridad.eventos.descartados", descartados, LongAdder::sum)
+                .description("Eventos no escritos en el log por tener la cola llena")
+                .register(meterRegistry);
+        Gauge.builder("seguridad.eventos.cola", tamanoCola, AtomicInteger::get)
+                .description("Eventos pendientes de escribir en el log")
+                .register(meterRegistry);
+    }
+
+    public void registrar(TipoEventoSeguridad tipo, String detalle) {
+        contadores[tipo.ordinal()].increment();
+
+        // Muestreo: solo 1 de cada `muestreo` eventos llega a la cola
+        if (muestreo > 1 && ThreadLocalRandom.current().nextInt(muestreo) != 0) {
+            return;
+        }
+        if (tamanoCola.incrementAndGet() > capacidadCola) {
+            tamanoCola.decrementAndGet();
+            descartados.increment();
+            return;
+        }
+        cola.offer(new Evento(tipo, recortar(detalle)));
+    }
+
+    public long contador(TipoEventoSeguridad tipo) {
+        return contadores[tipo.ordinal()].sum();
+    }
+
+    @Scheduled(fixedDelayString = "${seguridad.eventos.intervalo-ms:5000}")
+    public void drenar() {
+        // 1. Agrupar los eventos idénticos (mismo tipo y detalle) de este intervalo
+        Map<Evento, Integer> agrupados = new LinkedHashMap<>();
+        Evento evento;
+        while ((evento = cola.poll()) != null) {
+            tamanoCola.decrementAndGet();
+            agrupados.merge(evento, 1, Integer::sum);
+        }
+
+        // 2. Escribir con límite de líneas por tipo; el resto se resume en una sola línea
+        int[] lineas = new int[tipos.length];
+        int[] omitidos = new int[tipos.length];
+        agrupados.forEach((e, cantidad) -> {
+            int indice = e.tipo().ordinal();
+            if (lineas[indice]++ < maxLineasPorTipo) {
+                log.warn("Evento de seguridad {} x{} (muestreo 1/{}): {}", e.tipo(), cantidad, muestreo, e.detalle());
+            } else {
+                omitidos[indice] += cantidad;
+            }
+        });
+        for (TipoEventoSeguridad tipo : tipos) {
+            if (omitidos[tipo.ordinal()] > 0) {
+                log.warn("Evento de seguridad {}: {} muestras más omitidas en este intervalo (total acumulado {})",
+                        tipo, omitidos[tipo.ordinal()], contador(tipo));
+            }
+        }
+
+        long perdidos = descartados.sum();
+        if (perdidos > descartadosInformados) {
+            log.warn("Cola de eventos de seguridad llena: {} eventos descartados en este intervalo",
+                    perdidos - descartadosInformados);
+            descartadosInformados = perdidos;
+        }
+    }
+
+    private static String recortar(String detalle) {
+        if (detalle == null || detalle.length() <= LARGO_MAXIMO_DETALLE) {
+            return detalle;
+        }
+        return detalle.substring(0, LARGO_MAXIMO_DETALLE) + "...";
+    }
+}
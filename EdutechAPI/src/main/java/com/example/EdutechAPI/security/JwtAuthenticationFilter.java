@@ -5,24 +5,40 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final AESUtil aesUtil;
     private final UserDetailsServiceImpl userDetailsService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final TokenRevocationList tokenRevocationList;
+    private final PermisosPorRol permisosPorRol;
+    private final EventosSeguridad eventosSeguridad;
+    private final boolean statelessEnabled; // Si es true, el principal se construye desde los claims del token
 
-    public JwtAuthenticationFilter(AESUtil aesUtil, UserDetailsServiceImpl userDetailsService) {
+    public JwtAuthenticationFilter(AESUtil aesUtil, UserDetailsServiceImpl userDetailsService,
+                                   TokenVersionRegistry tokenVersionRegistry, TokenRevocationList tokenRevocationList,
+                                   PermisosPorRol permisosPorRol, EventosSeguridad eventosSeguridad,
+                                   @Value("${jwt.stateless.enabled:false}") boolean statelessEnabled) {
         this.aesUtil = aesUtil;
         this.userDetailsService = userDetailsService;
+        this.tokenVersionRegistry = tokenVersionRegistry;
+        this.tokenRevocationList = tokenRevocationList;
+        this.permisosPorRol = permisosPorRol;
+        this.eventosSeguridad = eventosSeguridad;
+        this.statelessEnabled = statelessEnabled;
     }
 
     @Override
@@ -43,14 +59,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         jwt = authHeader.substring(7); // Extraemos el token (después de "Bearer ")
 
-        // 2. Extraer el email del token
-        userEmail = aesUtil.extractUsername(jwt);
+        // 2. Validar el token una sola vez (firma + expiración); los tokens repetidos salen de la caché
+        Optional<JwtPrincipal> principal = aesUtil.verifyToken(jwt);
 
-        // 3. Validar el token y autenticar al usuario
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        // 3. Autenticar al usuario (los refresh tokens y los tokens revocados no autentican;
+        // la revocación se comprueba siempre, también cuando el token sale de la caché)
+        if (principal.isPresent() && isUsable(principal.get()) && SecurityContextHolder.getContext().getAuthentication() == null) {
+            userEmail = principal.get().username();
+            try {
+                UserDetails userDetails = resolveUserDetails(principal.get());
 
-            if (aesUtil.validateToken(jwt, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                     userDetails,
                     null, // Contraseña es null porque ya estamos autenticados por el token
@@ -60,9 +78,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
                 // Establecemos el usuario en el contexto de seguridad de Spring
                 SecurityContextHolder.getContext().setAuthentication(authToken);
+            } catch (UsernameNotFoundException e) {
+                // El usuario del token ya no existe: la solicitud sigue sin autenticar
             }
         }
         // Pasamos la solicitud al siguiente filtro en la cadena
         filterChain.doFilter(request, response);
     }
+
+    private boolean isUsable(JwtPrincipal principal) {
+        if (principal.isRefresh()) {
+            return false;
+        }
+        if (tokenRevocationList.isRevoked(principal.tokenId())) {
+            eventosSeguridad.registrar(TipoEventoSeguridad.TOKEN_REVOCADO, null);
+            return false;
+        }
+        return true;
+    }
+
+    // En modo sin estado, si la versión del token sigue vigente, no hace falta ir a la base de datos.
+    // Si el usuario cambió (roles, eliminación) o esta instancia no lo tiene en caché, se carga desde la DB.
+    private UserDetails resolveUserDetails(JwtPrincipal principal) {
+        if (statelessEnabled && principal.hasIdentityClaims()
+                && tokenVersionRegistry.isCurrent(principal.userId(), principal.tokenVersion())) {
+            return new UsuarioPrincipal(principal.userId(), principal.username(), null, "", principal.authorities(),
+                    permisosPorRol.permisosDeAutoridades(principal.authorities()));
+        }
+        return this.userDetailsService.loadUserByUsername(principal.username());
+    }
 }
\ No newline at end of file
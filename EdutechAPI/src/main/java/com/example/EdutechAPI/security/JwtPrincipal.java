@@ -0,0 +1,46 @@
+package com.example.EdutechAPI.security;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import com.example.EdutechAPI.config.AESUtil;
+
+// Resultado inmutable de un token JWT ya verificado (firma y expiración).
+// Se guarda en VerifiedTokenCache, por eso no debe contener estado mutable.
+// userId, authorities, tokenVersion, tokenId y la familia/generación del refresh token vienen de los claims
+// y pueden ser null en tokens antiguos.
+public record JwtPrincipal(String username,
+                           long issuedAtMillis,
+                           long expirationMillis,
+                           Long userId,
+                           List<GrantedAuthority> authorities,
+                           Long tokenVersion,
+                           String tokenId,
+                           String tokenType,
+                           String refreshFamily,
+                           Integer refreshGeneration) {
+
+    public JwtPrincipal {
+        authorities = authorities != null ? List.copyOf(authorities) : null;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return expirationMillis <= nowMillis;
+    }
+
+    // Indica si el token trae todo lo necesario para autenticar sin consultar la base de datos
+    public boolean hasIdentityClaims() {
+        return userId != null && authorities != null && tokenVersion != null;
+    }
+
+    // Los refresh tokens solo sirven en /auth/refresh, nunca para autenticar una solicitud
+    public boolean isRefresh() {
+        return AESUtil.TIPO_REFRESH.equals(tokenType);
+    }
+
+    public Date getExpiration() {
+        return new Date(expirationMillis);
+    }
+}
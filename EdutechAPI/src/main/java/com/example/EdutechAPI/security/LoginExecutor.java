@@ -0,0 +1,102 @@
+package com.example.EdutechAPI.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+// Pool acotado y exclusivo para la verificación de contraseñas (BCrypt) de /auth/login.
+// Así una avalancha de logins no ocupa los hilos de Tomcat que atienden cursos e inscripciones:
+// si la cola de admisión está llena, submit lanza RejectedExecutionException y el login falla rápido.
+// Un login que sigue en cola cuando vence su plazo se descarta sin verificar: su cliente ya recibió el 503.
+@Component
+public class LoginExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Timer latenciaVerificacion;
+    private final Timer esperaEnCola;
+    private final Counter rechazados;
+    private final Counter caducados;
+
+    public LoginExecutor(@Value("${auth.login.pool.size:4}") int poolSize,
+                         @Value("${auth.login.pool.queue-capacity:100}") int queueCapacity,
+                         MeterRegistry meterRegistry) {
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "login-bcrypt-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.login.cola", executor, pool -> pool.getQueue().size())
+                .description("Logins esperando en la cola de admisión")
+                .register(meterRegistry);
+        Gauge.builder("auth.login.activos", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Verificaciones de contraseña en curso")
+                .register(meterRegistry);
+        this.latenciaVerificacion = Timer.builder("auth.login.verificacion")
+                .description("Tiempo de verificación de credenciales (BCrypt incluido)")
+                .register(meterRegistry);
+        this.esperaEnCola = Timer.builder("auth.login.espera")
+                .description("Tiempo que un login espera en la cola antes de verificarse")
+                .register(meterRegistry);
+        this.rechazados = Counter.builder("auth.login.rechazados")
+                .description("Logins rechazados por cola llena")
+                .register(meterRegistry);
+        this.caducados = Counter.builder("auth.login.caducados")
+                .description("Logins descartados sin verificar porque vencieron esperando en la cola")
+                .register(meterRegistry);
+    }
+
+    // El futuro termina con TimeoutException pasado el plazo; la tarea solo corre si llega al hilo antes
+    public <T> CompletableFuture<T> submit(Supplier<T> tarea, long timeoutMillis) {
+        long encolado = System.nanoTime();
+        long limite = encolado + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                long inicio = System.nanoTime();
+                esperaEnCola.record(inicio - encolado, TimeUnit.NANOSECONDS);
+                if (resultado.isDone() || inicio - limite >= 0) {
+                    caducados.increment();
+                    resultado.completeExceptionally(new TimeoutException("El login venció esperando en la cola"));
+                    return;
+                }
+                try {
+                    resultado.complete(latenciaVerificacion.record(tarea));
+                } catch (RuntimeException e) {
+                    resultado.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rechazados.increment();
+            throw e;
+        }
+        return resultado.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public int queueSize() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
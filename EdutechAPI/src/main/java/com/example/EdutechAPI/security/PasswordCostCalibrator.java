@@ -0,0 +1,39 @@
+package com.example.EdutechAPI.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+// Mide cuánto tarda BCrypt en este host y elige el mayor costo (work factor)
+// cuyo hash no supere la latencia objetivo. Cada +1 de costo duplica el tiempo.
+public final class PasswordCostCalibrator {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordCostCalibrator.class);
+
+    private static final String MUESTRA = "calibracion-Password123";
+
+    private PasswordCostCalibrator() {
+    }
+
+    public static int calibrarBcrypt(int costoMinimo, int costoMaximo, long objetivoMillis) {
+        // Calentamiento para que el JIT no infle la primera medición
+        new BCryptPasswordEncoder(4).encode(MUESTRA);
+
+        int costo = costoMinimo;
+        long millis = medir(costo);
+        // Solo subimos si la estimación para el siguiente costo (el doble) sigue dentro del objetivo
+        while (costo < costoMaximo && millis * 2 <= objetivoMillis) {
+            costo++;
+            millis = medir(costo);
+        }
+        log.info("Costo BCrypt calibrado: {} (~{} ms por hash, objetivo {} ms)", costo, millis, objetivoMillis);
+        return costo;
+    }
+
+    private static long medir(int costo) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(costo);
+        long inicio = System.nanoTime();
+        encoder.encode(MUESTRA);
+        return (System.nanoTime() - inicio) / 1_000_000;
+    }
+}
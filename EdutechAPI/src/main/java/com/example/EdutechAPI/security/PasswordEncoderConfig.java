@@ -0,0 +1,38 @@
+package com.example.EdutechAPI.security;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+@Configuration
+public class PasswordEncoderConfig {
+
+    // Encoder delegante: los hashes nuevos se guardan como "{bcrypt}..." con el costo calibrado,
+    // pero se siguen aceptando los hashes antiguos sin prefijo ($2a$10$...) y otros algoritmos.
+    // upgradeEncoding() devuelve true para todo hash que no use el algoritmo y costo actuales.
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${seguridad.password.bcrypt-cost:0}") int costoFijo,
+                                           @Value("${seguridad.password.bcrypt-cost-min:10}") int costoMinimo,
+                                           @Value("${seguridad.password.bcrypt-cost-max:16}") int costoMaximo,
+                                           @Value("${seguridad.password.objetivo-ms:250}") long objetivoMillis) {
+        int costo = costoFijo > 0
+                ? costoFijo
+                : PasswordCostCalibrator.calibrarBcrypt(costoMinimo, costoMaximo, objetivoMillis);
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(costo);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("pbkdf2@SpringSecurity_v5_8", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt); // Hashes guardados sin prefijo
+        return delegating;
+    }
+}
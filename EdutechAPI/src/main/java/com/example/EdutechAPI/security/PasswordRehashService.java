@@ -0,0 +1,70 @@
+package com.example.EdutechAPI.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.example.EdutechAPI.api.usuarios.repository.UsuarioRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Rehash en segundo plano de las contraseñas guardadas con un algoritmo o costo desactualizado.
+// Se programa después de un login exitoso (es el único momento en que tenemos la contraseña en claro)
+// y nunca bloquea la respuesta del login. Si la cola está llena se descarta: se reintentará en el próximo login.
+@Service
+public class PasswordRehashService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordRehashService.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final UsuarioRepository usuarioRepository;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final UserDetailsCache userDetailsCache;
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1000), runnable -> {
+                Thread thread = new Thread(runnable, "password-rehash");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+    public PasswordRehashService(PasswordEncoder passwordEncoder, UsuarioRepository usuarioRepository,
+                                 UserDetailsServiceImpl userDetailsService, UserDetailsCache userDetailsCache) {
+        this.passwordEncoder = passwordEncoder;
+        this.usuarioRepository = usuarioRepository;
+        this.userDetailsService = userDetailsService;
+        this.userDetailsCache = userDetailsCache;
+    }
+
+    public void programarSiNecesario(String email, String passwordPlano) {
+        // El principal sale de la caché de UserDetails, así que esta comprobación no toca la base de datos
+        UsuarioPrincipal actual = userDetailsService.loadUserByUsername(email);
+        String hashActual = actual.getPassword();
+        if (hashActual == null || !passwordEncoder.upgradeEncoding(hashActual)) {
+            return;
+        }
+        executor.execute(() -> rehash(actual.getIdUsuario(), hashActual, passwordPlano));
+    }
+
+    private void rehash(Long idUsuario, String hashAnterior, String passwordPlano) {
+        try {
+            String hashNuevo = passwordEncoder.encode(passwordPlano);
+            // Solo reemplaza si nadie cambió la contraseña mientras tanto
+            if (usuarioRepository.actualizarContrasena(idUsuario, hashAnterior, hashNuevo) > 0) {
+                userDetailsCache.invalidate(idUsuario);
+            }
+        } catch (RuntimeException e) {
+            log.warn("No se pudo actualizar el hash de la contraseña del usuario {}: {}", idUsuario, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
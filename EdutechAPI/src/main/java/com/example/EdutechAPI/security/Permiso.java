@@ -0,0 +1,39 @@
+package com.example.EdutechAPI.security;
+
+import java.util.Collection;
+
+// Permisos de la API. Cada uno ocupa un bit de un long (máximo 64 permisos),
+// así que comprobar un permiso es una sola operación AND.
+public enum Permiso {
+    CURSOS_LEER,
+    CURSOS_ESCRIBIR,
+    CURSOS_ELIMINAR,
+    USUARIOS_LEER,
+    USUARIOS_ESCRIBIR,
+    USUARIOS_ELIMINAR,
+    ROLES_ASIGNAR,
+    INSCRIPCIONES_LEER,
+    INSCRIPCIONES_ESCRIBIR,
+    INSCRIPCIONES_ELIMINAR,
+    METRICAS_LEER,
+    ANALITICA_LEER,
+    INSCRIPCIONES_EXPORTAR;
+
+    private final long bit = 1L << ordinal();
+
+    public long bit() {
+        return bit;
+    }
+
+    public boolean en(long permisos) {
+        return (permisos & bit) != 0;
+    }
+
+    public static long mascara(Collection<Permiso> permisos) {
+        long mascara = 0;
+        for (Permiso permiso : permisos) {
+            mascara |= permiso.bit;
+        }
+        return mascara;
+    }
+}
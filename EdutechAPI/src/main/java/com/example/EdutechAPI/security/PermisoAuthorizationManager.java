@@ -0,0 +1,47 @@
+package com.example.EdutechAPI.security;
+
+import java.util.function.Supplier;
+
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+// Regla de ruta: concede el acceso si el principal tiene el permiso (un solo test de bit)
+public final class PermisoAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private final Permiso permiso;
+    private final AuthorizationDecision concedido = new AuthorizationDecision(true);
+    private final AuthorizationDecision denegado = new AuthorizationDecision(false);
+
+    private PermisoAuthorizationManager(Permiso permiso) {
+        this.permiso = permiso;
+    }
+
+    public static PermisoAuthorizationManager requiere(Permiso permiso) {
+        return new PermisoAuthorizationManager(permiso);
+    }
+
+    public static boolean tiene(Authentication authentication, Permiso permiso) {
+        return authentication != null
+                && authentication.getPrincipal() instanceof UsuarioPrincipal principal
+                && principal.tienePermiso(permiso);
+    }
+
+    @Override
+    public AuthorizationResult authorize(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        return decidir(authentication);
+    }
+
+    // En Spring Security 6.4 check sigue siendo abstracto aunque está obsoleto; el filtro llama a authorize
+    @Override
+    @Deprecated
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        return decidir(authentication);
+    }
+
+    private AuthorizationDecision decidir(Supplier<Authentication> authentication) {
+        return tiene(authentication.get(), permiso) ? concedido : denegado;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.EdutechAPI.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+// Para @PreAuthorize: @PreAuthorize("@permisos.tiene(authentication, 'ROLES_ASIGNAR')")
+@Component("permisos")
+public class PermisoEvaluator {
+
+    public boolean tiene(Authentication authentication, String permiso) {
+        return PermisoAuthorizationManager.tiene(authentication, Permiso.valueOf(permiso));
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.EdutechAPI.security;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+// Permisos de cada rol de la tabla ROLES, por nombre de rol (sin distinguir mayúsculas)
+@Data
+@Component
+@ConfigurationProperties(prefix = "seguridad.permisos")
+public class PermisoProperties {
+
+    private Map<String, List<Permiso>> roles = new HashMap<>();
+}
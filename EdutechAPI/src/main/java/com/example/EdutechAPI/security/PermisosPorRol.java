@@ -0,0 +1,55 @@
+package com.example.EdutechAPI.security;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+// Compila al arrancar el bitset de permisos de cada rol configurado en seguridad.permisos.roles.
+// Los permisos efectivos de un usuario (OR de sus roles) se calculan al cargarlo
+// y quedan guardados en su UsuarioPrincipal. Un rol sin entrada no tiene permisos.
+@Component
+public class PermisosPorRol {
+
+    private static final String PREFIJO_ROL = "ROLE_";
+
+    private final Map<String, Long> bitsetPorRol;
+
+    public PermisosPorRol(PermisoProperties properties) {
+        Map<String, Long> compilados = new HashMap<>();
+        properties.getRoles().forEach((rol, permisos) -> compilados.put(normalizar(rol), Permiso.mascara(permisos)));
+        this.bitsetPorRol = Map.copyOf(compilados);
+    }
+
+    public long permisosDeRoles(Collection<String> nombresRol) {
+        long permisos = 0;
+        for (String nombreRol : nombresRol) {
+            permisos |= bitsetDe(normalizar(nombreRol));
+        }
+        return permisos;
+    }
+
+    // Para principals construidos desde los claims del token (autoridades "ROLE_X")
+    public long permisosDeAutoridades(List<GrantedAuthority> autoridades) {
+        long permisos = 0;
+        for (GrantedAuthority autoridad : autoridades) {
+            String nombre = autoridad.getAuthority();
+            if (nombre.startsWith(PREFIJO_ROL)) {
+                permisos |= bitsetDe(normalizar(nombre.substring(PREFIJO_ROL.length())));
+            }
+        }
+        return permisos;
+    }
+
+    private long bitsetDe(String nombreNormalizado) {
+        return bitsetPorRol.getOrDefault(nombreNormalizado, 0L);
+    }
+
+    private static String normalizar(String nombreRol) {
+        return nombreRol.toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.EdutechAPI.security;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Limita las solicitudes por usuario autenticado (subject del JWT) y por IP de origen.
+// Va después de JwtAuthenticationFilter para conocer al usuario. Los buckets viven en una caché
+// Caffeine (concurrente y acotada) que descarta los que llevan tiempo sin usarse.
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties properties;
+    private final List<GrupoCompilado> grupos;
+    private final Cache<String, TokenBucket> buckets;
+    private final Counter rechazados;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.grupos = properties.getGrupos().stream().map(GrupoCompilado::new).toList();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(properties.getIdleSeconds(), TimeUnit.SECONDS)
+                .build();
+        this.rechazados = Counter.builder("ratelimit.rechazados")
+                .description("Solicitudes rechazadas con 429")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        GrupoCompilado grupo = properties.isEnabled() ? resolverGrupo(request) : null;
+        if (grupo == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long ahora = System.nanoTime();
+
+        // Límite por usuario autenticado y por IP (también para las solicitudes anónimas, p. ej. /auth/login)
+        String usuario = usuarioActual();
+        TokenBucket deUsuario = usuario != null && grupo.limitaUsuario()
+                ? bucket("u:" + grupo.nombre + ":" + usuario, grupo.capacidadUsuario, grupo.porSegundoUsuario)
+                : null;
+        TokenBucket deIp = grupo.limitaIp()
+                ? bucket("ip:" + grupo.nombre + ":" + request.getRemoteAddr(), grupo.capacidadIp, grupo.porSegundoIp)
+                : null;
+
+        // Se comprueban los dos antes de consumir: una solicitud que rechaza la IP no gasta el cupo del usuario
+        long espera = Math.max(deUsuario == null ? 0 : deUsuario.espera(ahora), deIp == null ? 0 : deIp.espera(ahora));
+        if (espera == 0 && deUsuario != null) {
+            espera = deUsuario.intentarConsumir(ahora);
+        }
+        if (espera == 0 && deIp != null) {
+            espera = deIp.intentarConsumir(ahora);
+            if (espera > 0 && deUsuario != null) {
+                // Otra solicitud se llevó el último token de la IP entre la comprobación y el consumo
+                deUsuario.devolver();
+            }
+        }
+
+        if (espera > 0) {
+            rechazados.increment();
+            long segundos = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(espera + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("Demasiadas solicitudes, intente nuevamente en " + segundos + " segundos.");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private TokenBucket bucket(String clave, long capacidad, double porSegundo) {
+        return buckets.get(clave, k -> new TokenBucket(capacidad, porSegundo));
+    }
+
+    private GrupoCompilado resolverGrupo(HttpServletRequest request) {
+        PathContainer ruta = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (GrupoCompilado grupo : grupos) {
+            if (grupo.coincide(request.getMethod(), ruta)) {
+                return grupo;
+            }
+        }
+        return null;
+    }
+
+    private String usuarioActual() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetails userDetails) {
+            return userDetails.getUsername();
+        }
+        return null;
+    }
+
+    // Grupo con los patrones ya parseados para no hacerlo en cada solicitud
+    private static final class GrupoCompilado {
+        private final String nombre;
+        private final List<PathPattern> patrones;
+        private final List<String> metodos;
+        private final long capacidadUsuario;
+        private final double porSegundoUsuario;
+        private final long capacidadIp;
+        private final double porSegundoIp;
+
+        GrupoCompilado(RateLimitProperties.Grupo grupo) {
+            this.nombre = grupo.getNombre();
+            this.patrones = grupo.getPatrones().stream().map(PathPatternParser.defaultInstance::parse).toList();
+            this.metodos = grupo.getMetodos().stream().map(String::toUpperCase).toList();
+            this.capacidadUsuario = grupo.getCapacidadUsuario();
+            this.porSegundoUsuario = grupo.getPorSegundoUsuario();
+            this.capacidadIp = grupo.getCapacidadIp();
+            this.porSegundoIp = grupo.getPorSegundoIp();
+        }
+
+        boolean coincide(String metodo, PathContainer ruta) {
+            if (!metodos.isEmpty() && !metodos.contains(metodo)) {
+                return false;
+            }
+            for (PathPattern patron : patrones) {
+                if (patron.matches(ruta)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean limitaUsuario() {
+            return capacidadUsuario > 0 && porSegundoUsuario > 0;
+        }
+
+        boolean limitaIp() {
+            return capacidadIp > 0 && porSegundoIp > 0;
+        }
+    }
+}
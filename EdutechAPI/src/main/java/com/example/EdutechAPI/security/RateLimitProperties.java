@@ -0,0 +1,33 @@
+package com.example.EdutechAPI.security;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+// Límites por grupo de rutas. Se aplica el primer grupo cuyas rutas (y método, si se indica) coincidan.
+// Un límite en 0 desactiva esa dimensión (usuario o IP) para el grupo.
+@Data
+@Component
+@ConfigurationProperties(prefix = "ratelimit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    private long maxBuckets = 100_000;   // Tope de memoria: buckets vivos como máximo
+    private long idleSeconds = 600;      // Un bucket sin uso se descarta pasado este tiempo
+    private List<Grupo> grupos = new ArrayList<>();
+
+    @Data
+    public static class Grupo {
+        private String nombre;
+        private List<String> patrones = new ArrayList<>();
+        private List<String> metodos = new ArrayList<>(); // Vacío = todos los métodos
+        private long capacidadUsuario;
+        private double porSegundoUsuario;
+        private long capacidadIp;
+        private double porSegundoIp;
+    }
+}
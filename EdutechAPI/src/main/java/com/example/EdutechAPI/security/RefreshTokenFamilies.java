@@ -0,0 +1,125 @@
+package com.example.EdutechAPI.security;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Rotación de refresh tokens por familia: cada login abre una familia y cada /auth/refresh avanza su generación.
+// - Solo se guarda la generación vigente de cada familia: una entrada por sesión abierta, no una por renovación.
+// - Presentar una generación que ya se rotó es reutilización: la familia queda revocada (marca REVOCADA hasta que expira).
+// - Persistencia: instantánea periódica "familia;generacion;expiracionMillis" con escritura atómica, recargada al arrancar.
+//   Una familia desconocida (rotada después de la última instantánea, o abierta en otra instancia) se adopta con la
+//   generación presentada; las revocaciones que deben sobrevivir a un reinicio van además a TokenRevocationList.
+@Component
+public class RefreshTokenFamilies {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenFamilies.class);
+
+    public static final int REVOCADA = -1;
+
+    private record Familia(int generacion, long expiracionMillis) {
+    }
+
+    private final Map<String, Familia> familias = new ConcurrentHashMap<>();
+    private final Path archivo;
+
+    public RefreshTokenFamilies(@Value("${jwt.refresh.families-file:data/refresh-families.log}") String archivo) {
+        this.archivo = Paths.get(archivo);
+    }
+
+    @PostConstruct
+    void cargar() {
+        if (!Files.exists(archivo)) {
+            return;
+        }
+        long ahora = System.currentTimeMillis();
+        try {
+            for (String linea : Files.readAllLines(archivo, StandardCharsets.UTF_8)) {
+                String[] partes = linea.split(";");
+                if (partes.length != 3) {
+                    continue; // Línea incompleta o corrupta
+                }
+                try {
+                    long expiracion = Long.parseLong(partes[2].trim());
+                    if (expiracion > ahora) {
+                        familias.put(partes[0], new Familia(Integer.parseInt(partes[1].trim()), expiracion));
+                    }
+                } catch (NumberFormatException e) {
+                    // Se ignora la línea corrupta
+                }
+            }
+        } catch (IOException e) {
+            log.warn("No se pudieron leer las familias de refresh tokens {}: {}", archivo, e.getMessage());
+        }
+    }
+
+    // Nueva familia en la generación 0
+    public String abrir(long expiracionMillis) {
+        String familia = UUID.randomUUID().toString();
+        familias.put(familia, new Familia(0, expiracionMillis));
+        return familia;
+    }
+
+    // Devuelve la generación siguiente, o REVOCADA si la familia está revocada o la generación ya se había rotado.
+    // compute() serializa las renovaciones de una misma familia: de dos peticiones con el mismo token solo gana una.
+    public int rotar(String familia, int generacion, long nuevaExpiracionMillis) {
+        Familia rotada = familias.compute(familia, (id, actual) -> {
+            if (actual != null && actual.generacion() != generacion) {
+                // Reutilización de un token rotado (o familia ya revocada): se revoca la familia entera
+                return new Familia(REVOCADA, Math.max(nuevaExpiracionMillis, actual.expiracionMillis()));
+            }
+            return new Familia(generacion + 1, nuevaExpiracionMillis);
+        });
+        return rotada.generacion();
+    }
+
+    public void revocar(String familia, long expiracionMillis) {
+        familias.put(familia, new Familia(REVOCADA, expiracionMillis));
+    }
+
+    public int size() {
+        return familias.size();
+    }
+
+    // Descarta las familias expiradas y reescribe la instantánea
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${jwt.refresh.families-snapshot-ms:60000}")
+    public synchronized void guardar() {
+        long ahora = System.currentTimeMillis();
+        familias.values().removeIf(familia -> familia.expiracionMillis() <= ahora);
+        if (familias.isEmpty() && !Files.exists(archivo)) {
+            return;
+        }
+        try {
+            if (archivo.getParent() != null) {
+                Files.createDirectories(archivo.getParent());
+            }
+            Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temporal, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Familia> entrada : familias.entrySet()) {
+                    writer.write(entrada.getKey() + ";" + entrada.getValue().generacion() + ";" + entrada.getValue().expiracionMillis());
+                    writer.newLine();
+                }
+            }
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("No se pudieron guardar las familias de refresh tokens {}: {}", archivo, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.EdutechAPI.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Filtro de Bloom sobre los jti revocados. Un "no" es definitivo; un "quizás" se confirma
+// contra el conjunto exacto de TokenRevocationList. La consulta no reserva memoria:
+// el hash se calcula recorriendo los caracteres del jti (FNV-1a de 64 bits + doble hashing).
+final class RevocationBloomFilter {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray bits;
+    private final long numBits;
+    private final int numHashes;
+
+    // Dimensiona el filtro para la capacidad y tasa de falsos positivos indicadas
+    RevocationBloomFilter(long capacidad, double falsosPositivos) {
+        long n = Math.max(capacidad, 1);
+        long m = (long) Math.ceil(-n * Math.log(falsosPositivos) / (Math.log(2) * Math.log(2)));
+        int palabras = (int) Math.max(1, (m + 63) / 64);
+        this.bits = new AtomicLongArray(palabras);
+        this.numBits = (long) palabras * 64;
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / n * Math.log(2)));
+    }
+
+    void agregar(String jti) {
+        long hash = fnv1a(jti);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numHashes; i++) {
+            long bit = indice(h1 + i * h2);
+            int palabra = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long actual;
+            do {
+                actual = bits.get(palabra);
+            } while ((actual & mascara) == 0 && !bits.compareAndSet(palabra, actual, actual | mascara));
+        }
+    }
+
+    boolean quizasContiene(String jti) {
+        long hash = fnv1a(jti);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < numHashes; i++) {
+            long bit = indice(h1 + i * h2);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long indice(int combinado) {
+        return (combinado & 0x7fffffffL) % numBits;
+    }
+
+    private static long fnv1a(String valor) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < valor.length(); i++) {
+            hash ^= valor.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -3,29 +3,30 @@ package com.example.EdutechAPI.security;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
+
+import static com.example.EdutechAPI.security.PermisoAuthorizationManager.requiere;
 
 
 @Configuration
 @EnableWebSecurity
+@EnableMethodSecurity // Habilita @PreAuthorize en los controladores
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter, RateLimitFilter rateLimitFilter) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
-    }
-
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        this.rateLimitFilter = rateLimitFilter;
     }
 
     @Bean
@@ -39,8 +40,12 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable()) // Deshabilita CSRF para APIs REST con JWT
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)) // Configura la política de sesión sin estado
             .authorizeHttpRequests(authorize -> authorize
+                // El despacho ASYNC que cierra una respuesta en streaming (p. ej. /api/inscripciones/export)
+                // pertenece a una solicitud que ya fue autorizada; el filtro JWT no vuelve a ejecutarse en él
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Rutas públicas para autenticación
-                .requestMatchers("/auth/login").permitAll()
+                .requestMatchers("/auth/login", "/auth/refresh", "/auth/logout").permitAll()
         
 
                 // Rutas públicas para Swagger UI y OpenAPI docs
@@ -53,12 +58,34 @@ public class SecurityConfig {
                     "/webjars/**"              // Recursos de WebJars 
                 ).permitAll()
 
+                // Reglas por permiso: cada rol de seguridad.permisos.roles se compila a un bitset (ver PermisosPorRol)
+                .requestMatchers(HttpMethod.GET, "/api/cursos/**").access(requiere(Permiso.CURSOS_LEER))
+                .requestMatchers(HttpMethod.DELETE, "/api/cursos/**").access(requiere(Permiso.CURSOS_ELIMINAR))
+                .requestMatchers("/api/cursos/**").access(requiere(Permiso.CURSOS_ESCRIBIR))
+
+                .requestMatchers(HttpMethod.GET, "/api/usuarios/**").access(requiere(Permiso.USUARIOS_LEER))
+                .requestMatchers("/api/usuarios/*/roles").access(requiere(Permiso.ROLES_ASIGNAR))
+                .requestMatchers(HttpMethod.DELETE, "/api/usuarios/**").access(requiere(Permiso.USUARIOS_ELIMINAR))
+                .requestMatchers("/api/usuarios/**").access(requiere(Permiso.USUARIOS_ESCRIBIR))
+
+                // La exportación vuelca todas las inscripciones: antes que la regla de lectura, que tienen los estudiantes
+                .requestMatchers(HttpMethod.GET, "/api/inscripciones/export").access(requiere(Permiso.INSCRIPCIONES_EXPORTAR))
+                .requestMatchers(HttpMethod.GET, "/api/inscripciones/**").access(requiere(Permiso.INSCRIPCIONES_LEER))
+                .requestMatchers(HttpMethod.DELETE, "/api/inscripciones/**").access(requiere(Permiso.INSCRIPCIONES_ELIMINAR))
+                .requestMatchers("/api/inscripciones/**").access(requiere(Permiso.INSCRIPCIONES_ESCRIBIR))
+
+                .requestMatchers(HttpMethod.GET, "/api/analytics/**").access(requiere(Permiso.ANALITICA_LEER))
+
+                .requestMatchers("/actuator/**").access(requiere(Permiso.METRICAS_LEER))
+
                 // Todas las demás solicitudes requieren autenticación
                 .anyRequest().authenticated()
             );
 
         // Añadimos nuestro filtro JWT antes del filtro de autenticación de nombre de usuario/contraseña
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        // Limitación de tasa justo después, cuando ya se conoce al usuario del token
+        http.addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
         
 
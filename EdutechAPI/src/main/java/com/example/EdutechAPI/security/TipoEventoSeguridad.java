@@ -0,0 +1,11 @@
+package com.example.EdutechAPI.security;
+
+public enum TipoEventoSeguridad {
+    FIRMA_INVALIDA,
+    TOKEN_MALFORMADO,
+    TOKEN_EXPIRADO,
+    TOKEN_NO_SOPORTADO,
+    TOKEN_VACIO,
+    TOKEN_REVOCADO,
+    LOGIN_FALLIDO
+}
@@ -0,0 +1,49 @@
+package com.example.EdutechAPI.security;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token bucket sin bloqueos implementado como GCRA: todo el estado es un único long
+// (el "instante teórico de llegada"), que se actualiza con un CAS. Equivale a un bucket
+// de `capacidad` tokens que se rellena a `porSegundo` tokens por segundo.
+final class TokenBucket {
+
+    private final long intervaloNanos;   // Tiempo que tarda en reponerse un token
+    private final long toleranciaNanos;  // Ráfaga permitida: capacidad * intervalo
+    private final AtomicLong llegadaTeorica = new AtomicLong(Long.MIN_VALUE);
+
+    TokenBucket(long capacidad, double porSegundo) {
+        this.intervaloNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / porSegundo));
+        this.toleranciaNanos = intervaloNanos * capacidad;
+    }
+
+    // Devuelve 0 si se consumió un token, o los nanosegundos que faltan para que haya uno disponible
+    long intentarConsumir(long ahoraNanos) {
+        while (true) {
+            long actual = llegadaTeorica.get();
+            long siguiente = siguiente(actual, ahoraNanos);
+            long espera = siguiente - ahoraNanos - toleranciaNanos;
+            if (espera > 0) {
+                return espera;
+            }
+            if (llegadaTeorica.compareAndSet(actual, siguiente)) {
+                return 0;
+            }
+        }
+    }
+
+    // Como intentarConsumir, pero sin consumir: 0 si ahora hay un token disponible
+    long espera(long ahoraNanos) {
+        return Math.max(0, siguiente(llegadaTeorica.get(), ahoraNanos) - ahoraNanos - toleranciaNanos);
+    }
+
+    // Devuelve un token consumido que al final no se usó
+    void devolver() {
+        llegadaTeorica.addAndGet(-intervaloNanos);
+    }
+
+    private long siguiente(long actual, long ahoraNanos) {
+        long base = actual == Long.MIN_VALUE || actual - ahoraNanos < 0 ? ahoraNanos : actual;
+        return base + intervaloNanos;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.EdutechAPI.security;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+// Lista de tokens revocados hasta su expiración natural: access tokens (por jti) y familias de refresh tokens
+// cerradas en un logout o por reutilización. La rotación normal no pasa por aquí (ver RefreshTokenFamilies).
+// - isRevoked(): ruta caliente del filtro JWT, sin bloqueos ni reservas de memoria.
+// - Persistencia: archivo de solo-anexado "jti;expiracionMillis", que se recarga al arrancar
+//   y se compacta periódicamente descartando las entradas ya expiradas.
+@Component
+public class TokenRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private static final double FALSOS_POSITIVOS = 0.01;
+    private static final long CAPACIDAD_MINIMA = 1024;
+
+    private final Map<String, Long> revocados = new ConcurrentHashMap<>(); // jti -> expiración del token
+    private final Path archivo;
+    private volatile RevocationBloomFilter filtro = new RevocationBloomFilter(CAPACIDAD_MINIMA, FALSOS_POSITIVOS);
+
+    public TokenRevocationList(@Value("${jwt.revocation.file:data/revoked-tokens.log}") String archivo) {
+        this.archivo = Paths.get(archivo);
+    }
+
+    @PostConstruct
+    void cargar() {
+        if (!Files.exists(archivo)) {
+            return;
+        }
+        long ahora = System.currentTimeMillis();
+        try {
+            for (String linea : Files.readAllLines(archivo, StandardCharsets.UTF_8)) {
+                int separador = linea.lastIndexOf(';');
+                if (separador <= 0) {
+                    continue; // Línea incompleta (p. ej. caída a mitad de escritura)
+                }
+                try {
+                    long expiracion = Long.parseLong(linea.substring(separador + 1).trim());
+                    if (expiracion > ahora) {
+                        revocados.put(linea.substring(0, separador), expiracion);
+                    }
+                } catch (NumberFormatException e) {
+                    // Se ignora la línea corrupta
+                }
+            }
+        } catch (IOException e) {
+            log.warn("No se pudo leer la lista de tokens revocados {}: {}", archivo, e.getMessage());
+        }
+        compactar();
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filtro.quizasContiene(jti)) {
+            return false;
+        }
+        return revocados.containsKey(jti);
+    }
+
+    // Devuelve true solo para quien revoca primero
+    public synchronized boolean revocar(String jti, long expiracionMillis) {
+        if (jti == null || expiracionMillis <= System.currentTimeMillis()) {
+            return false;
+        }
+        if (revocados.putIfAbsent(jti, expiracionMillis) != null) {
+            return false;
+        }
+        filtro.agregar(jti);
+        anexar(jti, expiracionMillis);
+        return true;
+    }
+
+    // Quita las entradas expiradas, reconstruye el filtro a la medida actual y reescribe el archivo
+    @Scheduled(fixedDelayString = "${jwt.revocation.compact-interval-ms:600000}")
+    public synchronized void compactar() {
+        long ahora = System.currentTimeMillis();
+        revocados.values().removeIf(expiracion -> expiracion <= ahora);
+
+        RevocationBloomFilter nuevo = new RevocationBloomFilter(
+                Math.max(CAPACIDAD_MINIMA, revocados.size() * 2L), FALSOS_POSITIVOS);
+        revocados.keySet().forEach(nuevo::agregar);
+        this.filtro = nuevo;
+
+        if (!Files.exists(archivo)) {
+            return;
+        }
+        try {
+            Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temporal, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Long> entrada : revocados.entrySet()) {
+                    writer.write(entrada.getKey() + ";" + entrada.getValue());
+                    writer.newLine();
+                }
+            }
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("No se pudo compactar la lista de tokens revocados {}: {}", archivo, e.getMessage());
+        }
+    }
+
+    public int size() {
+        return revocados.size();
+    }
+
+    private void anexar(String jti, long expiracionMillis) {
+        try {
+            if (archivo.getParent() != null) {
+                Files.createDirectories(archivo.getParent());
+            }
+            Files.write(archivo, List.of(jti + ";" + expiracionMillis), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            // La revocación sigue vigente en memoria aunque no se haya podido persistir
+            log.warn("No se pudo persistir la revocación del token {}: {}", jti, e.getMessage());
+        }
+    }
+}
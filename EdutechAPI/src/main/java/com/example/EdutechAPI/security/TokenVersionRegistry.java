@@ -0,0 +1,24 @@
+package com.example.EdutechAPI.security;
+
+import org.springframework.stereotype.Component;
+
+// Decide si la versión de un token (Usuario.version al emitirlo) sigue vigente.
+// - La versión está en la base de datos: sube con cada cambio del usuario (datos, roles), así que
+//   sobrevive a reinicios y es la misma en todas las instancias.
+// - Se compara con la del usuario en UserDetailsCache, que se invalida con cada UsuarioModificadoEvent.
+// - Sin entrada en la caché (arranque, otra instancia, usuario expulsado) el token no se da por vigente:
+//   JwtAuthenticationFilter carga al usuario de la base de datos, lo que además vuelve a llenar la caché.
+@Component
+public class TokenVersionRegistry {
+
+    private final UserDetailsCache userDetailsCache;
+
+    public TokenVersionRegistry(UserDetailsCache userDetailsCache) {
+        this.userDetailsCache = userDetailsCache;
+    }
+
+    public boolean isCurrent(Long idUsuario, Long version) {
+        return idUsuario != null && version != null
+                && userDetailsCache.versionDe(idUsuario).filter(version::equals).isPresent();
+    }
+}
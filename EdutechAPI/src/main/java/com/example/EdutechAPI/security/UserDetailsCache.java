@@ -0,0 +1,124 @@
+package com.example.EdutechAPI.security;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.EdutechAPI.api.usuarios.event.UsuarioModificadoEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Caché acotada (tamaño + TTL) de los usuarios que carga UserDetailsServiceImpl.
+// Se invalida cuando UsuarioService publica un UsuarioModificadoEvent y expone
+// sus estadísticas (hits, misses, evictions) como métricas "cache.*{cache=userdetails}".
+@Component
+public class UserDetailsCache {
+
+    // Snapshot inmutable; cada lectura devuelve un principal nuevo porque Spring Security
+    // borra la contraseña del principal después de autenticar (eraseCredentials).
+    public record CachedUser(Long idUsuario, String email, String nombre, String passwordHash,
+                             List<GrantedAuthority> authorities, long permisos, Long version) {
+
+        public CachedUser {
+            authorities = List.copyOf(authorities);
+        }
+
+        public UsuarioPrincipal toUserDetails() {
+            return new UsuarioPrincipal(idUsuario, email, nombre, passwordHash, authorities, permisos, version);
+        }
+    }
+
+    private final Cache<String, CachedUser> cache;
+
+    // Índice id -> email para poder invalidar por id (los eventos solo traen el id)
+    private final ConcurrentHashMap<Long, String> emailPorId = new ConcurrentHashMap<>();
+
+    // Número de secuencia de la última invalidación de cada id. Una carga en curso todavía no figura en
+    // emailPorId, así que invalidate() no la encuentra: get() compara esta secuencia con la de su inicio.
+    // Las entradas solo tienen que sobrevivir a las cargas en curso; el TTL de la caché es más que suficiente.
+    private final AtomicLong secuencia = new AtomicLong();
+    private final Cache<Long, Long> invalidaciones;
+
+    public UserDetailsCache(@Value("${seguridad.userdetails-cache.max-entries:50000}") long maxEntries,
+                            @Value("${seguridad.userdetails-cache.ttl-seconds:300}") long ttlSeconds,
+                            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .executor(Runnable::run) // El listener corre en el mismo hilo para mantener el índice consistente
+                .removalListener((String email, CachedUser usuario, RemovalCause cause) -> {
+                    if (usuario != null && cause != RemovalCause.REPLACED) {
+                        emailPorId.remove(usuario.idUsuario(), email);
+                    }
+                })
+                .build();
+        this.invalidaciones = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userdetails");
+    }
+
+    // El cargador lee la base de datos antes de que el id figure en emailPorId: una invalidación que llega
+    // en ese intervalo no encuentra qué borrar. Por eso se anota la secuencia antes de cargar y, si el id se
+    // invalidó después, la entrada recién guardada se descarta (el valor devuelto es el leído, que era el vigente
+    // cuando empezó la petición).
+    public CachedUser get(String email, Function<String, CachedUser> loader) {
+        long inicio = secuencia.get();
+        CachedUser usuario = cache.get(email, key -> {
+            CachedUser cargado = loader.apply(key);
+            emailPorId.put(cargado.idUsuario(), key);
+            return cargado;
+        });
+        Long invalidadoEn = invalidaciones.getIfPresent(usuario.idUsuario());
+        if (invalidadoEn != null && invalidadoEn > inicio) {
+            cache.invalidate(email);
+        }
+        return usuario;
+    }
+
+    // Versión (Usuario.version) del usuario en caché, sin cargarlo ni contar la lectura en las estadísticas
+    public Optional<Long> versionDe(Long idUsuario) {
+        String email = emailPorId.get(idUsuario);
+        if (email == null) {
+            return Optional.empty();
+        }
+        CachedUser usuario = cache.policy().getIfPresentQuietly(email);
+        if (usuario == null || !usuario.idUsuario().equals(idUsuario)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(usuario.version());
+    }
+
+    public void invalidate(Long idUsuario) {
+        // Primero se registra la invalidación, después se busca la entrada: así una carga concurrente
+        // o ve la secuencia nueva o ya dejó su email en el índice
+        invalidaciones.put(idUsuario, secuencia.incrementAndGet());
+        String email = emailPorId.remove(idUsuario);
+        if (email != null) {
+            cache.invalidate(email);
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsuarioModificado(UsuarioModificadoEvent event) {
+        invalidate(event.idUsuario());
+    }
+}
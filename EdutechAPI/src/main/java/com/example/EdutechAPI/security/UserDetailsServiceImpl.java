@@ -1,13 +1,15 @@
 package com.example.EdutechAPI.security;
 
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.example.EdutechAPI.api.usuarios.model.Rol;
 import com.example.EdutechAPI.api.usuarios.model.Usuario;
 import com.example.EdutechAPI.api.usuarios.repository.UsuarioRepository;
 
@@ -15,24 +17,46 @@ import com.example.EdutechAPI.api.usuarios.repository.UsuarioRepository;
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UsuarioRepository usuarioRepository;
+    private final UserDetailsCache userDetailsCache;
+    private final PermisosPorRol permisosPorRol;
 
-    public UserDetailsServiceImpl(UsuarioRepository usuarioRepository) {
+    // Las autoridades son inmutables, así que se crean una sola vez por nombre de rol
+    private final ConcurrentHashMap<String, GrantedAuthority> autoridadesPorRol = new ConcurrentHashMap<>();
+
+    public UserDetailsServiceImpl(UsuarioRepository usuarioRepository, UserDetailsCache userDetailsCache,
+                                  PermisosPorRol permisosPorRol) {
         this.usuarioRepository = usuarioRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.permisosPorRol = permisosPorRol;
     }
 
     @Override
-    public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        // 1. Buscar el usuario por email 
-        Usuario usuario = usuarioRepository.findByEmail(email)
+    public UsuarioPrincipal loadUserByUsername(String email) throws UsernameNotFoundException {
+        return userDetailsCache.get(email, this::cargarUsuario).toUserDetails();
+    }
+
+    private UserDetailsCache.CachedUser cargarUsuario(String email) {
+        // 1. Buscar el usuario por email (con sus roles en la misma consulta)
+        Usuario usuario = usuarioRepository.findConRolesByEmail(email)
             .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con email: " + email));
 
-        // 2. Construir la lista de autoridades (roles)
-        return new org.springframework.security.core.userdetails.User(
+        // 2. Construir la lista de autoridades (roles) y el bitset de permisos efectivos
+        List<String> nombresRol = usuario.getRoles().stream().map(Rol::getNombreRol).toList();
+        return new UserDetailsCache.CachedUser(
+            usuario.getIdUsuario(),
             usuario.getEmail(), // Username (email del usuario)
+            usuario.getNombre() + " " + usuario.getApellido(),
             usuario.getContrasena(), // Contraseña (ya encriptada)
-            usuario.getRoles().stream()
-                .map(rol -> new SimpleGrantedAuthority("ROLE_" + rol.getNombreRol().toUpperCase())) // Prefijo "ROLE_" es convención de Spring Security
-                .collect(Collectors.toList())
+            nombresRol.stream()
+                .map(this::autoridadDe)
+                .toList(),
+            permisosPorRol.permisosDeRoles(nombresRol),
+            usuario.getVersion() // Versión de token: sube con cada cambio del usuario, incluidos sus roles
         );
     }
-}
\ No newline at end of file
+
+    private GrantedAuthority autoridadDe(String nombreRol) {
+        // Prefijo "ROLE_" es convención de Spring Security
+        return autoridadesPorRol.computeIfAbsent(nombreRol, nombre -> new SimpleGrantedAuthority("ROLE_" + nombre.toUpperCase()));
+    }
+}
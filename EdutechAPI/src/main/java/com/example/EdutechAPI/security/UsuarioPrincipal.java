@@ -0,0 +1,96 @@
+package com.example.EdutechAPI.security;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+// UserDetails propio de la API: además del email y los roles trae el id y el nombre del usuario,
+// así el login y los controladores no necesitan volver a buscar al usuario en la base de datos.
+public class UsuarioPrincipal implements UserDetails, CredentialsContainer {
+
+    private final Long idUsuario;
+    private final String email;
+    private final String nombre;
+    private String password;
+    private final List<GrantedAuthority> authorities;
+    private final long permisos; // Bitset de Permiso: OR de los permisos de sus roles
+    private final Long version; // Usuario.version al cargarlo; null si no viene de la base de datos
+
+    public UsuarioPrincipal(Long idUsuario, String email, String nombre, String password,
+                            Collection<? extends GrantedAuthority> authorities, long permisos) {
+        this(idUsuario, email, nombre, password, authorities, permisos, null);
+    }
+
+    public UsuarioPrincipal(Long idUsuario, String email, String nombre, String password,
+                            Collection<? extends GrantedAuthority> authorities, long permisos, Long version) {
+        this.idUsuario = idUsuario;
+        this.email = email;
+        this.nombre = nombre;
+        this.password = password;
+        this.authorities = List.copyOf(authorities);
+        this.permisos = permisos;
+        this.version = version;
+    }
+
+    public Long getIdUsuario() {
+        return idUsuario;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public boolean tienePermiso(Permiso permiso) {
+        return permiso.en(permisos);
+    }
+
+    public long getPermisos() {
+        return permisos;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public List<String> getRoles() {
+        return authorities.stream().map(GrantedAuthority::getAuthority).toList();
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        this.password = null;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof UsuarioPrincipal otro && email.equals(otro.email);
+    }
+
+    @Override
+    public int hashCode() {
+        return email.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "UsuarioPrincipal[idUsuario=" + idUsuario + ", email=" + email + ", roles=" + getRoles() + "]";
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.EdutechAPI.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+// Caché acotada de tokens cuya firma ya fue verificada.
+// La clave es el SHA-256 del token (no guardamos el token en claro) y cada entrada
+// se descarta exactamente cuando expira el token que representa.
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible en esta JVM", e);
+        }
+    });
+
+    private final Cache<ByteBuffer, JwtPrincipal> cache;
+
+    public VerifiedTokenCache(@Value("${jwt.cache.max-entries:10000}") long maxEntries) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<ByteBuffer, JwtPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer key, JwtPrincipal value, long currentTime) {
+                        long restanteMillis = value.expirationMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(restanteMillis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer key, JwtPrincipal value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer key, JwtPrincipal value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public ByteBuffer keyFor(String token) {
+        MessageDigest digest = SHA256.get();
+        return ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public JwtPrincipal get(ByteBuffer key) {
+        JwtPrincipal principal = cache.getIfPresent(key);
+        // Caffeine expira de forma perezosa; nunca devolvemos un token vencido aunque siga en memoria
+        if (principal != null && principal.isExpired(System.currentTimeMillis())) {
+            cache.invalidate(key);
+            return null;
+        }
+        return principal;
+    }
+
+    public void put(ByteBuffer key, JwtPrincipal principal) {
+        cache.put(key, principal);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
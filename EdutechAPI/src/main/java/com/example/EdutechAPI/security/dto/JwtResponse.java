@@ -13,6 +13,8 @@ public class JwtResponse {
     private Long id;
     private String email;
     private String[] roles; // Array de roles del usuario
+    private String refreshToken; // Token para obtener un nuevo access token en /auth/refresh
+    private Long expiresIn; // Segundos de validez del access token
 
     // Constructor para un login exitoso
     public JwtResponse(String accessToken, Long id, String email, String[] roles) {
@@ -21,4 +23,11 @@ public class JwtResponse {
         this.email = email;
         this.roles = roles;
     }
+
+    // Constructor para un login o refresh con refresh token
+    public JwtResponse(String accessToken, String refreshToken, long expiresIn, Long id, String email, String[] roles) {
+        this(accessToken, id, email, roles);
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+    }
 }
\ No newline at end of file
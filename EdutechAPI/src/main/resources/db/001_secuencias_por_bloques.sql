@@ -0,0 +1,17 @@
+-- Generación de IDs por bloques (ver com.example.EdutechAPI.config.IdGeneracion).
+-- Hibernate usa el optimizador pooled-lo con allocationSize = 50: cada NEXTVAL reserva 50 ids
+-- para una instancia de la API, así que el INCREMENT BY de cada secuencia debe ser 50.
+-- Ejecutar una sola vez, con la API detenida, antes de desplegar esta versión.
+
+ALTER SEQUENCE CURSOS_ID_CURSO_SEQ INCREMENT BY 50;
+ALTER SEQUENCE INSCRIPCIONES_ID_INSCRIPCION_SEQ INCREMENT BY 50;
+ALTER SEQUENCE ROLES_ID_ROL_SEQ INCREMENT BY 50;
+
+-- USUARIOS no tenía secuencia (el cliente enviaba el ID): se crea a partir del mayor ID existente
+DECLARE
+    v_inicio NUMBER;
+BEGIN
+    SELECT NVL(MAX(ID_USUARIO), 0) + 1 INTO v_inicio FROM USUARIOS;
+    EXECUTE IMMEDIATE 'CREATE SEQUENCE USUARIOS_ID_USUARIO_SEQ START WITH ' || v_inicio || ' INCREMENT BY 50 NOCACHE';
+END;
+/
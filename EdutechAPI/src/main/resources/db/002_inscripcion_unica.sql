@@ -0,0 +1,16 @@
+-- Un usuario solo puede inscribirse una vez en cada curso (ver com.example.EdutechAPI.api.inscripciones.model.Inscripcion).
+-- La API ya no comprueba el duplicado antes de insertar: confía en esta restricción y traduce su violación a 409.
+-- Ejecutar una sola vez, con la API detenida, antes de desplegar esta versión.
+
+-- 1. Eliminar los duplicados que hayan dejado las carreras anteriores (se conserva la inscripción más antigua)
+DELETE FROM INSCRIPCIONES i
+WHERE i.ID_INSCRIPCION > (
+    SELECT MIN(d.ID_INSCRIPCION)
+    FROM INSCRIPCIONES d
+    WHERE d.USUARIOS_ID_USUARIO = i.USUARIOS_ID_USUARIO
+      AND d.CURSOS_ID_CURSO = i.CURSOS_ID_CURSO
+);
+
+-- 2. Crear la restricción (su índice también sirve a las búsquedas por usuario)
+ALTER TABLE INSCRIPCIONES
+    ADD CONSTRAINT UK_INSCRIPCION_USUARIO_CURSO UNIQUE (USUARIOS_ID_USUARIO, CURSOS_ID_CURSO);
@@ -0,0 +1,7 @@
+-- Columna @Version de CURSOS y USUARIOS (ver Curso.version y Usuario.version).
+-- Hibernate la sube en cada UPDATE y la usa en "WHERE VERSION = ?" (concurrencia optimista);
+-- la API la publica como ETag y la compara con If-None-Match / If-Match.
+-- Ejecutar una sola vez, con la API detenida, antes de desplegar esta versión.
+
+ALTER TABLE CURSOS ADD (VERSION NUMBER(19) DEFAULT 0 NOT NULL);
+ALTER TABLE USUARIOS ADD (VERSION NUMBER(19) DEFAULT 0 NOT NULL);
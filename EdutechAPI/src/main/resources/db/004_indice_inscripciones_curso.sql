@@ -0,0 +1,5 @@
+-- Índice por curso para las agregaciones de inscripciones (ver com.example.EdutechAPI.api.analitica.repository.AnaliticaRepository
+-- y ContadoresInscripciones). Cubre todas las columnas que leen, así que el recuento de un curso no toca la tabla.
+-- Oracle no indexa las claves foráneas por su cuenta; UK_INSCRIPCION_USUARIO_CURSO empieza por el usuario y no sirve aquí.
+CREATE INDEX IX_INSCRIPCIONES_CURSO
+    ON INSCRIPCIONES (CURSOS_ID_CURSO, ESTADO, FECHA_INSCRIPCION, USUARIOS_ID_USUARIO);
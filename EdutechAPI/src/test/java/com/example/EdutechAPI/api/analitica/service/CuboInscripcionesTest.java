@@ -0,0 +1,145 @@
+package com.example.EdutechAPI.api.analitica.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.EdutechAPI.api.analitica.dto.Dimension;
+import com.example.EdutechAPI.api.analitica.dto.FilaAnalitica;
+import com.example.EdutechAPI.api.analitica.dto.FiltroAnalitica;
+import com.example.EdutechAPI.api.analitica.dto.ResultadoAnalitica;
+import com.example.EdutechAPI.api.comun.Paginador;
+import com.example.EdutechAPI.api.cursos.model.Curso;
+import com.example.EdutechAPI.api.cursos.repository.CursoRepository;
+import com.example.EdutechAPI.api.inscripciones.dto.InscripcionRequest;
+import com.example.EdutechAPI.api.inscripciones.model.Inscripcion;
+import com.example.EdutechAPI.api.inscripciones.repository.InscripcionRepository;
+import com.example.EdutechAPI.api.inscripciones.service.InscripcionService;
+import com.example.EdutechAPI.api.usuarios.model.Usuario;
+import com.example.EdutechAPI.api.usuarios.repository.UsuarioRepository;
+import com.example.EdutechAPI.config.JacksonConfig;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Cada escritura corre en la transacción del servicio, así que los eventos llegan al cubo al hacer commit
+@DataJpaTest
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({CuboInscripciones.class, InscripcionService.class, Paginador.class, JacksonConfig.class})
+class CuboInscripcionesTest {
+
+    @Autowired
+    private CuboInscripciones cubo;
+    @Autowired
+    private InscripcionService inscripcionService;
+    @Autowired
+    private InscripcionRepository inscripcionRepository;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private CursoRepository cursoRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Usuario juan;
+    private Usuario ana;
+    private Usuario luis;
+    private Curso matematicas;
+    private Curso historia;
+
+    @BeforeEach
+    void setUp() {
+        juan = usuarioRepository.save(new Usuario(null, "Juan", "Perez", "juan@mail.com", "pass", new Date(), "activo", 100L, new HashSet<>(), new HashSet<>()));
+        ana = usuarioRepository.save(new Usuario(null, "Ana", "Lopez", "ana@mail.com", "pass", new Date(), "activo", 100L, new HashSet<>(), new HashSet<>()));
+        luis = usuarioRepository.save(new Usuario(null, "Luis", "Diaz", "luis@mail.com", "pass", new Date(), "activo", 200L, new HashSet<>(), new HashSet<>()));
+        matematicas = cursoRepository.save(new Curso(null, "Matematicas", "Curso de Matematicas", new Date(), "activo", new HashSet<>()));
+        historia = cursoRepository.save(new Curso(null, "Historia", "Curso de Historia", new Date(), "activo", new HashSet<>()));
+
+        inscripcionRepository.save(new Inscripcion(null, juan, matematicas, fecha(2025, 1, 10), "en curso"));
+        inscripcionRepository.save(new Inscripcion(null, ana, matematicas, fecha(2025, 1, 20), "Completado"));
+        inscripcionRepository.save(new Inscripcion(null, luis, matematicas, fecha(2025, 2, 5), "en curso"));
+        inscripcionRepository.save(new Inscripcion(null, juan, historia, fecha(2025, 2, 15), "en curso"));
+        cubo.reconstruir();
+    }
+
+    @AfterEach
+    void tearDown() {
+        inscripcionRepository.deleteAll();
+        usuarioRepository.deleteAll();
+        cursoRepository.deleteAll();
+    }
+
+    @Test
+    void cuandoSeAgrupaPorCursoYMes_debeResponderseSinConsultarLaBaseDeDatos() {
+        // Arrange
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        ResultadoAnalitica resultado = cubo.consultar(List.of(Dimension.CURSO, Dimension.MES), FiltroAnalitica.ninguno());
+
+        // Assert
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(4, resultado.total());
+        assertEquals(List.of(
+                new FilaAnalitica(matematicas.getIdCurso(), "2025-01", null, null, 2),
+                new FilaAnalitica(matematicas.getIdCurso(), "2025-02", null, null, 1),
+                new FilaAnalitica(historia.getIdCurso(), "2025-02", null, null, 1)), resultado.filas());
+        assertNotNull(resultado.frescura().ultimaReconstruccion());
+    }
+
+    @Test
+    void cuandoSeFiltraPorEstadoYMes_debeAgruparPorOficina() {
+        // Act
+        FiltroAnalitica filtro = new FiltroAnalitica(null, "en curso", null, YearMonth.of(2025, 2), YearMonth.of(2025, 2));
+        ResultadoAnalitica resultado = cubo.consultar(List.of(Dimension.OFICINA), filtro);
+
+        // Assert
+        assertEquals(List.of(
+                new FilaAnalitica(null, null, null, 100L, 1),
+                new FilaAnalitica(null, null, null, 200L, 1)), resultado.filas());
+    }
+
+    @Test
+    void cuandoCambianInscripcionesPorElServicio_debeActualizarseSoloAlProcesarLosPendientes() {
+        // Arrange
+        inscripcionService.createInscripcion(new InscripcionRequest(ana.getIdUsuario(), historia.getIdCurso(), null, null));
+        Inscripcion deJuan = inscripcionRepository.findByUsuarioIdUsuarioAndCursoIdCurso(juan.getIdUsuario(), historia.getIdCurso()).orElseThrow();
+        inscripcionService.updateInscripcionEstado(deJuan.getIdInscripcion(), "Completado");
+        FiltroAnalitica soloHistoria = new FiltroAnalitica(historia.getIdCurso(), null, null, null, null);
+        assertEquals(1, cubo.consultar(List.of(), soloHistoria).total());
+        assertEquals(2, cubo.frescura().cambiosPendientes());
+
+        // Act
+        cubo.actualizarPendientes();
+
+        // Assert
+        ResultadoAnalitica resultado = cubo.consultar(List.of(Dimension.ESTADO), soloHistoria);
+        assertEquals(List.of(
+                new FilaAnalitica(null, null, "Completado", null, 1),
+                new FilaAnalitica(null, null, "en curso", null, 1)), resultado.filas());
+        assertEquals(0, resultado.frescura().cambiosPendientes());
+    }
+
+    private static Date fecha(int anio, int mes, int dia) {
+        return Date.from(LocalDate.of(anio, mes, dia).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.EdutechAPI.api.comun;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ETagsTest {
+
+    @Test
+    void cuandoIfNoneMatch_debeUsarComparacionDebil() {
+        // Arrange
+        String etag = ETags.deVersion(4L);
+
+        // Act & Assert
+        assertTrue(ETags.coincide("\"4\"", etag));
+        assertTrue(ETags.coincide("W/\"4\"", etag));
+        assertTrue(ETags.coincide("\"1\", \"4\"", etag));
+        assertTrue(ETags.coincide("*", etag));
+        assertFalse(ETags.coincide("\"3\"", etag));
+        assertFalse(ETags.coincide(null, etag));
+    }
+
+    @Test
+    void cuandoIfMatch_debeDevolverLaVersionSoloConUnaETagFuerte() {
+        // Act & Assert
+        assertEquals(7L, ETags.versionEsperada("\"7\""));
+        assertNull(ETags.versionEsperada(null));
+        assertNull(ETags.versionEsperada("*"));
+        assertEquals(ETags.VERSION_NINGUNA, ETags.versionEsperada("W/\"7\""));
+        assertEquals(ETags.VERSION_NINGUNA, ETags.versionEsperada("\"1-2-3\""));
+        assertEquals(ETags.VERSION_NINGUNA, ETags.versionEsperada("\"7\", \"8\""));
+    }
+
+    @Test
+    void cuandoDeColeccion_debeCambiarConAltasBajasYModificaciones() {
+        // Arrange
+        String base = ETags.deColeccion(new VersionColeccion(3L, 10L, 5L));
+
+        // Act & Assert
+        assertFalse(base.equals(ETags.deColeccion(new VersionColeccion(4L, 11L, 5L))), "Alta");
+        assertFalse(base.equals(ETags.deColeccion(new VersionColeccion(2L, 10L, 4L))), "Baja");
+        assertFalse(base.equals(ETags.deColeccion(new VersionColeccion(3L, 10L, 6L))), "Modificación");
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.EdutechAPI.api.comun;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.EdutechAPI.api.cursos.model.Curso;
+import com.example.EdutechAPI.api.cursos.repository.CursoRepository;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+class PaginadorTest {
+
+    private static final OrdenesPagina<Curso> ORDENES = OrdenesPagina.de("idCurso", Curso::getIdCurso)
+            .con("nombre", "nombreCurso", String.class, Curso::getNombreCurso);
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    private final Paginador paginador = new Paginador(20, 100);
+
+    @BeforeEach
+    void setUp() {
+        List<Curso> cursos = new ArrayList<>();
+        for (int i = 0; i < 45; i++) {
+            // Nombres repetidos para comprobar que el ID desempata
+            cursos.add(new Curso(null, "Curso " + (i % 7), "Descripción", new Date(), "activo", null));
+        }
+        cursoRepository.saveAll(cursos);
+    }
+
+    @Test
+    void cuandoSeRecorrenTodasLasPaginas_debeDevolverCadaCursoUnaSolaVezEnOrden() {
+        // Arrange
+        List<Curso> recorridos = new ArrayList<>();
+        List<Integer> tamanos = new ArrayList<>();
+        String cursor = null;
+
+        // Act
+        do {
+            PaginaResponse<Curso> pagina = paginador.paginar(cursoRepository, null, ORDENES, "-nombre", cursor, null, c -> c);
+            recorridos.addAll(pagina.getContenido());
+            tamanos.add(pagina.getContenido().size());
+            cursor = pagina.getSiguienteCursor();
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(List.of(20, 20, 5), tamanos);
+        assertEquals(45, recorridos.stream().map(Curso::getIdCurso).distinct().count());
+        List<Curso> esperados = new ArrayList<>(recorridos);
+        esperados.sort(Comparator.comparing(Curso::getNombreCurso).thenComparing(Curso::getIdCurso).reversed());
+        assertEquals(esperados, recorridos);
+    }
+
+    @Test
+    void cuandoLaUltimaPaginaEstaCompleta_noDebeDevolverCursor() {
+        // Act
+        PaginaResponse<Curso> pagina = paginador.paginar(cursoRepository, null, ORDENES, "id", null, 45, c -> c);
+
+        // Assert
+        assertEquals(45, pagina.getContenido().size());
+        assertFalse(pagina.isHayMas());
+        assertNull(pagina.getSiguienteCursor());
+    }
+
+    @Test
+    void cuandoElCursorEsInvalidoODeOtroOrden_debeRechazarlo() {
+        // Arrange
+        String cursorPorId = paginador.paginar(cursoRepository, null, ORDENES, "id", null, 10, c -> c).getSiguienteCursor();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> paginador.paginar(cursoRepository, null, ORDENES, "id", "no-es-un-cursor", 10, c -> c));
+        assertThrows(IllegalArgumentException.class,
+                () -> paginador.paginar(cursoRepository, null, ORDENES, "nombre", cursorPorId, 10, c -> c));
+        assertThrows(IllegalArgumentException.class,
+                () -> paginador.paginar(cursoRepository, null, ORDENES, "precio", null, 10, c -> c));
+        assertThrows(IllegalArgumentException.class,
+                () -> paginador.paginar(cursoRepository, null, ORDENES, "id", null, 101, c -> c));
+        assertTrue(paginador.paginar(cursoRepository, null, ORDENES, "id", cursorPorId, 10, c -> c).isHayMas());
+    }
+}
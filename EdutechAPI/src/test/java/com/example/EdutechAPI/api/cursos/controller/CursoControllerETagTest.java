@@ -0,0 +1,112 @@
+package com.example.EdutechAPI.api.cursos.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.mock;
+
+import java.util.Date;
+import java.util.HashSet;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.EdutechAPI.api.comun.Paginador;
+import com.example.EdutechAPI.api.cursos.model.Curso;
+import com.example.EdutechAPI.api.cursos.repository.CursoRepository;
+import com.example.EdutechAPI.api.cursos.service.CursoService;
+import com.example.EdutechAPI.api.inscripciones.service.ContadoresInscripciones;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Cada llamada corre en su propia transacción, como en una petición real
+@DataJpaTest
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({CursoService.class, Paginador.class})
+class CursoControllerETagTest {
+
+    @Autowired
+    private CursoService cursoService;
+    @Autowired
+    private CursoRepository cursoRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private CursoController cursoController;
+    private Curso primero;
+
+    @BeforeEach
+    void setUp() {
+        cursoController = new CursoController(cursoService, mock(ContadoresInscripciones.class));
+        primero = cursoService.createCurso(new Curso(null, "Matematicas", "Curso de Matematicas", new Date(), "activo", new HashSet<>()));
+        cursoService.createCurso(new Curso(null, "Historia", "Curso de Historia", new Date(), "activo", new HashSet<>()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cursoRepository.deleteAll();
+    }
+
+    @Test
+    void cuandoIfNoneMatchCoincide_debeResponder304SinCargarElCurso() {
+        // Arrange
+        String etag = cursoController.getCursoById(primero.getIdCurso(), null).getHeaders().getETag();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        ResponseEntity<Curso> respuesta = cursoController.getCursoById(primero.getIdCurso(), etag);
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, respuesta.getStatusCode());
+        assertEquals(etag, respuesta.getHeaders().getETag());
+        assertEquals(0, statistics.getEntityLoadCount(), "El 304 no debería cargar la entidad.");
+        assertEquals(1, statistics.getPrepareStatementCount(), "Solo se consulta la versión.");
+    }
+
+    @Test
+    void cuandoDosEscriturasUsanLaMismaETag_laSegundaDebeResponder412() {
+        // Arrange: dos clientes leen el mismo curso
+        String etag = cursoController.getCursoById(primero.getIdCurso(), null).getHeaders().getETag();
+        Curso cambiosA = new Curso(null, "Algebra", "Curso de Algebra", null, "activo", null);
+        Curso cambiosB = new Curso(null, "Geometria", "Curso de Geometria", null, "activo", null);
+
+        // Act
+        ResponseEntity<Void> respuestaA = cursoController.updateCurso(primero.getIdCurso(), etag, cambiosA);
+        ResponseEntity<Void> respuestaB = cursoController.updateCurso(primero.getIdCurso(), etag, cambiosB);
+
+        // Assert
+        assertEquals(HttpStatus.NO_CONTENT, respuestaA.getStatusCode());
+        assertNotEquals(etag, respuestaA.getHeaders().getETag(), "La actualización debe cambiar la ETag.");
+        assertEquals(cursoController.getCursoById(primero.getIdCurso(), null).getHeaders().getETag(), respuestaA.getHeaders().getETag(),
+                "La ETag del 204 debe ser la del curso actualizado.");
+        assertEquals(HttpStatus.PRECONDITION_FAILED, respuestaB.getStatusCode());
+        assertEquals("Algebra", cursoRepository.findById(primero.getIdCurso()).orElseThrow().getNombreCurso());
+    }
+
+    @Test
+    void cuandoCambiaUnCursoQueNoEsElUltimo_debeCambiarLaETagDelCatalogo() {
+        // Arrange: 'primero' no es el de mayor id y la cantidad no cambia; solo se mueve la suma de versiones
+        String etagInicial = cursoController.getAllCursos(null, null, "id", null).getHeaders().getETag();
+        assertEquals(HttpStatus.NOT_MODIFIED, cursoController.getAllCursos(null, null, "id", etagInicial).getStatusCode());
+
+        // Act
+        cursoService.updateCurso(primero.getIdCurso(), new Curso(null, "Algebra", "Curso de Algebra", null, "activo", null));
+        ResponseEntity<Object> respuesta = cursoController.getAllCursos(null, null, "id", etagInicial);
+
+        // Assert
+        assertEquals(HttpStatus.OK, respuesta.getStatusCode());
+        assertNotEquals(etagInicial, respuesta.getHeaders().getETag());
+    }
+}
@@ -23,6 +23,8 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
 import com.example.EdutechAPI.api.cursos.model.Curso;
 import com.example.EdutechAPI.api.cursos.repository.CursoRepository; 
 
@@ -154,27 +156,20 @@ class CursoServiceTest {
 
     // --- Prueba para `updateCurso()` ---
     @Test
-    void cuandoUpdateCurso_conIdExistente_debeActualizarYRetornarCurso() {
+    void cuandoUpdateCurso_conIdExistente_debeActualizarEnUnSoloUpdateYRetornarLaNuevaVersion() {
         // Arrange
         Long idExistente = 1L;
-        Curso cursoExistente = new Curso(idExistente, "Curso Original", "Descripción Original", new Date(), "activo", new HashSet<>());
-        Curso cursoDetails = new Curso(null, "Curso Actualizado", "Descripción Nueva", null, "inactivo", null); // Los null serán ignorados por el setter
-
-        when(cursoRepository.findById(idExistente)).thenReturn(Optional.of(cursoExistente));
-        when(cursoRepository.save(any(Curso.class))).thenReturn(cursoExistente); // save devuelve la misma instancia modificada
+        Curso cursoDetails = new Curso(null, "Curso Actualizado", null, null, "inactivo", null); // La descripción no se envía
+        when(cursoRepository.actualizarParcial(idExistente, "Curso Actualizado", null, "inactivo", 4L)).thenReturn(1);
 
         // Act
-        Curso resultado = cursoService.updateCurso(idExistente, cursoDetails);
+        Long nuevaVersion = cursoService.updateCurso(idExistente, cursoDetails, 4L);
 
         // Assert
-        assertNotNull(resultado);
-        assertEquals(idExistente, resultado.getIdCurso());
-        assertEquals("Curso Actualizado", resultado.getNombreCurso());
-        assertEquals("Descripción Nueva", resultado.getDescripcion());
-        assertEquals("inactivo", resultado.getEstado());
-
-        verify(cursoRepository, times(1)).findById(idExistente);
-        verify(cursoRepository, times(1)).save(cursoExistente); // Verificar que se guardó la instancia modificada
+        assertEquals(5L, nuevaVersion, "Con If-Match la nueva versión se conoce sin volver a leer el curso.");
+        verify(cursoRepository, times(1)).actualizarParcial(idExistente, "Curso Actualizado", null, "inactivo", 4L);
+        verify(cursoRepository, never()).findById(anyLong());
+        verify(cursoRepository, never()).save(any(Curso.class)); // Sin load-then-save
     }
 
     @Test
@@ -182,7 +177,8 @@ class CursoServiceTest {
         // Arrange
         Long idNoExistente = 99L;
         Curso cursoDetails = new Curso(null, "Nombre", "Desc", null, "estado", null);
-        when(cursoRepository.findById(idNoExistente)).thenReturn(Optional.empty());
+        when(cursoRepository.actualizarParcial(idNoExistente, "Nombre", "Desc", "estado", null)).thenReturn(0);
+        when(cursoRepository.findVersionById(idNoExistente)).thenReturn(Optional.empty());
 
         // Act & Assert
         Exception exception = assertThrows(EntityNotFoundException.class, () -> {
@@ -190,7 +186,7 @@ class CursoServiceTest {
         });
         assertEquals("Curso no encontrado con ID: " + idNoExistente, exception.getMessage());
 
-        verify(cursoRepository, times(1)).findById(idNoExistente);
+        verify(cursoRepository, never()).findById(anyLong());
         verify(cursoRepository, never()).save(any(Curso.class)); // save no debería ser llamado
     }
 
@@ -224,4 +220,33 @@ class CursoServiceTest {
         verify(cursoRepository, times(1)).existsById(idNoExistente);
         verify(cursoRepository, never()).deleteById(anyLong()); // deleteById no debería ser llamado
     }
-}
\ No newline at end of file
+
+    // --- Pruebas de If-Match (versionEsperada) ---
+    @Test
+    void cuandoUpdateCurso_conVersionDistinta_debeLanzarConflictoDeVersion() {
+        // Arrange: el UPDATE no afecta filas pero el curso existe, así que cambió de versión
+        Long idExistente = 1L;
+        Curso cursoDetails = new Curso(null, "Curso Actualizado", "Descripción Nueva", null, "inactivo", null);
+        when(cursoRepository.actualizarParcial(idExistente, "Curso Actualizado", "Descripción Nueva", "inactivo", 2L)).thenReturn(0);
+        when(cursoRepository.findVersionById(idExistente)).thenReturn(Optional.of(3L));
+
+        // Act & Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> cursoService.updateCurso(idExistente, cursoDetails, 2L));
+        verify(cursoRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void cuandoDeleteCurso_conVersionIgual_debeBorrarLaEntidadCargada() {
+        // Arrange
+        Long idExistente = 1L;
+        Curso cursoExistente = new Curso(idExistente, "Curso Original", "Descripción Original", new Date(), "activo", new HashSet<>(), 3L);
+        when(cursoRepository.findById(idExistente)).thenReturn(Optional.of(cursoExistente));
+
+        // Act
+        cursoService.deleteCurso(idExistente, 3L);
+
+        // Assert
+        verify(cursoRepository, times(1)).delete(cursoExistente);
+        verify(cursoRepository, never()).deleteById(anyLong());
+    }
+}
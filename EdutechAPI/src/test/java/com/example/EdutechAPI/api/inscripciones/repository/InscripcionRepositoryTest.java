@@ -0,0 +1,77 @@
+package com.example.EdutechAPI.api.inscripciones.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.EdutechAPI.api.cursos.model.Curso;
+import com.example.EdutechAPI.api.inscripciones.dto.InscripcionResponse;
+import com.example.EdutechAPI.api.inscripciones.model.Inscripcion;
+import com.example.EdutechAPI.api.usuarios.model.Rol;
+import com.example.EdutechAPI.api.usuarios.model.Usuario;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+class InscripcionRepositoryTest {
+
+    @Autowired
+    private InscripcionRepository inscripcionRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Usuario laura;
+    private Curso historia;
+
+    @BeforeEach
+    void setUp() {
+        Rol estudiante = new Rol(null, "Estudiante");
+        entityManager.persist(estudiante);
+        laura = new Usuario(null, "Laura", "Diaz", "laura@mail.com", "pass", new Date(), "activo", 100L, new HashSet<>(Set.of(estudiante)), new HashSet<>());
+        Usuario juan = new Usuario(null, "Juan", "Perez", "juan@mail.com", "pass", new Date(), "activo", 100L, new HashSet<>(Set.of(estudiante)), new HashSet<>());
+        historia = new Curso(null, "Historia", "Curso de Historia Antigua", new Date(), "activo", new HashSet<>());
+        Curso matematicas = new Curso(null, "Matematicas", "Curso de Matematicas", new Date(), "activo", new HashSet<>());
+        entityManager.persist(laura);
+        entityManager.persist(juan);
+        entityManager.persist(historia);
+        entityManager.persist(matematicas);
+        entityManager.persist(new Inscripcion(null, laura, historia, new Date(), "en curso"));
+        entityManager.persist(new Inscripcion(null, laura, matematicas, new Date(), "en curso"));
+        entityManager.persist(new Inscripcion(null, juan, historia, new Date(), "finalizada"));
+        entityManager.flush();
+        entityManager.clear(); // Nada en el contexto de persistencia: cada carga perezosa sería una consulta
+    }
+
+    @Test
+    void cuandoBuscarInscripcionPorId_debeHacerUnaSolaConsulta() {
+        // Arrange
+        Long idInscripcion = inscripcionRepository.findByUsuarioIdUsuarioAndCursoIdCurso(laura.getIdUsuario(), historia.getIdCurso())
+                .orElseThrow().getIdInscripcion();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        InscripcionResponse inscripcion = inscripcionRepository.findResponseById(idInscripcion).orElseThrow();
+
+        // Assert
+        assertEquals("Laura Diaz", inscripcion.getNombreUsuario());
+        assertEquals("Historia", inscripcion.getNombreCurso());
+        assertEquals(1, statistics.getPrepareStatementCount(), "La proyección debería costar exactamente una consulta.");
+        assertEquals(0, statistics.getEntityLoadCount(), "La proyección no debería cargar entidades.");
+    }
+}
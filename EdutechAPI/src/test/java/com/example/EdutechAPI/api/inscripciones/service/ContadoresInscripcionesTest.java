@@ -0,0 +1,165 @@
+package com.example.EdutechAPI.api.inscripciones.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.EdutechAPI.api.comun.Paginador;
+import com.example.EdutechAPI.api.cursos.model.Curso;
+import com.example.EdutechAPI.api.cursos.repository.CursoRepository;
+import com.example.EdutechAPI.api.inscripciones.dto.ConteoEstado;
+import com.example.EdutechAPI.api.inscripciones.dto.EstadisticasCurso;
+import com.example.EdutechAPI.api.inscripciones.dto.InscripcionRequest;
+import com.example.EdutechAPI.api.inscripciones.dto.InscripcionResponse;
+import com.example.EdutechAPI.api.inscripciones.event.InscripcionCambiadaEvent;
+import com.example.EdutechAPI.api.inscripciones.model.Inscripcion;
+import com.example.EdutechAPI.api.inscripciones.repository.InscripcionRepository;
+import com.example.EdutechAPI.api.usuarios.model.Usuario;
+import com.example.EdutechAPI.api.usuarios.repository.UsuarioRepository;
+import com.example.EdutechAPI.config.JacksonConfig;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Cada escritura corre en la transacción del servicio, así que los contadores se mueven al hacer commit
+@DataJpaTest
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ContadoresInscripciones.class, InscripcionService.class, Paginador.class, JacksonConfig.class})
+class ContadoresInscripcionesTest {
+
+    @Autowired
+    private ContadoresInscripciones contadores;
+    @Autowired
+    private InscripcionService inscripcionService;
+    @Autowired
+    private InscripcionRepository inscripcionRepository;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private CursoRepository cursoRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Usuario juan;
+    private Usuario ana;
+    private Curso curso;
+
+    @BeforeEach
+    void setUp() {
+        juan = usuarioRepository.save(new Usuario(null, "Juan", "Perez", "juan@mail.com", "pass", new Date(), "activo", 100L, new HashSet<>(), new HashSet<>()));
+        ana = usuarioRepository.save(new Usuario(null, "Ana", "Lopez", "ana@mail.com", "pass", new Date(), "activo", 100L, new HashSet<>(), new HashSet<>()));
+        curso = cursoRepository.save(new Curso(null, "Matematicas", "Curso de Matematicas avanzado", new Date(), "activo", new HashSet<>()));
+        contadores.reconciliar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        inscripcionRepository.deleteAll();
+        usuarioRepository.deleteAll();
+        cursoRepository.deleteAll();
+    }
+
+    @Test
+    void cuandoSeCreanYEliminanInscripciones_lasEstadisticasNoDebenConsultarLaBaseDeDatos() {
+        // Arrange
+        InscripcionResponse primera = inscripcionService.createInscripcion(new InscripcionRequest(juan.getIdUsuario(), curso.getIdCurso(), null, null));
+        inscripcionService.createInscripcion(new InscripcionRequest(ana.getIdUsuario(), curso.getIdCurso(), null, null));
+        inscripcionService.deleteInscripcion(primera.getIdInscripcion());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        EstadisticasCurso estadisticas = contadores.estadisticas(curso.getIdCurso());
+
+        // Assert
+        assertEquals(1, estadisticas.total());
+        assertEquals(Map.of("en curso", 1L), estadisticas.porEstado());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void cuandoCambiaElEstadoConUnSoloUpdate_debeRecontarseElCursoAlProcesarPendientes() {
+        // Arrange
+        InscripcionResponse inscripcion = inscripcionService.createInscripcion(new InscripcionRequest(juan.getIdUsuario(), curso.getIdCurso(), null, null));
+        inscripcionService.createInscripcion(new InscripcionRequest(ana.getIdUsuario(), curso.getIdCurso(), null, null));
+        inscripcionService.updateInscripcionEstado(inscripcion.getIdInscripcion(), "Completado");
+
+        // Act
+        contadores.procesarPendientes();
+
+        // Assert
+        EstadisticasCurso estadisticas = contadores.estadisticas(curso.getIdCurso());
+        assertEquals(2, estadisticas.total());
+        assertEquals(Map.of("en curso", 1L, "Completado", 1L), estadisticas.porEstado());
+    }
+
+    @Test
+    void cuandoSeEscribeSinPasarPorElServicio_laReconciliacionDebeCorregirLosContadores() {
+        // Arrange: una escritura que los eventos no ven (como la de otra instancia)
+        inscripcionRepository.save(new Inscripcion(null, juan, curso, new Date(), "Completado"));
+        assertEquals(0, contadores.estadisticas(curso.getIdCurso()).total());
+
+        // Act
+        contadores.reconciliar();
+
+        // Assert
+        assertEquals(Map.of("Completado", 1L), contadores.estadisticas(curso.getIdCurso()).porEstado());
+    }
+
+    @Test
+    void cuandoLlegaUnEventoDuranteLaReconciliacion_debeAplicarseSobreLosContadoresNuevos() {
+        // Arrange: la alta se confirma mientras corre la consulta, que ya no la ve
+        InscripcionRepository repositorio = mock(InscripcionRepository.class);
+        ContadoresInscripciones enReconciliacion = new ContadoresInscripciones(repositorio, transactionTemplate);
+        when(repositorio.contarPorCursoYEstado()).thenAnswer(invocacion -> {
+            enReconciliacion.onInscripcionCambiada(InscripcionCambiadaEvent.alta(10L, 1L, "en curso"));
+            return List.of(new ConteoEstado(1L, "en curso", 2L));
+        });
+
+        // Act
+        enReconciliacion.reconciliar();
+
+        // Assert
+        assertEquals(Map.of("en curso", 3L), enReconciliacion.estadisticas(1L).porEstado());
+    }
+
+    @Test
+    void cuandoLlegaUnEventoDuranteElRecuentoDeUnCurso_noDebePerderse() {
+        // Arrange: un cambio de estado sin curso deja el curso 1 para recontar; durante el recuento llega otra alta
+        InscripcionRepository repositorio = mock(InscripcionRepository.class);
+        ContadoresInscripciones enRecuento = new ContadoresInscripciones(repositorio, transactionTemplate);
+        enRecuento.onInscripcionCambiada(InscripcionCambiadaEvent.cambioDeEstado(5L, "Completado"));
+        when(repositorio.findIdsCursoDeInscripciones(anyCollection())).thenReturn(List.of(1L));
+        when(repositorio.contarPorCursoYEstado(anyCollection())).thenAnswer(invocacion -> {
+            enRecuento.onInscripcionCambiada(InscripcionCambiadaEvent.alta(11L, 1L, "en curso"));
+            return List.of(new ConteoEstado(1L, "Completado", 1L));
+        });
+
+        // Act
+        enRecuento.procesarPendientes();
+
+        // Assert
+        assertEquals(Map.of("Completado", 1L, "en curso", 1L), enRecuento.estadisticas(1L).porEstado());
+    }
+}
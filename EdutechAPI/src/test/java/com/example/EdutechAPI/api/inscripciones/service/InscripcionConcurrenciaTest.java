@@ -0,0 +1,184 @@
+package com.example.EdutechAPI.api.inscripciones.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doReturn;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.EdutechAPI.api.comun.Paginador;
+import com.example.EdutechAPI.api.cursos.model.Curso;
+import com.example.EdutechAPI.api.cursos.repository.CursoRepository;
+import com.example.EdutechAPI.api.inscripciones.dto.InscripcionBatchItem;
+import com.example.EdutechAPI.api.inscripciones.dto.InscripcionBatchResponse;
+import com.example.EdutechAPI.api.inscripciones.dto.InscripcionRequest;
+import com.example.EdutechAPI.api.inscripciones.dto.InscripcionResponse;
+import com.example.EdutechAPI.api.inscripciones.dto.ResultadoInscripcionBatch;
+import com.example.EdutechAPI.api.inscripciones.model.Inscripcion;
+import com.example.EdutechAPI.api.inscripciones.repository.InscripcionRepository;
+import com.example.EdutechAPI.api.usuarios.model.Usuario;
+import com.example.EdutechAPI.api.usuarios.repository.UsuarioRepository;
+import com.example.EdutechAPI.config.JacksonConfig;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+
+// Cada inscripción corre en su propia transacción (la del servicio), así que el test no abre ninguna
+@DataJpaTest
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({InscripcionService.class, Paginador.class, JacksonConfig.class})
+class InscripcionConcurrenciaTest {
+
+    private static final int HILOS = 8;
+
+    @Autowired
+    private InscripcionService inscripcionService;
+    @MockitoSpyBean
+    private InscripcionRepository inscripcionRepository;
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private CursoRepository cursoRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Usuario usuario;
+    private Curso curso;
+
+    @BeforeEach
+    void setUp() {
+        usuario = usuarioRepository.save(new Usuario(null, "Juan", "Perez", "juan@mail.com", "pass", new Date(), "activo", 100L, new HashSet<>(), new HashSet<>()));
+        curso = cursoRepository.save(new Curso(null, "Matematicas", "Curso de Matematicas avanzado", new Date(), "activo", new HashSet<>()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        inscripcionRepository.deleteAll();
+        usuarioRepository.deleteAll();
+        cursoRepository.deleteAll();
+    }
+
+    @Test
+    void cuandoInscripcionesDuplicadasEnParalelo_debeCrearseSoloUna() throws Exception {
+        // Arrange
+        InscripcionRequest request = new InscripcionRequest(usuario.getIdUsuario(), curso.getIdCurso(), null, null);
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch salida = new CountDownLatch(1);
+        AtomicInteger creadas = new AtomicInteger();
+        AtomicInteger duplicadas = new AtomicInteger();
+        List<Future<?>> tareas = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < HILOS; i++) {
+            tareas.add(executor.submit(() -> {
+                salida.await();
+                try {
+                    inscripcionService.createInscripcion(request);
+                    creadas.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    duplicadas.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        salida.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(1, creadas.get(), "Solo una de las peticiones concurrentes debe crear la inscripción.");
+        assertEquals(HILOS - 1, duplicadas.get(), "El resto debe recibir el conflicto (409).");
+        assertEquals(1, inscripcionRepository.count());
+    }
+
+    @Test
+    void cuandoCreateInscripcion_debeHacerUnSoloRoundTrip() {
+        // Arrange: una primera inscripción reserva el bloque de ids de la secuencia
+        Curso otroCurso = cursoRepository.save(new Curso(null, "Historia", "Curso de Historia", new Date(), "activo", new HashSet<>()));
+        inscripcionService.createInscripcion(new InscripcionRequest(usuario.getIdUsuario(), otroCurso.getIdCurso(), null, null));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        InscripcionResponse creada = inscripcionService.createInscripcion(new InscripcionRequest(usuario.getIdUsuario(), curso.getIdCurso(), null, null));
+
+        // Assert: antes eran 4 (usuario, curso, comprobación de duplicado e INSERT)
+        assertEquals(1, statistics.getPrepareStatementCount(), "Crear una inscripción debería enviar solo el INSERT.");
+        assertEquals(usuario.getIdUsuario(), creada.getIdUsuario());
+        assertEquals(curso.getIdCurso(), creada.getIdCurso());
+        assertNull(creada.getNombreCurso());
+    }
+
+    @Test
+    void cuandoOtraPeticionInscribeDuranteUnLote_soloEsaFilaDebeQuedarDuplicada() {
+        // Arrange: la validación no ve la inscripción (1, curso), como si llegara justo después de consultarla
+        Curso otroCurso = cursoRepository.save(new Curso(null, "Historia", "Curso de Historia", new Date(), "activo", new HashSet<>()));
+        inscripcionRepository.save(new Inscripcion(null, usuario, curso, new Date(), "en curso"));
+        doReturn(List.of()).when(inscripcionRepository).findPares(anyCollection(), anyCollection());
+
+        // Act
+        InscripcionBatchResponse respuesta = inscripcionService.createInscripcionesBatch(List.of(
+                new InscripcionRequest(usuario.getIdUsuario(), curso.getIdCurso(), null, null),
+                new InscripcionRequest(usuario.getIdUsuario(), otroCurso.getIdCurso(), null, null)));
+
+        // Assert: el lote se deshace y se reintenta fila a fila; la otra inscripción sí se crea
+        assertEquals(List.of(ResultadoInscripcionBatch.DUPLICADA, ResultadoInscripcionBatch.CREADA),
+                respuesta.getResultados().stream().map(InscripcionBatchItem::getResultado).toList());
+        assertEquals(1, respuesta.getCreadas());
+        assertEquals(1, respuesta.getDuplicadas());
+        assertEquals(2, inscripcionRepository.count());
+    }
+
+    @Test
+    void cuandoCreateInscripcion_conCursoInexistente_debeLanzarEntityNotFound() {
+        // Arrange
+        InscripcionRequest request = new InscripcionRequest(usuario.getIdUsuario(), curso.getIdCurso() + 1000, null, null);
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> inscripcionService.createInscripcion(request));
+        assertEquals(0, inscripcionRepository.count());
+    }
+
+    @Test
+    void cuandoUpdateInscripcionEstado_debeHacerUnSoloUpdate() {
+        // Arrange
+        Long idInscripcion = inscripcionService.createInscripcion(
+                new InscripcionRequest(usuario.getIdUsuario(), curso.getIdCurso(), null, null)).getIdInscripcion();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        inscripcionService.updateInscripcionEstado(idInscripcion, "completado");
+
+        // Assert: antes eran 2 (SELECT de la inscripción y UPDATE de todas sus columnas)
+        assertEquals(1, statistics.getPrepareStatementCount(), "El cambio de estado debería ser un único UPDATE.");
+        assertEquals("completado", inscripcionRepository.findById(idInscripcion).orElseThrow().getEstado());
+    }
+}
@@ -1,33 +1,64 @@
 package com.example.EdutechAPI.api.inscripciones.service;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.EdutechAPI.api.comun.PaginaResponse;
+import com.example.EdutechAPI.api.comun.Paginador;
 import com.example.EdutechAPI.api.cursos.model.Curso;
 import com.example.EdutechAPI.api.cursos.repository.CursoRepository;
+import com.example.EdutechAPI.api.inscripciones.dto.InscripcionBatchItem;
+import com.example.EdutechAPI.api.inscripciones.dto.InscripcionBatchResponse;
+import com.example.EdutechAPI.api.inscripciones.dto.InscripcionPar;
 import com.example.EdutechAPI.api.inscripciones.dto.InscripcionRequest;
 import com.example.EdutechAPI.api.inscripciones.dto.InscripcionResponse;
+import com.example.EdutechAPI.api.inscripciones.dto.ResultadoInscripcionBatch;
+import com.example.EdutechAPI.api.inscripciones.event.InscripcionCambiadaEvent;
 import com.example.EdutechAPI.api.inscripciones.model.Inscripcion;
 import com.example.EdutechAPI.api.inscripciones.repository.InscripcionRepository;
 import com.example.EdutechAPI.api.usuarios.model.Usuario;
 import com.example.EdutechAPI.api.usuarios.repository.UsuarioRepository;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import jakarta.persistence.EntityNotFoundException;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +70,14 @@ class InscripcionServiceTest {
     private UsuarioRepository usuarioRepository;
     @Mock
     private CursoRepository cursoRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+    @Spy
+    private Paginador paginador = new Paginador(20, 100);
 
     @InjectMocks
     private InscripcionService inscripcionService;
@@ -64,25 +103,26 @@ class InscripcionServiceTest {
         // (Long idInscripcion, Usuario usuario, Curso curso, Date fechaInscripcion, String estado)
         Inscripcion inscripcionGuardada = new Inscripcion(1L, usuarioMock, cursoMock, new Date(), "en curso");
 
-        when(usuarioRepository.findById(usuarioId)).thenReturn(Optional.of(usuarioMock));
-        when(cursoRepository.findById(cursoId)).thenReturn(Optional.of(cursoMock));
-        when(inscripcionRepository.findByUsuarioIdUsuarioAndCursoIdCurso(usuarioId, cursoId)).thenReturn(Optional.empty());
-        when(inscripcionRepository.save(any(Inscripcion.class))).thenReturn(inscripcionGuardada);
+        when(usuarioRepository.getReferenceById(usuarioId)).thenReturn(usuarioMock);
+        when(cursoRepository.getReferenceById(cursoId)).thenReturn(cursoMock);
+        when(inscripcionRepository.saveAndFlush(any(Inscripcion.class))).thenReturn(inscripcionGuardada);
 
         // Act
-        Inscripcion resultado = inscripcionService.createInscripcion(request);
+        InscripcionResponse resultado = inscripcionService.createInscripcion(request);
 
         // Assert
         assertNotNull(resultado);
         assertEquals(1L, resultado.getIdInscripcion());
-        assertEquals(usuarioId, resultado.getUsuario().getIdUsuario());
-        assertEquals(cursoId, resultado.getCurso().getIdCurso());
+        assertEquals(usuarioId, resultado.getIdUsuario());
+        assertEquals(cursoId, resultado.getIdCurso());
         assertEquals("en curso", resultado.getEstado());
 
-        verify(usuarioRepository, times(1)).findById(usuarioId);
-        verify(cursoRepository, times(1)).findById(cursoId);
-        verify(inscripcionRepository, times(1)).findByUsuarioIdUsuarioAndCursoIdCurso(usuarioId, cursoId);
-        verify(inscripcionRepository, times(1)).save(any(Inscripcion.class));
+        // Sin lecturas previas: ni usuario, ni curso, ni comprobación de duplicado
+        verify(usuarioRepository, never()).findById(any());
+        verify(cursoRepository, never()).findById(any());
+        verify(inscripcionRepository, never()).findByUsuarioIdUsuarioAndCursoIdCurso(any(), any());
+        verify(inscripcionRepository, times(1)).saveAndFlush(any(Inscripcion.class));
+        verify(eventPublisher).publishEvent(InscripcionCambiadaEvent.alta(1L, cursoId, "en curso"));
     }
 
     @Test
@@ -92,17 +132,17 @@ class InscripcionServiceTest {
         Long cursoId = 10L;
         InscripcionRequest request = new InscripcionRequest(usuarioId, cursoId, null, null);
 
-        when(usuarioRepository.findById(usuarioId)).thenReturn(Optional.empty()); // Usuario no encontrado
+        // La FK de USUARIOS_ID_USUARIO rechaza el INSERT
+        when(inscripcionRepository.saveAndFlush(any(Inscripcion.class)))
+                .thenThrow(violacion(ConstraintViolationException.ConstraintKind.OTHER, "FK_INSCRIPCION_USUARIO"));
 
         // Act & Assert
         Exception exception = assertThrows(EntityNotFoundException.class, () -> {
             inscripcionService.createInscripcion(request);
         });
-        assertEquals("Usuario no encontrado con ID: " + usuarioId, exception.getMessage());
+        assertEquals("Usuario con ID " + usuarioId + " o curso con ID " + cursoId + " no encontrado", exception.getMessage());
 
-        verify(usuarioRepository, times(1)).findById(usuarioId);
-        verifyNoInteractions(cursoRepository); // No se debería llamar a cursoRepository
-        verifyNoInteractions(inscripcionRepository); // Ni a inscripcionRepository
+        verify(usuarioRepository, never()).findById(any());
     }
 
     @Test
@@ -110,17 +150,11 @@ class InscripcionServiceTest {
         // Arrange
         Long usuarioId = 1L;
         Long cursoId = 10L;
-        // Constructores ajustados para que coincidan con tus modelos
-        Usuario usuarioMock = new Usuario(usuarioId, "Juan", "Perez", "juan@mail.com", "pass", new Date(), "activo", 100L, new HashSet<>(), new HashSet<>());
-        Curso cursoMock = new Curso(cursoId, "Matematicas", "Curso de Matematicas avanzado", new Date(), "activo", new HashSet<>());
-        
         InscripcionRequest request = new InscripcionRequest(usuarioId, cursoId, null, null);
 
-        Inscripcion inscripcionExistente = new Inscripcion(5L, usuarioMock, cursoMock, new Date(), "en curso");
-
-        when(usuarioRepository.findById(usuarioId)).thenReturn(Optional.of(usuarioMock));
-        when(cursoRepository.findById(cursoId)).thenReturn(Optional.of(cursoMock));
-        when(inscripcionRepository.findByUsuarioIdUsuarioAndCursoIdCurso(usuarioId, cursoId)).thenReturn(Optional.of(inscripcionExistente)); // Ya existe
+        // La restricción única (usuario, curso) rechaza el INSERT
+        when(inscripcionRepository.saveAndFlush(any(Inscripcion.class)))
+                .thenThrow(violacion(ConstraintViolationException.ConstraintKind.OTHER, "EDUTECH." + Inscripcion.UK_USUARIO_CURSO));
 
         // Act & Assert
         Exception exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -128,25 +162,52 @@ class InscripcionServiceTest {
         });
         assertEquals("El usuario con ID " + usuarioId + " ya está inscrito en el curso con ID " + cursoId, exception.getMessage());
 
-        verify(usuarioRepository, times(1)).findById(usuarioId);
-        verify(cursoRepository, times(1)).findById(cursoId);
-        verify(inscripcionRepository, times(1)).findByUsuarioIdUsuarioAndCursoIdCurso(usuarioId, cursoId);
-        verify(inscripcionRepository, never()).save(any(Inscripcion.class)); // El save no debería ser llamado
+        verify(inscripcionRepository, never()).findByUsuarioIdUsuarioAndCursoIdCurso(any(), any());
+    }
+
+    private DataIntegrityViolationException violacion(ConstraintViolationException.ConstraintKind tipo, String restriccion) {
+        return new DataIntegrityViolationException("violación",
+                new ConstraintViolationException("violación", new SQLException("violación"), "insert", tipo, restriccion));
+    }
+
+
+    @Test
+    void cuandoUpdateInscripcionEstado_sinFilasAfectadas_debeLanzarExcepcion() {
+        // Arrange
+        when(inscripcionRepository.actualizarEstado(99L, "completado")).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> inscripcionService.updateInscripcionEstado(99L, "completado"));
+        verify(inscripcionRepository, never()).findById(any());
     }
 
+    @Test
+    void cuandoUpdateInscripcionCompleta_yUnaEscrituraConcurrenteYaInscribio_debeLanzarIllegalArgument() {
+        // Arrange: la comprobación previa no encuentra el duplicado, pero otra transacción lo inserta antes del flush
+        Usuario usuario = new Usuario(1L, "Juan", "Perez", "juan@mail.com", "pass", new Date(), "activo", 100L, new HashSet<>(), new HashSet<>());
+        Curso cursoActual = new Curso(10L, "Matematicas", "Curso de Matematicas", new Date(), "activo", new HashSet<>());
+        Curso cursoNuevo = new Curso(11L, "Historia", "Curso de Historia", new Date(), "activo", new HashSet<>());
+        when(inscripcionRepository.findById(5L)).thenReturn(Optional.of(new Inscripcion(5L, usuario, cursoActual, new Date(), "en curso")));
+        when(cursoRepository.findById(11L)).thenReturn(Optional.of(cursoNuevo));
+        when(inscripcionRepository.saveAndFlush(any(Inscripcion.class)))
+                .thenThrow(violacion(ConstraintViolationException.ConstraintKind.UNIQUE, Inscripcion.UK_USUARIO_CURSO));
+
+        // Act & Assert
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> inscripcionService.updateInscripcionCompleta(5L, new InscripcionRequest(1L, 11L, null, null)));
+        assertEquals("El usuario con ID 1 ya está inscrito en el curso con ID 11", exception.getMessage());
+        verifyNoInteractions(eventPublisher);
+    }
 
     // --- Prueba para `getInscripcionById()` ---
     @Test
     void cuandoGetInscripcionById_conIdExistente_debeRetornarInscripcionResponse() {
         // Arrange
         Long idExistente = 1L;
-        // Constructores ajustados para que coincidan con tus modelos
-        Usuario usuarioMock = new Usuario(10L, "Laura", "Diaz", "laura@mail.com", "pass", new Date(), "activo", 100L, new HashSet<>(), new HashSet<>());
-        Curso cursoMock = new Curso(20L, "Historia", "Curso de Historia Antigua", new Date(), "activo", new HashSet<>());
-        
-        Inscripcion inscripcionSimulada = new Inscripcion(idExistente, usuarioMock, cursoMock, new Date(), "finalizada");
+        // La proyección del repositorio ya trae el DTO armado con los datos de usuario y curso
+        InscripcionResponse proyeccion = new InscripcionResponse(idExistente, 10L, "Laura Diaz", 20L, "Historia", new Date(), "finalizada");
 
-        when(inscripcionRepository.findById(idExistente)).thenReturn(Optional.of(inscripcionSimulada));
+        when(inscripcionRepository.findResponseById(idExistente)).thenReturn(Optional.of(proyeccion));
 
         // Act
         InscripcionResponse resultado = inscripcionService.getInscripcionById(idExistente);
@@ -154,13 +215,14 @@ class InscripcionServiceTest {
         // Assert
         assertNotNull(resultado);
         assertEquals(idExistente, resultado.getIdInscripcion());
-        assertEquals(usuarioMock.getIdUsuario(), resultado.getIdUsuario());
-        assertEquals(usuarioMock.getNombre() + " " + usuarioMock.getApellido(), resultado.getNombreUsuario());
-        assertEquals(cursoMock.getIdCurso(), resultado.getIdCurso());
-        assertEquals(cursoMock.getNombreCurso(), resultado.getNombreCurso());
+        assertEquals(10L, resultado.getIdUsuario());
+        assertEquals("Laura Diaz", resultado.getNombreUsuario());
+        assertEquals(20L, resultado.getIdCurso());
+        assertEquals("Historia", resultado.getNombreCurso());
         assertEquals("finalizada", resultado.getEstado());
 
-        verify(inscripcionRepository, times(1)).findById(idExistente);
+        verify(inscripcionRepository, times(1)).findResponseById(idExistente);
+        verify(inscripcionRepository, never()).findById(any());
         verifyNoInteractions(usuarioRepository); // No debería interactuar con otros repositorios para un GET by ID
         verifyNoInteractions(cursoRepository);
     }
@@ -169,7 +231,7 @@ class InscripcionServiceTest {
     void cuandoGetInscripcionById_conIdNoExistente_debeLanzarExcepcion() {
         // Arrange
         Long idNoExistente = 99L;
-        when(inscripcionRepository.findById(idNoExistente)).thenReturn(Optional.empty());
+        when(inscripcionRepository.findResponseById(idNoExistente)).thenReturn(Optional.empty());
 
         // Act & Assert
         Exception exception = assertThrows(EntityNotFoundException.class, () -> {
@@ -177,6 +239,121 @@ class InscripcionServiceTest {
         });
         assertEquals("Inscripción no encontrada con ID: " + idNoExistente, exception.getMessage());
 
-        verify(inscripcionRepository, times(1)).findById(idNoExistente);
+        verify(inscripcionRepository, times(1)).findResponseById(idNoExistente);
+    }
+
+    @Test
+    void cuandoGetInscripcionesByUsuario_conInscripciones_noDebeConsultarElUsuario() {
+        // Arrange
+        Usuario laura = new Usuario(10L, "Laura", "Diaz", "laura@mail.com", "pass", new Date(), "activo", 100L, new HashSet<>(), new HashSet<>());
+        Curso historia = new Curso(20L, "Historia", "Curso de Historia", new Date(), "activo", new HashSet<>());
+        when(inscripcionRepository.findBy(any(Specification.class), any())).thenReturn(
+                Window.from(List.of(new Inscripcion(1L, laura, historia, new Date(), "en curso")), i -> ScrollPosition.keyset()));
+
+        // Act
+        PaginaResponse<InscripcionResponse> resultado = inscripcionService.getInscripcionesByUsuarioPaginadas(10L, null, null, null);
+
+        // Assert
+        assertEquals(1, resultado.getContenido().size());
+        assertEquals("Laura Diaz", resultado.getContenido().get(0).getNombreUsuario());
+        verifyNoInteractions(usuarioRepository);
+    }
+
+    @Test
+    void cuandoGetInscripcionesByUsuario_conUsuarioInexistente_debeLanzarExcepcion() {
+        // Arrange
+        when(inscripcionRepository.findBy(any(Specification.class), any())).thenReturn(
+                Window.from(List.<Inscripcion>of(), i -> ScrollPosition.keyset()));
+        when(usuarioRepository.existsById(99L)).thenReturn(false);
+
+        // Act & Assert
+        assertThrows(EntityNotFoundException.class, () -> inscripcionService.getInscripcionesByUsuarioPaginadas(99L, null, null, null));
+    }
+
+    @Test
+    void cuandoCreateInscripcionesBatch_debeClasificarCadaSolicitudSinFallarElLote() {
+        // Arrange: usuario 1 y 2 existen, usuario 99 no; el curso 10 existe; (2, 10) ya estaba inscrito
+        List<InscripcionRequest> solicitudes = List.of(
+                new InscripcionRequest(1L, 10L, null, null),
+                new InscripcionRequest(2L, 10L, null, null),
+                new InscripcionRequest(99L, 10L, null, null),
+                new InscripcionRequest(1L, 10L, null, null)); // Repetida dentro del lote
+        when(usuarioRepository.findIdsExistentes(anyCollection())).thenReturn(List.of(1L, 2L));
+        when(cursoRepository.findIdsExistentes(anyCollection())).thenReturn(List.of(10L));
+        when(inscripcionRepository.findPares(anyCollection(), anyCollection())).thenReturn(List.of(new InscripcionPar(2L, 10L)));
+        ejecutarTransaccionesEnLinea();
+
+        // Act
+        InscripcionBatchResponse respuesta = inscripcionService.createInscripcionesBatch(solicitudes);
+
+        // Assert
+        assertEquals(1, respuesta.getCreadas());
+        assertEquals(2, respuesta.getDuplicadas());
+        assertEquals(1, respuesta.getNoEncontradas());
+        assertEquals(List.of(ResultadoInscripcionBatch.CREADA, ResultadoInscripcionBatch.DUPLICADA,
+                        ResultadoInscripcionBatch.USUARIO_NO_ENCONTRADO, ResultadoInscripcionBatch.DUPLICADA),
+                respuesta.getResultados().stream().map(InscripcionBatchItem::getResultado).toList());
+        // Solo la inscripción nueva se inserta; nunca se consulta usuario por usuario
+        verify(inscripcionRepository, times(1)).saveAllAndFlush(argThat(nuevas -> nuevas.iterator().hasNext()));
+        verify(usuarioRepository, never()).findById(any());
+    }
+
+    @Test
+    void cuandoUnaInscripcionConcurrenteChocaConUnLote_debeReintentarFilaAFilaYMarcarlaDuplicada() {
+        // Arrange: (1, 10) y (1, 11) pasan la validación, pero otra petición inscribe (1, 11) antes del INSERT
+        List<InscripcionRequest> solicitudes = List.of(
+                new InscripcionRequest(1L, 10L, null, null),
+                new InscripcionRequest(1L, 11L, null, null));
+        when(usuarioRepository.findIdsExistentes(anyCollection())).thenReturn(List.of(1L));
+        when(cursoRepository.findIdsExistentes(anyCollection())).thenReturn(List.of(10L, 11L));
+        when(inscripcionRepository.saveAllAndFlush(anyIterable()))
+                .thenThrow(violacion(ConstraintViolationException.ConstraintKind.UNIQUE, Inscripcion.UK_USUARIO_CURSO))
+                .thenReturn(List.of())
+                .thenThrow(violacion(ConstraintViolationException.ConstraintKind.UNIQUE, Inscripcion.UK_USUARIO_CURSO));
+        ejecutarTransaccionesEnLinea();
+
+        // Act
+        InscripcionBatchResponse respuesta = inscripcionService.createInscripcionesBatch(solicitudes);
+
+        // Assert: el lote entero, y después cada fila en su transacción
+        assertEquals(1, respuesta.getCreadas());
+        assertEquals(1, respuesta.getDuplicadas());
+        assertEquals(List.of(ResultadoInscripcionBatch.CREADA, ResultadoInscripcionBatch.DUPLICADA),
+                respuesta.getResultados().stream().map(InscripcionBatchItem::getResultado).toList());
+        verify(inscripcionRepository, times(3)).saveAllAndFlush(anyIterable());
+        verify(eventPublisher, times(1)).publishEvent(any(InscripcionCambiadaEvent.class));
+    }
+
+    // Sin gestor de transacciones: el TransactionTemplate simulado ejecuta cada callback directamente
+    @SuppressWarnings("unchecked")
+    private void ejecutarTransaccionesEnLinea() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocacion -> ((TransactionCallback<Object>) invocacion.getArgument(0)).doInTransaction(null));
+        doAnswer(invocacion -> {
+            ((Consumer<TransactionStatus>) invocacion.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void cuandoExportarInscripciones_debeEscribirUnaLineaJsonPorInscripcionYCerrarElStream() throws Exception {
+        // Arrange
+        AtomicBoolean cerrado = new AtomicBoolean();
+        Stream<InscripcionResponse> filas = Stream.of(
+                new InscripcionResponse(1L, 1L, "Juan Perez", 10L, "Matematicas", new Date(), "en curso"),
+                new InscripcionResponse(2L, 2L, "Ana Diaz", 10L, "Matematicas", new Date(), "completado"))
+                .onClose(() -> cerrado.set(true));
+        when(inscripcionRepository.streamParaExportacion()).thenReturn(filas);
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        // Act
+        long escritas = inscripcionService.exportarInscripciones(salida);
+
+        // Assert
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, escritas);
+        assertEquals(2, lineas.length);
+        assertEquals(2L, objectMapper.readValue(lineas[1], InscripcionResponse.class).getIdInscripcion());
+        assertTrue(salida.toString(StandardCharsets.UTF_8).endsWith("}\n"));
+        assertTrue(cerrado.get(), "El stream de la consulta debe cerrarse para liberar el cursor JDBC.");
     }
-}
\ No newline at end of file
+}
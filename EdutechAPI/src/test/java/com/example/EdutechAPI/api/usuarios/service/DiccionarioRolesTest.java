@@ -0,0 +1,78 @@
+package com.example.EdutechAPI.api.usuarios.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.example.EdutechAPI.api.usuarios.model.Rol;
+import com.example.EdutechAPI.api.usuarios.repository.RolRepository;
+
+@ExtendWith(MockitoExtension.class)
+class DiccionarioRolesTest {
+
+    @Mock
+    private RolRepository rolRepository;
+
+    @Test
+    void cuandoBuscarRolesConocidos_debeResolverlosSinConsultarDeNuevo() {
+        // Arrange
+        when(rolRepository.findAll()).thenReturn(List.of(new Rol(1L, "Estudiante"), new Rol(2L, "Profesor")));
+        DiccionarioRoles diccionario = new DiccionarioRoles(rolRepository, 60_000);
+        diccionario.cargarInicial();
+
+        // Act
+        Rol primero = diccionario.buscar("estudiante").orElseThrow();
+        Rol segundo = diccionario.buscar("ESTUDIANTE").orElseThrow();
+
+        // Assert
+        assertEquals(new Rol(1L, "Estudiante"), primero);
+        assertNotSame(primero, segundo, "Cada llamada devuelve una copia: nadie puede modificar el diccionario.");
+        assertEquals(2L, diccionario.buscar("Profesor").orElseThrow().getIdRol());
+        verify(rolRepository, times(1)).findAll();
+    }
+
+    @Test
+    void cuandoBuscarRolDesconocido_debeRecargarComoMaximoUnaVezPorIntervalo() {
+        // Arrange
+        when(rolRepository.findAll())
+                .thenReturn(List.of(new Rol(1L, "Estudiante")))
+                .thenReturn(List.of(new Rol(1L, "Estudiante"), new Rol(3L, "Tutor")));
+        DiccionarioRoles conIntervalo = new DiccionarioRoles(rolRepository, 60_000);
+        conIntervalo.cargarInicial();
+
+        // Act
+        boolean tutorEncontrado = conIntervalo.buscar("Tutor").isPresent();
+
+        // Assert: dentro del intervalo mínimo, un rol desconocido no vuelve a consultar la tabla
+        assertTrue(!tutorEncontrado);
+        verify(rolRepository, times(1)).findAll();
+
+        // Act: tras una recarga explícita el rol nuevo ya está disponible
+        conIntervalo.refrescar();
+        assertEquals(3L, conIntervalo.buscar("tutor").orElseThrow().getIdRol());
+        assertEquals(2, conIntervalo.size());
+    }
+
+    @Test
+    void cuandoLaBaseNoEstabaDisponibleAlArrancar_debeCargarEnElPrimerUso() {
+        // Arrange
+        when(rolRepository.findAll())
+                .thenThrow(new IllegalStateException("sin conexión"))
+                .thenReturn(List.of(new Rol(1L, "Estudiante")));
+        DiccionarioRoles diccionario = new DiccionarioRoles(rolRepository, 60_000);
+        diccionario.cargarInicial();
+
+        // Act & Assert
+        assertEquals(1L, diccionario.buscar("Estudiante").orElseThrow().getIdRol());
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.EdutechAPI.api.usuarios.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.EdutechAPI.api.comun.PaginaResponse;
+import com.example.EdutechAPI.api.comun.Paginador;
+import com.example.EdutechAPI.api.usuarios.model.Rol;
+import com.example.EdutechAPI.api.usuarios.model.Usuario;
+import com.example.EdutechAPI.api.usuarios.repository.RolRepository;
+import com.example.EdutechAPI.api.usuarios.repository.UsuarioRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+// Fija cuántas consultas cuesta cada lectura de usuarios: los roles (LAZY) solo se cargan cuando se piden
+@DataJpaTest
+@ActiveProfiles("h2")
+class UsuarioConsultasTest {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private RolRepository rolRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UsuarioService usuarioService;
+    private Usuario primero;
+
+    @BeforeEach
+    void setUp() {
+        Rol estudiante = rolRepository.save(new Rol(null, "Estudiante"));
+        Rol profesor = rolRepository.save(new Rol(null, "Profesor"));
+        DiccionarioRoles diccionarioRoles = new DiccionarioRoles(rolRepository, 60_000);
+        diccionarioRoles.refrescar();
+        usuarioService = new UsuarioService(usuarioRepository, diccionarioRoles, evento -> { }, new Paginador(20, 100));
+        for (int i = 0; i < 30; i++) {
+            Usuario usuario = usuarioRepository.save(new Usuario(null, "Nombre" + i, "Apellido" + i, "user" + i + "@example.com", "pass",
+                    new Date(), "activo", 100L, new HashSet<>(i % 2 == 0 ? Set.of(estudiante) : Set.of(estudiante, profesor)), new HashSet<>()));
+            if (i == 0) {
+                primero = usuario;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void cuandoListarUsuariosConRoles_debeHacerDosConsultasPorPagina() {
+        // Act
+        PaginaResponse<Usuario> pagina = consultas(2, () -> usuarioService.obtenerUsuariosPaginados("id", null, 20, true));
+
+        // Assert
+        assertEquals(20, pagina.getContenido().size());
+        assertTrue(pagina.getContenido().stream().allMatch(u -> Hibernate.isInitialized(u.getRoles())));
+        assertEquals(2, pagina.getContenido().get(1).getRoles().size());
+    }
+
+    @Test
+    void cuandoListarUsuariosSinRoles_debeHacerUnaSolaConsulta() {
+        // Act
+        PaginaResponse<Usuario> pagina = consultas(1, () -> usuarioService.obtenerUsuariosPaginados("id", null, 20, false));
+
+        // Assert
+        assertFalse(Hibernate.isInitialized(pagina.getContenido().get(0).getRoles()));
+    }
+
+    @Test
+    void cuandoObtenerUsuarioPorIdOEmail_debeTraerLosRolesEnLaMismaConsulta() {
+        // Act
+        Usuario porId = consultas(1, () -> usuarioService.obtenerUsuarioPorId(primero.getIdUsuario()).orElseThrow());
+        entityManager.clear();
+        Usuario porEmail = consultas(1, () -> usuarioService.obtenerUsuarioPorEmail("user0@example.com").orElseThrow());
+        entityManager.clear();
+        Set<Rol> roles = consultas(1, () -> usuarioService.obtenerRolesDeUsuario(primero.getIdUsuario()));
+
+        // Assert
+        assertTrue(Hibernate.isInitialized(porId.getRoles()));
+        assertTrue(Hibernate.isInitialized(porEmail.getRoles()));
+        assertEquals(1, roles.size());
+    }
+
+    @Test
+    void cuandoBuscarUsuarioSinNecesitarRoles_noDebeCargarlos() {
+        // Act
+        Usuario usuario = consultas(1, () -> usuarioRepository.findById(primero.getIdUsuario()).orElseThrow());
+
+        // Assert
+        assertFalse(Hibernate.isInitialized(usuario.getRoles()));
+    }
+
+    @Test
+    void cuandoCrearYAsignarRoles_noDebeConsultarLaTablaRoles() {
+        // Arrange
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Usuario nuevo = new Usuario(null, "Arya", "Stark", "arya@example.com", "pass", new Date(), null, 100L,
+                new HashSet<>(Set.of(new Rol(null, "estudiante"))), new HashSet<>());
+        statistics.clear();
+
+        // Act
+        Usuario creado = usuarioService.crearUsuario(nuevo);
+        entityManager.flush();
+        entityManager.clear();
+        usuarioService.asignarRolAUsuario(creado.getIdUsuario(), "Profesor");
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        // Solo se lee el rol que el usuario ya tenía (junto con el usuario); los nombres se resuelven en memoria
+        assertEquals(1, statistics.getEntityStatistics(Rol.class.getName()).getLoadCount(), "Los roles deberían salir del diccionario.");
+        assertEquals(2, usuarioRepository.findConRolesByIdUsuario(creado.getIdUsuario()).orElseThrow().getRoles().size());
+    }
+
+    @Test
+    void cuandoAsignarODesasignarRol_debeSubirLaVersionDelUsuario() {
+        // Arrange: la versión es la versión de token; un cambio de roles tiene que invalidar los tokens anteriores
+        Long inicial = primero.getVersion();
+
+        // Act
+        usuarioService.asignarRolAUsuario(primero.getIdUsuario(), "Profesor");
+        entityManager.flush();
+        entityManager.clear();
+        Long trasAsignar = usuarioRepository.findVersionById(primero.getIdUsuario()).orElseThrow();
+        usuarioService.desasignarRolAUsuario(primero.getIdUsuario(), "Profesor");
+        entityManager.flush();
+        entityManager.clear();
+        Long trasDesasignar = usuarioRepository.findVersionById(primero.getIdUsuario()).orElseThrow();
+
+        // Assert
+        assertEquals(inicial + 1, trasAsignar);
+        assertEquals(inicial + 2, trasDesasignar);
+    }
+
+    @Test
+    void cuandoActualizarUsuarioParcialmente_debeHacerUnUpdateYSoloCambiarLoEnviado() {
+        // Arrange: solo se envía el estado
+        Usuario cambios = new Usuario();
+        cambios.setEstado("inactivo");
+
+        // Act: solo el UPDATE, sin SELECT previo ni lectura posterior
+        Long nuevaVersion = consultas(1, () -> usuarioService.actualizarUsuario(primero.getIdUsuario(), cambios, 0L));
+
+        // Assert
+        Usuario actualizado = usuarioRepository.findById(primero.getIdUsuario()).orElseThrow();
+        assertEquals("inactivo", actualizado.getEstado());
+        assertEquals("Nombre0", actualizado.getNombre());
+        assertEquals("user0@example.com", actualizado.getEmail());
+        assertEquals(1L, nuevaVersion);
+        assertEquals(1L, actualizado.getVersion());
+    }
+
+    private <T> T consultas(long esperadas, Supplier<T> accion) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        T resultado = accion.get();
+        // Tocar los roles ya cargados no debe disparar consultas nuevas
+        if (resultado instanceof PaginaResponse<?> pagina) {
+            pagina.getContenido().stream().map(u -> (Usuario) u)
+                    .filter(u -> Hibernate.isInitialized(u.getRoles())).forEach(u -> u.getRoles().size());
+        }
+        assertEquals(esperadas, statistics.getPrepareStatementCount());
+        return resultado;
+    }
+}
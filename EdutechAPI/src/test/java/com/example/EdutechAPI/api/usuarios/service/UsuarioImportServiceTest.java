@@ -0,0 +1,118 @@
+package com.example.EdutechAPI.api.usuarios.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.EdutechAPI.api.usuarios.dto.FormatoImportacion;
+import com.example.EdutechAPI.api.usuarios.dto.ImportacionProgreso;
+import com.example.EdutechAPI.api.usuarios.model.Rol;
+import com.example.EdutechAPI.api.usuarios.model.Usuario;
+import com.example.EdutechAPI.api.usuarios.repository.RolRepository;
+import com.example.EdutechAPI.api.usuarios.repository.UsuarioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+
+// Cada lote se confirma en su propia transacción, así que el test no corre dentro de una
+@DataJpaTest
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UsuarioImportServiceTest {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private RolRepository rolRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManager entityManager;
+
+    private UsuarioImportService usuarioImportService;
+
+    @BeforeEach
+    void setUp() {
+        rolRepository.save(new Rol(null, "Estudiante"));
+        usuarioRepository.save(new Usuario(null, "Jon", "Snow", "jon.snow@example.com", "hash",
+                new Date(), "activo", 100L, new HashSet<>(), new HashSet<>()));
+        usuarioImportService = new UsuarioImportService(usuarioRepository, new DiccionarioRoles(rolRepository, 0), new BCryptPasswordEncoder(4),
+                new TransactionTemplate(transactionManager), entityManager, new ObjectMapper(), 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        usuarioImportService.shutdown();
+        usuarioRepository.deleteAll();
+        rolRepository.deleteAll();
+    }
+
+    @Test
+    void cuandoImportaCsv_debeCrearNuevosYContarDuplicadosYErrores() {
+        // Arrange
+        String csv = """
+                nombre,apellido,email,contrasena,roles
+                Arya,Stark,arya@example.com,Password123,estudiante
+                Jon,Snow,jon.snow@example.com,Password123,Estudiante
+                "Sansa, la dama",Stark,sansa@example.com,Password123,
+                Bran,Stark,bran@example.com,Password123,Cuervo
+                Arya,Stark,arya@example.com,Password123,Estudiante
+                """;
+
+        // Act
+        ImportacionProgreso progreso = usuarioImportService.importar("csv-1", stream(csv), FormatoImportacion.CSV, 0);
+
+        // Assert
+        assertEquals(ImportacionProgreso.Estado.COMPLETADA, progreso.getEstado());
+        assertEquals(2, progreso.getCreados());
+        assertEquals(2, progreso.getDuplicados());
+        assertEquals(1, progreso.getConErrores());
+        assertEquals(5, progreso.getFilaConfirmada());
+        Usuario arya = usuarioRepository.findConRolesByEmail("arya@example.com").orElseThrow();
+        assertEquals(1, arya.getRoles().size());
+        assertTrue(new BCryptPasswordEncoder().matches("Password123", arya.getContrasena()));
+        assertEquals("Sansa, la dama", usuarioRepository.findByEmail("sansa@example.com").orElseThrow().getNombre());
+    }
+
+    @Test
+    void cuandoSeReanudaConOmitirFilas_debeSaltarLasFilasYaConfirmadas() {
+        // Arrange
+        String ndjson = """
+                {"nombre":"Arya","email":"arya@example.com","contrasena":"Password123","roles":["Estudiante"]}
+                esto no es json
+                {"nombre":"Bran","email":"bran@example.com","contrasena":"Password123"}
+                """;
+
+        // Act
+        ImportacionProgreso progreso = usuarioImportService.importar("ndjson-1", stream(ndjson), FormatoImportacion.NDJSON, 2);
+
+        // Assert
+        assertEquals(ImportacionProgreso.Estado.COMPLETADA, progreso.getEstado());
+        assertEquals(1, progreso.getCreados());
+        assertEquals(0, progreso.getConErrores());
+        assertEquals(3, progreso.getFilaConfirmada());
+        assertTrue(usuarioRepository.findByEmail("arya@example.com").isEmpty());
+        assertTrue(usuarioRepository.findByEmail("bran@example.com").isPresent());
+    }
+
+    private static InputStream stream(String contenido) {
+        return new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8));
+    }
+}
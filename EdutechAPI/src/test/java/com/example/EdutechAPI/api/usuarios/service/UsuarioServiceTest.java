@@ -15,14 +15,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import com.example.EdutechAPI.api.usuarios.event.UsuarioModificadoEvent;
+import com.example.EdutechAPI.api.usuarios.model.Rol;
 import com.example.EdutechAPI.api.usuarios.model.Usuario;
-import com.example.EdutechAPI.api.usuarios.repository.RolRepository;
 import com.example.EdutechAPI.api.usuarios.repository.UsuarioRepository;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,7 +35,10 @@ class UsuarioServiceTest {
     private UsuarioRepository usuarioRepository;
 
     @Mock
-    private RolRepository rolRepository;
+    private DiccionarioRoles diccionarioRoles;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private UsuarioService usuarioService;
@@ -90,7 +96,7 @@ class UsuarioServiceTest {
         // Verificamos que los métodos del repositorio fueron llamados.
         verify(usuarioRepository, times(1)).findByEmail(nuevoUsuario.getEmail());
         verify(usuarioRepository, times(1)).save(any(Usuario.class));
-        verifyNoInteractions(rolRepository);
+        verifyNoInteractions(diccionarioRoles);
     }
 
     @Test
@@ -110,7 +116,7 @@ class UsuarioServiceTest {
             new HashSet<>()
         );
 
-        when(usuarioRepository.findById(idExistente)).thenReturn(Optional.of(usuarioSimulado));
+        when(usuarioRepository.findConRolesByIdUsuario(idExistente)).thenReturn(Optional.of(usuarioSimulado));
 
         // Act
         Optional<Usuario> resultado = usuarioService.obtenerUsuarioPorId(idExistente);
@@ -120,23 +126,23 @@ class UsuarioServiceTest {
         assertEquals(idExistente, resultado.get().getIdUsuario(), "El ID del usuario no coincide.");
         assertEquals("Nombre", resultado.get().getNombre(), "El nombre del usuario no coincide.");
 
-        verify(usuarioRepository, times(1)).findById(idExistente);
-        verifyNoInteractions(rolRepository);
+        verify(usuarioRepository, times(1)).findConRolesByIdUsuario(idExistente);
+        verifyNoInteractions(diccionarioRoles);
     }
 
     @Test
     void cuandoObtenerUsuarioPorId_conIdNoExistente_debeRetornarOptionalVacio() {
         // Arrange
         Long idNoExistente = 99L;
-        when(usuarioRepository.findById(idNoExistente)).thenReturn(Optional.empty());
+        when(usuarioRepository.findConRolesByIdUsuario(idNoExistente)).thenReturn(Optional.empty());
 
         // Act
         Optional<Usuario> resultado = usuarioService.obtenerUsuarioPorId(idNoExistente);
 
         // Assert
         assertFalse(resultado.isPresent(), "El usuario no debería estar presente.");
-        verify(usuarioRepository, times(1)).findById(idNoExistente);
-        verifyNoInteractions(rolRepository);
+        verify(usuarioRepository, times(1)).findConRolesByIdUsuario(idNoExistente);
+        verifyNoInteractions(diccionarioRoles);
     }
 
     @Test
@@ -161,7 +167,7 @@ class UsuarioServiceTest {
         assertEquals("user1@example.com", resultado.get(0).getEmail(), "El email del primer usuario no coincide.");
 
         verify(usuarioRepository, times(1)).findAll();
-        verifyNoInteractions(rolRepository);
+        verifyNoInteractions(diccionarioRoles);
     }
 
     @Test
@@ -176,6 +182,27 @@ class UsuarioServiceTest {
         assertNotNull(resultado);
         assertTrue(resultado.isEmpty());
         verify(usuarioRepository, times(1)).findAll();
-        verifyNoInteractions(rolRepository);
+        verifyNoInteractions(diccionarioRoles);
+    }
+
+    @Test
+    void cuandoAsignarRolAUsuario_conRolNuevo_debePublicarEventoDeModificacion() {
+        // Arrange
+        Long idUsuario = 1L;
+        Usuario usuario = new Usuario(
+            idUsuario, "Nombre", "Apellido", "user@example.com", "pass", new Date(), "activo", 101L, new HashSet<>(), new HashSet<>()
+        );
+        Rol rolProfesor = new Rol(2L, "Profesor");
+
+        when(usuarioRepository.findConRolesByIdUsuario(idUsuario)).thenReturn(Optional.of(usuario));
+        when(diccionarioRoles.buscar("Profesor")).thenReturn(Optional.of(rolProfesor));
+
+        // Act
+        Usuario resultado = usuarioService.asignarRolAUsuario(idUsuario, "Profesor");
+
+        // Assert
+        assertTrue(resultado.getRoles().contains(rolProfesor), "El rol debería quedar asignado.");
+        verify(eventPublisher, times(1)).publishEvent(new UsuarioModificadoEvent(idUsuario));
+        verify(usuarioRepository, never()).save(any(Usuario.class)); // El usuario administrado se guarda al confirmar
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,76 @@
+package com.example.EdutechAPI.config;
+
+import java.util.HashMap;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.example.EdutechAPI.security.EventosSeguridad;
+import com.example.EdutechAPI.security.JwtPrincipal;
+import com.example.EdutechAPI.security.TipoEventoSeguridad;
+import com.example.EdutechAPI.security.VerifiedTokenCache;
+
+class AESUtilTest {
+
+    private static final String SECRET = "U1z7W1Kjh2lRZzCQVqyLzczUU2bf2cN/slhgFVspJ20=";
+
+    private VerifiedTokenCache verifiedTokenCache;
+    private EventosSeguridad eventosSeguridad;
+    private AESUtil aesUtil;
+
+    @BeforeEach
+    void setUp() {
+        verifiedTokenCache = new VerifiedTokenCache(100);
+        eventosSeguridad = new EventosSeguridad(100, 1, 5, new SimpleMeterRegistry());
+        aesUtil = new AESUtil(verifiedTokenCache, eventosSeguridad);
+        ReflectionTestUtils.setField(aesUtil, "secretString", SECRET);
+    }
+
+    @Test
+    void cuandoVerifyToken_dosVeces_laSegundaSaleDeLaCache() {
+        // Arrange
+        String token = aesUtil.generateToken("jon.snow@example.com");
+
+        // Act
+        Optional<JwtPrincipal> primera = aesUtil.verifyToken(token);
+        Optional<JwtPrincipal> segunda = aesUtil.verifyToken(token);
+
+        // Assert
+        assertTrue(primera.isPresent(), "El token recién generado debería ser válido.");
+        assertEquals("jon.snow@example.com", primera.get().username());
+        assertSame(primera.get(), segunda.get(), "La segunda verificación debería reutilizar el principal cacheado.");
+        assertEquals(1, verifiedTokenCache.size());
+    }
+
+    @Test
+    void cuandoVerifyToken_conFirmaAlterada_debeRechazarlo() {
+        // Arrange
+        String token = aesUtil.generateToken("jon.snow@example.com");
+        // Se cambia el primer carácter de la firma: el último solo aporta algunos bits y podría no alterarla
+        int inicioFirma = token.lastIndexOf('.') + 1;
+        char original = token.charAt(inicioFirma);
+        String alterado = token.substring(0, inicioFirma) + (original == 'A' ? 'B' : 'A') + token.substring(inicioFirma + 1);
+
+        // Act & Assert
+        assertFalse(aesUtil.verifyToken(alterado).isPresent(), "Un token con la firma alterada no debería validarse.");
+        assertEquals(0, verifiedTokenCache.size(), "Los tokens inválidos no se guardan en la caché.");
+    }
+
+    @Test
+    void cuandoVerifyToken_conTokenExpirado_debeRechazarlo() {
+        // Arrange
+        String token = aesUtil.generateToken("jon.snow@example.com", new HashMap<>(), -1000);
+
+        // Act & Assert
+        assertFalse(aesUtil.verifyToken(token).isPresent(), "Un token expirado no debería validarse.");
+        assertEquals(1, eventosSeguridad.contador(TipoEventoSeguridad.TOKEN_EXPIRADO));
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.EdutechAPI.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.HashSet;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.EdutechAPI.api.comun.Paginador;
+import com.example.EdutechAPI.api.cursos.model.Curso;
+import com.example.EdutechAPI.api.cursos.repository.CursoRepository;
+import com.example.EdutechAPI.api.cursos.service.CursoService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+// Cada llamada al servicio abre su propia sesión, así que lo que no llega a la base de datos sale de la caché de segundo nivel
+@DataJpaTest
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({CacheSegundoNivel.class, CacheSegundoNivelProperties.class, CursoService.class, Paginador.class,
+        CacheSegundoNivelTest.Config.class})
+class CacheSegundoNivelTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private CursoService cursoService;
+    @Autowired
+    private CursoRepository cursoRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private Curso curso;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        curso = cursoService.createCurso(new Curso(null, "Matematicas", "Curso de Matematicas avanzado", new Date(), "activo", new HashSet<>()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cursoRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void cuandoGetCursoByIdSeRepite_debeLeerseDeLaCache() {
+        // Arrange
+        entityManagerFactory.getCache().evictAll();
+        cursoService.getCursoById(curso.getIdCurso());
+        statistics.clear();
+
+        // Act
+        Curso leido = cursoService.getCursoById(curso.getIdCurso()).orElseThrow();
+
+        // Assert
+        assertEquals("Matematicas", leido.getNombreCurso());
+        assertEquals(0, statistics.getPrepareStatementCount(), "La segunda lectura no debería llegar a la base de datos.");
+        double tasaAciertos = meterRegistry.get("cache.hit.ratio").tag("cache", CacheSegundoNivel.REGION_CURSOS).gauge().value();
+        assertTrue(tasaAciertos > 0 && tasaAciertos < 1, "La región debería registrar un fallo y un acierto, fue " + tasaAciertos);
+    }
+
+    @Test
+    void cuandoUpdateCurso_noDebeLeerseElValorViejoDeLaCache() {
+        // Arrange
+        cursoService.getCursoById(curso.getIdCurso());
+        Curso cambios = new Curso(null, "Algebra", "Curso de Algebra", null, "inactivo", null);
+
+        // Act: el UPDATE masivo invalida la región de cursos al hacer commit
+        cursoService.updateCurso(curso.getIdCurso(), cambios);
+        Curso leido = cursoService.getCursoById(curso.getIdCurso()).orElseThrow();
+
+        // Assert
+        assertEquals("Algebra", leido.getNombreCurso());
+        assertEquals("inactivo", leido.getEstado());
+        assertEquals(1L, leido.getVersion());
+    }
+
+    @Test
+    void cuandoDeleteCurso_debeDesalojarseDeLaCache() {
+        // Arrange
+        cursoService.getCursoById(curso.getIdCurso());
+
+        // Act
+        cursoService.deleteCurso(curso.getIdCurso());
+        statistics.clear();
+
+        // Assert: READ_WRITE deja un bloqueo en lugar del valor, así que la lectura vuelve a la base de datos
+        assertTrue(cursoService.getCursoById(curso.getIdCurso()).isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.EdutechAPI.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// Dos H2 embebidas hacen de primario y réplica; cada una guarda su propio nombre en la tabla ORIGEN,
+// así que leerla dice a qué base de datos llegó la consulta
+class EnrutamientoLecturaDataSourceTest {
+
+    private static final String LEER_ORIGEN = "SELECT NOMBRE FROM ORIGEN";
+
+    private EmbeddedDatabase primaria;
+    private EmbeddedDatabase replica;
+    private ReplicaSimulada replicaSimulada;
+    private EnrutamientoLecturaDataSource enrutamiento;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate lectura;
+    private TransactionTemplate escritura;
+
+    @BeforeEach
+    void setUp() {
+        primaria = crearBase("primaria");
+        replica = crearBase("replica");
+        replicaSimulada = new ReplicaSimulada(replica);
+        ReplicaLecturaProperties properties = new ReplicaLecturaProperties();
+        properties.setVentanaLecturaPropia(Duration.ofMinutes(1));
+        enrutamiento = new EnrutamientoLecturaDataSource(primaria, replicaSimulada, properties);
+
+        // Igual que en ReplicaLectura: el proxy perezoso pide la conexión cuando la transacción ya es readOnly
+        DataSource dataSource = new LazyConnectionDataSourceProxy(enrutamiento);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        escritura = new TransactionTemplate(transactionManager);
+        lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        primaria.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void cuandoLaTransaccionEsReadOnly_debeIrALaReplicaYLasEscriturasAlPrimario() {
+        // Act
+        String origenLectura = lectura.execute(estado -> jdbcTemplate.queryForObject(LEER_ORIGEN, String.class));
+        String origenEscritura = escritura.execute(estado -> jdbcTemplate.queryForObject(LEER_ORIGEN, String.class));
+
+        // Assert
+        assertEquals("replica", origenLectura);
+        assertEquals("primaria", origenEscritura);
+    }
+
+    @Test
+    void cuandoElUsuarioAcabaDeEscribir_susLecturasDebenIrAlPrimarioDuranteLaVentana() {
+        // Arrange
+        autenticar("ana");
+        escritura.executeWithoutResult(estado -> jdbcTemplate.update("UPDATE ORIGEN SET NOMBRE = NOMBRE"));
+
+        // Act
+        String origenAna = lectura.execute(estado -> jdbcTemplate.queryForObject(LEER_ORIGEN, String.class));
+        autenticar("luis");
+        String origenLuis = lectura.execute(estado -> jdbcTemplate.queryForObject(LEER_ORIGEN, String.class));
+
+        // Assert
+        assertEquals("primaria", origenAna);
+        assertEquals("replica", origenLuis);
+    }
+
+    @Test
+    void cuandoLaEscrituraHaceRollback_noDebeAbrirLaVentanaDeLecturaPropia() {
+        // Arrange
+        autenticar("ana");
+        escritura.executeWithoutResult(estado -> {
+            jdbcTemplate.update("UPDATE ORIGEN SET NOMBRE = NOMBRE");
+            estado.setRollbackOnly();
+        });
+
+        // Act
+        String origen = lectura.execute(estado -> jdbcTemplate.queryForObject(LEER_ORIGEN, String.class));
+
+        // Assert
+        assertEquals("replica", origen);
+    }
+
+    @Test
+    void cuandoLaReplicaNoResponde_lasLecturasDebenVolverAlPrimario() {
+        // Arrange
+        replicaSimulada.caida = true;
+
+        // Act: la lectura falla al pedir la conexión a la réplica y se sirve desde el primario
+        String origen = lectura.execute(estado -> jdbcTemplate.queryForObject(LEER_ORIGEN, String.class));
+
+        // Assert
+        assertEquals("primaria", origen);
+        assertFalse(enrutamiento.isReplicaDisponible());
+    }
+
+    @Test
+    void cuandoLaReplicaSeRecupera_laComprobacionDebeVolverAUsarla() {
+        // Arrange
+        replicaSimulada.caida = true;
+        enrutamiento.comprobarReplica();
+        assertFalse(enrutamiento.isReplicaDisponible());
+
+        // Act
+        replicaSimulada.caida = false;
+        enrutamiento.comprobarReplica();
+        String origen = lectura.execute(estado -> jdbcTemplate.queryForObject(LEER_ORIGEN, String.class));
+
+        // Assert
+        assertTrue(enrutamiento.isReplicaDisponible());
+        assertEquals("replica", origen);
+    }
+
+    @Test
+    void cuandoLaReplicaVaRetrasada_lasLecturasDebenVolverAlPrimario() {
+        // Arrange: la "consulta de retraso" de la prueba informa 30 s, por encima del máximo de 10 s
+        ReplicaLecturaProperties properties = new ReplicaLecturaProperties();
+        properties.setConsultaRetraso("SELECT 30");
+        EnrutamientoLecturaDataSource conRetraso = new EnrutamientoLecturaDataSource(primaria, replica, properties);
+        JdbcTemplate plantilla = new JdbcTemplate(new LazyConnectionDataSourceProxy(conRetraso));
+        TransactionTemplate soloLectura = new TransactionTemplate(new DataSourceTransactionManager(plantilla.getDataSource()));
+        soloLectura.setReadOnly(true);
+
+        // Act
+        conRetraso.comprobarReplica();
+        String origen = soloLectura.execute(estado -> plantilla.queryForObject(LEER_ORIGEN, String.class));
+
+        // Assert
+        assertFalse(conRetraso.isReplicaDisponible());
+        assertEquals("primaria", origen);
+    }
+
+    @Test
+    void cuandoLaReplicaEstaHabilitada_elDataSourcePrincipalDebeSerElProxyDeEnrutamiento() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ConfigurationPropertiesAutoConfiguration.class, DataSourceAutoConfiguration.class))
+                .withUserConfiguration(ReplicaLectura.class, ReplicaLecturaProperties.class)
+                .withPropertyValues(
+                        "spring.datasource.url=jdbc:h2:mem:primaria",
+                        "datasource.replica.habilitada=true",
+                        "datasource.replica.url=jdbc:h2:mem:replica",
+                        "datasource.replica.hikari.maximum-pool-size=3")
+                .run(contexto -> {
+                    // Assert
+                    assertTrue(contexto.getBean(DataSource.class) instanceof LazyConnectionDataSourceProxy);
+                    assertEquals(3, contexto.getBean("dataSourceReplica", HikariDataSource.class).getMaximumPoolSize());
+                    assertTrue(contexto.getBean("dataSourceReplica", HikariDataSource.class).isReadOnly());
+                    try (Connection conexion = contexto.getBean(DataSource.class).getConnection()) {
+                        assertTrue(conexion.isValid(1));
+                    }
+                });
+    }
+
+    @Test
+    void cuandoUnServicioJpaEsReadOnly_debeLeerDeLaReplica() {
+        // Arrange: como en la aplicación, JpaTransactionManager abre la sesión antes de publicar readOnly
+        crearBase("jpa_primaria");
+        crearBase("jpa_replica");
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ConfigurationPropertiesAutoConfiguration.class,
+                        DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class))
+                .withUserConfiguration(ReplicaLectura.class, ReplicaLecturaProperties.class, ServicioOrigen.class)
+                .withPropertyValues(
+                        "spring.datasource.url=jdbc:h2:mem:jpa_primaria",
+                        "spring.jpa.hibernate.ddl-auto=none",
+                        "datasource.replica.habilitada=true",
+                        "datasource.replica.url=jdbc:h2:mem:jpa_replica",
+                        "datasource.replica.username=sa",
+                        "datasource.replica.ventana-lectura-propia=0s")
+                .run(contexto -> {
+                    ServicioOrigen servicio = contexto.getBean(ServicioOrigen.class);
+
+                    // Act
+                    String origenLectura = servicio.leer();
+                    String origenEscritura = servicio.leerEnEscritura();
+
+                    // Assert
+                    assertEquals("jpa_replica", origenLectura);
+                    assertEquals("jpa_primaria", origenEscritura);
+                });
+    }
+
+    private static EmbeddedDatabase crearBase(String nombre) {
+        EmbeddedDatabase base = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .setName(nombre)
+                .build();
+        JdbcTemplate plantilla = new JdbcTemplate(base);
+        plantilla.execute("CREATE TABLE ORIGEN (NOMBRE VARCHAR(20))");
+        plantilla.update("INSERT INTO ORIGEN (NOMBRE) VALUES (?)", nombre);
+        return base;
+    }
+
+    // Réplica que se puede "apagar": mientras está caída rechaza las conexiones
+    private static class ReplicaSimulada extends DelegatingDataSource {
+
+        private volatile boolean caida;
+
+        ReplicaSimulada(DataSource base) {
+            super(base);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (caida) {
+                throw new SQLException("Réplica caída");
+            }
+            return super.getConnection();
+        }
+    }
+
+    // Servicio con @Transactional de verdad: la consulta pasa por el EntityManager de la transacción
+    static class ServicioOrigen {
+
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        @Transactional(readOnly = true)
+        public String leer() {
+            return (String) entityManager.createNativeQuery(LEER_ORIGEN).getSingleResult();
+        }
+
+        @Transactional
+        public String leerEnEscritura() {
+            return (String) entityManager.createNativeQuery(LEER_ORIGEN).getSingleResult();
+        }
+    }
+
+    private static void autenticar(String usuario) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(usuario, null, List.of()));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.EdutechAPI.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.example.EdutechAPI.api.cursos.model.Curso;
+import com.example.EdutechAPI.api.cursos.repository.CursoRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+// Mide las sentencias que llegan a la base de datos al insertar N cursos.
+// Con allocationSize = 1 serían 2 por insert (NEXTVAL + INSERT); con bloques de 50, ~1,02.
+@DataJpaTest
+@ActiveProfiles("h2")
+class IdGeneracionBenchmarkTest {
+
+    private static final int CANTIDAD = 500;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void cuandoInsertarCursos_debeReservarLosIdsPorBloques() {
+        // Arrange
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Curso> cursos = new ArrayList<>();
+        for (int i = 0; i < CANTIDAD; i++) {
+            Curso curso = new Curso();
+            curso.setNombreCurso("Curso " + i);
+            curso.setFechaCreacion(new Date());
+            curso.setEstado("activo");
+            cursos.add(curso);
+        }
+        statistics.clear();
+
+        // Act
+        cursoRepository.saveAll(cursos);
+        entityManager.flush();
+
+        // Assert
+        long sentencias = statistics.getPrepareStatementCount();
+        long llamadasSecuencia = sentencias - CANTIDAD;
+        long bloquesEsperados = (CANTIDAD + IdGeneracion.TAMANO_BLOQUE - 1) / IdGeneracion.TAMANO_BLOQUE;
+        double roundTripsPorInsert = (double) sentencias / CANTIDAD;
+        double maximoPorInsert = 1.0 + (double) (bloquesEsperados + 1) / CANTIDAD;
+
+        assertTrue(llamadasSecuencia <= bloquesEsperados + 1,
+                "Se esperaban como mucho " + (bloquesEsperados + 1) + " llamadas a la secuencia y hubo " + llamadasSecuencia);
+        // Con un NEXTVAL por insert serían 2,0 round trips por insert
+        assertTrue(roundTripsPorInsert <= maximoPorInsert,
+                "Se esperaban como mucho " + maximoPorInsert + " round trips por insert y hubo " + roundTripsPorInsert);
+        assertEquals(CANTIDAD, cursos.stream().map(Curso::getIdCurso).distinct().count(), "Los ids deben ser únicos.");
+    }
+}
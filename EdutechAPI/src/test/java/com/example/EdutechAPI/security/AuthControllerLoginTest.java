@@ -0,0 +1,208 @@
+package com.example.EdutechAPI.security;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.EdutechAPI.api.usuarios.model.Rol;
+import com.example.EdutechAPI.api.usuarios.model.Usuario;
+import com.example.EdutechAPI.api.usuarios.repository.RolRepository;
+import com.example.EdutechAPI.api.usuarios.repository.UsuarioRepository;
+import com.example.EdutechAPI.config.AESUtil;
+import com.example.EdutechAPI.security.dto.JwtResponse;
+import com.example.EdutechAPI.security.dto.LoginRequest;
+import com.example.EdutechAPI.security.dto.RefreshRequest;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+// El login corre en el pool de LoginExecutor, así que los datos se guardan fuera de la transacción del test
+@DataJpaTest
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UserDetailsServiceImpl.class, UserDetailsCache.class, PermisosPorRol.class, PermisoProperties.class,
+        AuthControllerLoginTest.Config.class})
+class AuthControllerLoginTest {
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+    @Autowired
+    private RolRepository rolRepository;
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private BCryptPasswordEncoder passwordEncoder;
+    private LoginExecutor loginExecutor;
+    private AuthController authController;
+    private TokenRevocationList tokenRevocationList;
+    private EventosSeguridad eventosSeguridad;
+    private AESUtil aesUtil;
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder(4);
+        Rol estudiante = rolRepository.save(new Rol(null, "Estudiante"));
+        usuario = usuarioRepository.save(new Usuario(null, "Arya", "Stark", "arya@example.com",
+                passwordEncoder.encode("Password123"), new Date(), "activo", 100L, new HashSet<>(Set.of(estudiante)), new HashSet<>()));
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(passwordEncoder);
+        provider.setUserDetailsService(userDetailsService);
+
+        eventosSeguridad = new EventosSeguridad(100, 1, 5, new SimpleMeterRegistry());
+        aesUtil = new AESUtil(new VerifiedTokenCache(100), eventosSeguridad);
+        ReflectionTestUtils.setField(aesUtil, "secretString", "U1z7W1Kjh2lRZzCQVqyLzczUU2bf2cN/slhgFVspJ20=");
+
+        loginExecutor = new LoginExecutor(1, 10, new SimpleMeterRegistry());
+        tokenRevocationList = new TokenRevocationList("target/test-revoked-tokens.log");
+        authController = crearController(new ProviderManager(provider));
+    }
+
+    private AuthController crearController(AuthenticationManager authenticationManager) {
+        AuthController controller = new AuthController(authenticationManager, aesUtil, userDetailsService,
+                passwordEncoder, loginExecutor,
+                new PasswordRehashService(passwordEncoder, usuarioRepository, userDetailsService, userDetailsCache),
+                tokenRevocationList, new RefreshTokenFamilies("target/test-refresh-families.log"), eventosSeguridad);
+        ReflectionTestUtils.setField(controller, "loginTimeoutMillis", 5000L);
+        return controller;
+    }
+
+    @AfterEach
+    void tearDown() {
+        loginExecutor.shutdown();
+        userDetailsCache.invalidate(usuario.getIdUsuario()); // La caché es del contexto, compartida entre pruebas
+        usuarioRepository.deleteAll();
+        rolRepository.deleteAll();
+    }
+
+    @Test
+    void cuandoLoginExitoso_debeHacerUnaSolaConsultaALaBaseDeDatos() throws Exception {
+        // Arrange
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        ResponseEntity<Object> respuesta = authController
+                .authenticateUser(new LoginRequest("arya@example.com", "Password123"))
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(HttpStatus.OK, respuesta.getStatusCode());
+        JwtResponse jwt = (JwtResponse) respuesta.getBody();
+        assertNotNull(jwt.getToken());
+        assertEquals(usuario.getIdUsuario(), jwt.getId());
+        assertArrayEquals(new String[] {"ROLE_ESTUDIANTE"}, jwt.getRoles());
+        assertEquals(1, statistics.getPrepareStatementCount(), "El login debería leer el usuario y sus roles en una sola consulta.");
+    }
+
+    @Test
+    void cuandoLaContrasenaEsIncorrecta_debeResponder400YContarUnLoginFallido() throws Exception {
+        // Act
+        ResponseEntity<Object> respuesta = authController
+                .authenticateUser(new LoginRequest("arya@example.com", "Incorrecta1"))
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, respuesta.getStatusCode());
+        assertEquals(1, eventosSeguridad.contador(TipoEventoSeguridad.LOGIN_FALLIDO));
+    }
+
+    @Test
+    void cuandoLaBaseDeDatosNoResponde_debeResponder503SinContarUnLoginFallido() throws Exception {
+        // Arrange: así llega una caída de la base de datos desde DaoAuthenticationProvider
+        AuthController sinBaseDeDatos = crearController(autenticacion -> {
+            throw new InternalAuthenticationServiceException("Sin conexión",
+                    new DataAccessResourceFailureException("Sin conexión"));
+        });
+
+        // Act
+        ResponseEntity<Object> respuesta = sinBaseDeDatos
+                .authenticateUser(new LoginRequest("arya@example.com", "Password123"))
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, respuesta.getStatusCode());
+        assertEquals(0, eventosSeguridad.contador(TipoEventoSeguridad.LOGIN_FALLIDO));
+    }
+
+    @Test
+    void cuandoElLoginFallaPorUnError_debeResponder500SinContarUnLoginFallido() throws Exception {
+        // Arrange
+        AuthController conError = crearController(autenticacion -> {
+            throw new IllegalStateException("Fallo inesperado");
+        });
+
+        // Act
+        ResponseEntity<Object> respuesta = conError
+                .authenticateUser(new LoginRequest("arya@example.com", "Password123"))
+                .get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, respuesta.getStatusCode());
+        assertEquals(0, eventosSeguridad.contador(TipoEventoSeguridad.LOGIN_FALLIDO));
+    }
+
+    @Test
+    void cuandoRenovarYReutilizarUnRefreshToken_debeRevocarLaFamiliaSinLlenarLaListaDeRevocados() throws Exception {
+        // Arrange
+        JwtResponse login = (JwtResponse) authController
+                .authenticateUser(new LoginRequest("arya@example.com", "Password123"))
+                .get(5, TimeUnit.SECONDS).getBody();
+
+        // Act: dos renovaciones normales y después se reutiliza el primer token ya rotado
+        ResponseEntity<Object> primera = authController.refresh(new RefreshRequest(login.getRefreshToken()));
+        String rotado = ((JwtResponse) primera.getBody()).getRefreshToken();
+        ResponseEntity<Object> segunda = authController.refresh(new RefreshRequest(rotado));
+        int revocadosTrasRenovar = tokenRevocationList.size();
+        ResponseEntity<Object> reutilizado = authController.refresh(new RefreshRequest(rotado));
+        String vigente = ((JwtResponse) segunda.getBody()).getRefreshToken();
+        ResponseEntity<Object> trasReutilizar = authController.refresh(new RefreshRequest(vigente));
+
+        // Assert
+        assertEquals(HttpStatus.OK, primera.getStatusCode());
+        assertEquals(HttpStatus.OK, segunda.getStatusCode());
+        assertEquals(0, revocadosTrasRenovar, "Rotar no debería añadir entradas a la lista de revocados.");
+        assertEquals(HttpStatus.UNAUTHORIZED, reutilizado.getStatusCode());
+        assertEquals(HttpStatus.UNAUTHORIZED, trasReutilizar.getStatusCode(), "La reutilización revoca la familia entera.");
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.EdutechAPI.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EventosSeguridadTest {
+
+    @Test
+    void cuandoLaColaSeLlena_losContadoresSiguenContandoTodosLosEventos() {
+        // Arrange: cola de 2 eventos, sin muestreo
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        EventosSeguridad eventos = new EventosSeguridad(2, 1, 5, meterRegistry);
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            eventos.registrar(TipoEventoSeguridad.FIRMA_INVALIDA, "firma inválida");
+        }
+
+        // Assert
+        assertEquals(5, eventos.contador(TipoEventoSeguridad.FIRMA_INVALIDA));
+        assertEquals(5.0, meterRegistry.get("seguridad.eventos").tag("tipo", "FIRMA_INVALIDA").functionCounter().count());
+        assertEquals(3.0, meterRegistry.get("seguridad.eventos.descartados").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("seguridad.eventos.cola").gauge().value());
+
+        eventos.drenar();
+        assertEquals(0.0, meterRegistry.get("seguridad.eventos.cola").gauge().value(), "Drenar debería vaciar la cola.");
+    }
+}
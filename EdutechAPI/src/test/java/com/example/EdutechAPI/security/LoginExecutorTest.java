@@ -0,0 +1,98 @@
+package com.example.EdutechAPI.security;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoginExecutorTest {
+
+    private static final long SIN_PLAZO = TimeUnit.SECONDS.toMillis(30);
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginExecutor loginExecutor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        loginExecutor = new LoginExecutor(1, 1, meterRegistry); // 1 hilo + 1 lugar en cola
+    }
+
+    @AfterEach
+    void tearDown() {
+        loginExecutor.shutdown();
+    }
+
+    @Test
+    void cuandoLaColaEstaLlena_debeRechazarElLoginSinBloquear() throws Exception {
+        // Arrange: ocupamos el único hilo y el único lugar de la cola
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<String> enCurso = loginExecutor.submit(() -> {
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "primero";
+        }, SIN_PLAZO);
+        CompletableFuture<String> enCola = loginExecutor.submit(() -> "segundo", SIN_PLAZO);
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, () -> loginExecutor.submit(() -> "tercero", SIN_PLAZO));
+        assertEquals(1, loginExecutor.queueSize(), "Debería quedar un login esperando en la cola.");
+        assertEquals(1.0, meterRegistry.get("auth.login.rechazados").counter().count());
+
+        liberar.countDown();
+        assertEquals("primero", enCurso.get(5, TimeUnit.SECONDS));
+        assertEquals("segundo", enCola.get(5, TimeUnit.SECONDS));
+        assertEquals(2, meterRegistry.get("auth.login.verificacion").timer().count());
+    }
+
+    @Test
+    void cuandoUnLoginVenceEnLaCola_noDebeVerificarseLaContrasena() throws Exception {
+        // Arrange: el único hilo está ocupado más allá del plazo del login que queda en cola
+        AuthenticationManager authenticationManager = mock(AuthenticationManager.class);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<String> enCurso = loginExecutor.submit(() -> {
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "primero";
+        }, SIN_PLAZO);
+        CompletableFuture<Authentication> enCola = loginExecutor.submit(() -> authenticationManager.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("ana@mail.com", "secreta")), 50);
+
+        // Act: el plazo vence con el login aún en cola, y después el hilo queda libre
+        ExecutionException error = assertThrows(ExecutionException.class, () -> enCola.get(5, TimeUnit.SECONDS));
+        liberar.countDown();
+        enCurso.get(5, TimeUnit.SECONDS);
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.login.caducados").counter().count() == 0 && System.nanoTime() < limite) {
+            Thread.sleep(10); // El hilo libre saca de la cola el login vencido
+        }
+
+        // Assert
+        assertTrue(error.getCause() instanceof TimeoutException);
+        verifyNoInteractions(authenticationManager);
+        assertEquals(1.0, meterRegistry.get("auth.login.caducados").counter().count());
+        assertEquals(1, meterRegistry.get("auth.login.verificacion").timer().count(), "Solo el primer login llega a verificarse.");
+    }
+}
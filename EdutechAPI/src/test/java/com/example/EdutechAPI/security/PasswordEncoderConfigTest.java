@@ -0,0 +1,34 @@
+package com.example.EdutechAPI.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+class PasswordEncoderConfigTest {
+
+    private final PasswordEncoder passwordEncoder = new PasswordEncoderConfig().passwordEncoder(5, 4, 16, 0);
+
+    @Test
+    void cuandoHashAntiguoSinPrefijo_debeAceptarloYPedirRehash() {
+        // Arrange
+        String hashAntiguo = new BCryptPasswordEncoder(4).encode("secreto");
+
+        // Act & Assert
+        assertTrue(passwordEncoder.matches("secreto", hashAntiguo));
+        assertTrue(passwordEncoder.upgradeEncoding(hashAntiguo));
+    }
+
+    @Test
+    void cuandoHashConCostoActual_noDebePedirRehash() {
+        // Arrange
+        String hashNuevo = passwordEncoder.encode("secreto");
+
+        // Act & Assert
+        assertTrue(hashNuevo.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(passwordEncoder.matches("secreto", hashNuevo));
+        assertFalse(passwordEncoder.upgradeEncoding(hashNuevo));
+    }
+}
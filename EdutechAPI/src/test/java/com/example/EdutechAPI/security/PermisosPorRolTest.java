@@ -0,0 +1,78 @@
+package com.example.EdutechAPI.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+class PermisosPorRolTest {
+
+    private PermisosPorRol permisosPorRol;
+
+    @BeforeEach
+    void setUp() {
+        PermisoProperties properties = new PermisoProperties();
+        properties.setRoles(Map.of(
+                "estudiante", List.of(Permiso.CURSOS_LEER, Permiso.INSCRIPCIONES_LEER),
+                "Profesor", List.of(Permiso.CURSOS_LEER, Permiso.CURSOS_ESCRIBIR)));
+        permisosPorRol = new PermisosPorRol(properties);
+    }
+
+    @Test
+    void cuandoUsuarioTieneVariosRoles_susPermisosSonLaUnionDeLosBitsets() {
+        // Act
+        long permisos = permisosPorRol.permisosDeRoles(List.of("Estudiante", "Profesor"));
+
+        // Assert
+        assertTrue(Permiso.CURSOS_ESCRIBIR.en(permisos));
+        assertTrue(Permiso.INSCRIPCIONES_LEER.en(permisos));
+        assertFalse(Permiso.CURSOS_ELIMINAR.en(permisos));
+    }
+
+    @Test
+    void cuandoPermisosDesdeAutoridadesDelToken_debeCoincidirConLosRoles() {
+        // Act
+        long desdeToken = permisosPorRol.permisosDeAutoridades(List.of(new SimpleGrantedAuthority("ROLE_ESTUDIANTE")));
+
+        // Assert
+        assertEquals(permisosPorRol.permisosDeRoles(List.of("Estudiante")), desdeToken);
+        assertEquals(0L, permisosPorRol.permisosDeRoles(List.of("Desconocido")), "Un rol sin configuración no tiene permisos.");
+    }
+
+    @Test
+    void conLaConfiguracionDeLaAplicacion_soloElAdministradorDebePoderExportarInscripciones() throws IOException {
+        // Arrange: los roles tal como se despliegan en application.properties
+        Properties aplicacion = new Properties();
+        try (InputStream entrada = getClass().getResourceAsStream("/application.properties")) {
+            aplicacion.load(entrada);
+        }
+        Map<String, List<Permiso>> roles = new HashMap<>();
+        String prefijo = "seguridad.permisos.roles.";
+        for (String clave : aplicacion.stringPropertyNames()) {
+            if (clave.startsWith(prefijo)) {
+                roles.put(clave.substring(prefijo.length()),
+                        Arrays.stream(aplicacion.getProperty(clave).split(",")).map(String::trim).map(Permiso::valueOf).toList());
+            }
+        }
+        PermisoProperties properties = new PermisoProperties();
+        properties.setRoles(roles);
+        PermisosPorRol desplegados = new PermisosPorRol(properties);
+
+        // Act & Assert
+        assertTrue(Permiso.INSCRIPCIONES_EXPORTAR.en(desplegados.permisosDeRoles(List.of("Administrador"))));
+        assertFalse(Permiso.INSCRIPCIONES_EXPORTAR.en(desplegados.permisosDeRoles(List.of("Profesor"))));
+        assertFalse(Permiso.INSCRIPCIONES_EXPORTAR.en(desplegados.permisosDeRoles(List.of("Estudiante"))));
+        assertTrue(Permiso.INSCRIPCIONES_LEER.en(desplegados.permisosDeRoles(List.of("Estudiante"))));
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.EdutechAPI.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Los buckets se rellenan a 1 token cada 1000 s: durante la prueba solo cuenta la ráfaga inicial
+class RateLimitFilterTest {
+
+    private static final double SIN_REPOSICION = 0.001;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void cuandoElUsuarioAgotaSuCupo_debeResponder429ConRetryAfter() throws Exception {
+        // Arrange: 2 solicitudes por usuario, sin límite por IP
+        RateLimitFilter filtro = filtro(2, 0);
+        autenticar("ana");
+
+        // Act
+        MockHttpServletResponse primera = filtrar(filtro, "10.0.0.1");
+        MockHttpServletResponse segunda = filtrar(filtro, "10.0.0.2");
+        MockHttpServletResponse tercera = filtrar(filtro, "10.0.0.3");
+        autenticar("luis");
+        MockHttpServletResponse deOtroUsuario = filtrar(filtro, "10.0.0.3");
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), primera.getStatus());
+        assertEquals(HttpStatus.OK.value(), segunda.getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), tercera.getStatus());
+        assertNotNull(tercera.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(Long.parseLong(tercera.getHeader(HttpHeaders.RETRY_AFTER)) >= 1);
+        assertEquals(HttpStatus.OK.value(), deOtroUsuario.getStatus());
+    }
+
+    @Test
+    void cuandoUnaIpAgotaSuCupo_debeRechazarseAunqueLaSolicitudSeaAnonima() throws Exception {
+        // Arrange: 1 solicitud por IP
+        RateLimitFilter filtro = filtro(0, 1);
+
+        // Act
+        MockHttpServletResponse primera = filtrar(filtro, "10.0.0.1");
+        MockHttpServletResponse segunda = filtrar(filtro, "10.0.0.1");
+        MockHttpServletResponse deOtraIp = filtrar(filtro, "10.0.0.2");
+
+        // Assert
+        assertEquals(HttpStatus.OK.value(), primera.getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), segunda.getStatus());
+        assertNotNull(segunda.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(HttpStatus.OK.value(), deOtraIp.getStatus());
+    }
+
+    @Test
+    void cuandoLaIpRechazaLaSolicitud_noDebeGastarseElCupoDelUsuario() throws Exception {
+        // Arrange: 2 solicitudes por usuario y 1 por IP
+        RateLimitFilter filtro = filtro(2, 1);
+        autenticar("ana");
+
+        // Act
+        MockHttpServletResponse primera = filtrar(filtro, "10.0.0.1");
+        MockHttpServletResponse rechazadaPorIp = filtrar(filtro, "10.0.0.1");
+        MockHttpServletResponse desdeOtraIp = filtrar(filtro, "10.0.0.2");
+        MockHttpServletResponse agotada = filtrar(filtro, "10.0.0.3");
+
+        // Assert: la solicitud rechazada por IP no consumió el segundo token del usuario
+        assertEquals(HttpStatus.OK.value(), primera.getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rechazadaPorIp.getStatus());
+        assertEquals(HttpStatus.OK.value(), desdeOtraIp.getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), agotada.getStatus());
+    }
+
+    private static RateLimitFilter filtro(long capacidadUsuario, long capacidadIp) {
+        RateLimitProperties.Grupo grupo = new RateLimitProperties.Grupo();
+        grupo.setNombre("api");
+        grupo.setPatrones(List.of("/api/**"));
+        grupo.setCapacidadUsuario(capacidadUsuario);
+        grupo.setPorSegundoUsuario(SIN_REPOSICION);
+        grupo.setCapacidadIp(capacidadIp);
+        grupo.setPorSegundoIp(SIN_REPOSICION);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setGrupos(List.of(grupo));
+        return new RateLimitFilter(properties, new SimpleMeterRegistry());
+    }
+
+    private static MockHttpServletResponse filtrar(RateLimitFilter filtro, String ip) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cursos");
+        request.setRemoteAddr(ip);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtro.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static void autenticar(String usuario) {
+        UserDetails principal = User.withUsername(usuario).password("x").authorities(List.of()).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities()));
+    }
+}
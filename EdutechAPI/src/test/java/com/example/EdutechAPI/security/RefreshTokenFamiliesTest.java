@@ -0,0 +1,68 @@
+package com.example.EdutechAPI.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RefreshTokenFamiliesTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void cuandoRotarVariasVeces_debeGuardarUnaSolaEntradaPorFamilia() {
+        // Arrange
+        RefreshTokenFamilies familias = new RefreshTokenFamilies(directorio.resolve("familias.log").toString());
+        long expiracion = System.currentTimeMillis() + 60_000;
+        String familia = familias.abrir(expiracion);
+
+        // Act
+        int primera = familias.rotar(familia, 0, expiracion);
+        int segunda = familias.rotar(familia, 1, expiracion);
+
+        // Assert
+        assertEquals(1, primera);
+        assertEquals(2, segunda);
+        assertEquals(1, familias.size());
+    }
+
+    @Test
+    void cuandoSeReutilizaUnaGeneracionRotada_debeRevocarLaFamilia() {
+        // Arrange
+        RefreshTokenFamilies familias = new RefreshTokenFamilies(directorio.resolve("familias.log").toString());
+        long expiracion = System.currentTimeMillis() + 60_000;
+        String familia = familias.abrir(expiracion);
+        familias.rotar(familia, 0, expiracion);
+
+        // Act
+        int reutilizada = familias.rotar(familia, 0, expiracion);
+        int vigente = familias.rotar(familia, 1, expiracion);
+
+        // Assert
+        assertEquals(RefreshTokenFamilies.REVOCADA, reutilizada);
+        assertEquals(RefreshTokenFamilies.REVOCADA, vigente, "Tras la reutilización ningún token de la familia sirve.");
+    }
+
+    @Test
+    void cuandoReiniciar_debeRecuperarLaGeneracionVigenteDeLaInstantanea() {
+        // Arrange
+        String archivo = directorio.resolve("familias.log").toString();
+        RefreshTokenFamilies original = new RefreshTokenFamilies(archivo);
+        long expiracion = System.currentTimeMillis() + 60_000;
+        String familia = original.abrir(expiracion);
+        original.rotar(familia, 0, expiracion);
+        original.abrir(System.currentTimeMillis() - 1); // Ya expirada: no se guarda
+        original.guardar();
+
+        // Act
+        RefreshTokenFamilies recargada = new RefreshTokenFamilies(archivo);
+        recargada.cargar();
+
+        // Assert
+        assertEquals(1, recargada.size());
+        assertEquals(RefreshTokenFamilies.REVOCADA, recargada.rotar(familia, 0, expiracion), "La generación 0 ya se había rotado.");
+    }
+}
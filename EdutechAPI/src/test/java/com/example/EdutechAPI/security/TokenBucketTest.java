@@ -0,0 +1,41 @@
+package com.example.EdutechAPI.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    @Test
+    void cuandoSeAgotaLaRafaga_debeRechazarHastaReponerTokens() {
+        // Arrange: ráfaga de 3 solicitudes, 1 token por segundo
+        TokenBucket bucket = new TokenBucket(3, 1.0);
+        long ahora = TimeUnit.SECONDS.toNanos(100);
+
+        // Act & Assert
+        assertEquals(0, bucket.intentarConsumir(ahora));
+        assertEquals(0, bucket.intentarConsumir(ahora));
+        assertEquals(0, bucket.intentarConsumir(ahora));
+        long espera = bucket.intentarConsumir(ahora);
+        assertTrue(espera > 0, "La cuarta solicitud de la ráfaga debería rechazarse.");
+        assertEquals(0, bucket.intentarConsumir(ahora + espera), "Pasada la espera indicada debería haber un token.");
+    }
+
+    @Test
+    void cuandoSeConsultaLaEsperaOSeDevuelveUnToken_laRafagaNoDebeGastarse() {
+        // Arrange: ráfaga de 1 solicitud, 1 token por segundo
+        TokenBucket bucket = new TokenBucket(1, 1.0);
+        long ahora = TimeUnit.SECONDS.toNanos(100);
+
+        // Act & Assert
+        assertEquals(0, bucket.espera(ahora));
+        assertEquals(0, bucket.espera(ahora), "Consultar la espera no consume el token.");
+        assertEquals(0, bucket.intentarConsumir(ahora));
+        assertTrue(bucket.espera(ahora) > 0);
+        bucket.devolver();
+        assertEquals(0, bucket.intentarConsumir(ahora), "El token devuelto vuelve a estar disponible.");
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.EdutechAPI.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TokenRevocationListTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void cuandoRevocarToken_debeQuedarRevocadoUnaSolaVez() {
+        // Arrange
+        TokenRevocationList lista = new TokenRevocationList(directorio.resolve("revocados.log").toString());
+        long expiracion = System.currentTimeMillis() + 60_000;
+
+        // Act
+        boolean primera = lista.revocar("jti-1", expiracion);
+        boolean segunda = lista.revocar("jti-1", expiracion);
+
+        // Assert
+        assertTrue(primera);
+        assertFalse(segunda, "Un refresh token ya revocado no debería poder rotarse de nuevo.");
+        assertTrue(lista.isRevoked("jti-1"));
+        assertFalse(lista.isRevoked("jti-2"));
+    }
+
+    @Test
+    void cuandoReiniciar_debeRecuperarSoloLasRevocacionesVigentes() throws Exception {
+        // Arrange
+        String archivo = directorio.resolve("revocados.log").toString();
+        TokenRevocationList original = new TokenRevocationList(archivo);
+        original.revocar("vigente", System.currentTimeMillis() + 60_000);
+        original.revocar("por-expirar", System.currentTimeMillis() + 50);
+        Thread.sleep(100);
+
+        // Act
+        TokenRevocationList recargada = new TokenRevocationList(archivo);
+        recargada.cargar();
+
+        // Assert
+        assertTrue(recargada.isRevoked("vigente"));
+        assertFalse(recargada.isRevoked("por-expirar"), "Las revocaciones expiradas se descartan al compactar.");
+        assertEquals(1, recargada.size());
+    }
+}
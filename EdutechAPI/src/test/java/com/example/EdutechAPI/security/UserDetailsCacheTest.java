@@ -0,0 +1,96 @@
+package com.example.EdutechAPI.security;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.example.EdutechAPI.api.usuarios.event.UsuarioModificadoEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UserDetailsCacheTest {
+
+    private UserDetailsCache userDetailsCache;
+    private AtomicInteger cargas;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsCache = new UserDetailsCache(100, 300, new SimpleMeterRegistry());
+        cargas = new AtomicInteger();
+    }
+
+    private UserDetailsCache.CachedUser cargar(String email) {
+        cargas.incrementAndGet();
+        return new UserDetailsCache.CachedUser(7L, email, "Arya Stark", "hash", List.of(new SimpleGrantedAuthority("ROLE_ESTUDIANTE")),
+                Permiso.CURSOS_LEER.bit(), 3L);
+    }
+
+    @Test
+    void cuandoGet_variasVeces_debeCargarUnaSolaVez() {
+        // Act
+        UserDetails primero = userDetailsCache.get("arya@example.com", this::cargar).toUserDetails();
+        UserDetails segundo = userDetailsCache.get("arya@example.com", this::cargar).toUserDetails();
+
+        // Assert
+        assertEquals(1, cargas.get(), "La segunda lectura debería salir de la caché.");
+        assertNotSame(primero, segundo, "Cada lectura debe devolver una copia para que eraseCredentials no afecte a la caché.");
+        assertEquals(1, userDetailsCache.stats().hitCount());
+        assertEquals(1, userDetailsCache.stats().missCount());
+    }
+
+    @Test
+    void cuandoSePublicaUsuarioModificado_debeInvalidarPorId() {
+        // Arrange
+        userDetailsCache.get("arya@example.com", this::cargar);
+
+        // Act
+        userDetailsCache.onUsuarioModificado(new UsuarioModificadoEvent(7L));
+        userDetailsCache.get("arya@example.com", this::cargar);
+
+        // Assert
+        assertEquals(2, cargas.get(), "Después de la invalidación el usuario debería recargarse.");
+    }
+
+    @Test
+    void cuandoSeInvalidaMientrasSeCarga_noDebeQuedarEnCacheElValorLeido() {
+        // Arrange: la invalidación llega después de leer la base de datos y antes de que el id esté indexado
+        userDetailsCache.get("arya@example.com", email -> {
+            UserDetailsCache.CachedUser leido = cargar(email);
+            userDetailsCache.onUsuarioModificado(new UsuarioModificadoEvent(7L));
+            return leido;
+        });
+
+        // Act
+        userDetailsCache.get("arya@example.com", this::cargar);
+
+        // Assert
+        assertEquals(2, cargas.get(), "El valor leído antes del cambio no debería haberse guardado.");
+    }
+
+    @Test
+    void cuandoElUsuarioNoEstaEnCache_suVersionDeTokenNoDebeDarsePorVigente() {
+        // Arrange: como tras un reinicio o en otra instancia, ningún usuario está cargado todavía
+        TokenVersionRegistry registry = new TokenVersionRegistry(userDetailsCache);
+        assertFalse(registry.isCurrent(7L, 3L), "Sin usuario en caché el filtro debe ir a la base de datos.");
+
+        // Act
+        userDetailsCache.get("arya@example.com", this::cargar);
+        boolean trasCargar = registry.isCurrent(7L, 3L);
+        boolean versionAnterior = registry.isCurrent(7L, 2L);
+        userDetailsCache.onUsuarioModificado(new UsuarioModificadoEvent(7L));
+
+        // Assert
+        assertTrue(trasCargar);
+        assertFalse(versionAnterior);
+        assertFalse(registry.isCurrent(7L, 3L), "Tras invalidar al usuario su versión debe volver a leerse.");
+        assertEquals(1, userDetailsCache.stats().requestCount(), "Consultar la versión no cuenta como lectura de la caché.");
+    }
+}